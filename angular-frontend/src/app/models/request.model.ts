@@ -11,6 +11,12 @@ export interface Request {
   requester: string;         // request.requester
 }
 
+export interface VoteStatus {
+  requestId: number;         // request.id
+  voteCount: number;         // request.vote_count
+  hasVoted: boolean;         // computed: the voter has a vote row for the request
+}
+
 export interface CreateRequest {
   applicationId: string;
   capabilitiesType: string;
@@ -14,7 +14,7 @@ import { ApplicationDetail, ApplicationTag } from '../models/application-detail.
 import { CategoryCount } from '../models/category-count.model';
 import { ImplementationListItem } from '../models/implementation-list-item.model';
 import { CatalogConnector } from '../models/catalog-connector.model';
-import { IntegrationRequest, UploadConnectorPayload } from '../models/request.model';
+import { IntegrationRequest, UploadConnectorPayload, VoteStatus } from '../models/request.model';
 import { environment } from '../../environments/environment';
 import { ProblemDetail } from '../models/problem-detail';
 
@@ -77,6 +77,13 @@ export class ApplicationService {
     return this.http.get<boolean>(`${environment.apiUrl}/requests/${requestId}/votes/check?voter=${voter}`);
   }
 
+  /** Vote counts and has-voted flags in one call; omit requestIds to get all open requests. */
+  getVoteStatuses(voter: string, requestIds?: number[]): Observable<VoteStatus[]> {
+    let params = new HttpParams().set('voter', voter);
+    (requestIds ?? []).forEach(id => params = params.append('ids', id));
+    return this.http.get<VoteStatus[]>(`${environment.apiUrl}/requests/votes/status`, { params });
+  }
+
   submitRequest(request: IntegrationRequest): Observable<void> {
     return this.http.post<void>(`${environment.apiUrl}/requests`, request);
   }
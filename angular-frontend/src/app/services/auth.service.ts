@@ -22,6 +22,7 @@ interface LoginResponse {
   role: string;
   organizationId: number | null;
   organizationName: string | null;
+  token: string | null;
 }
 
 @Injectable({
@@ -68,6 +69,10 @@ export class AuthService {
         this._currentOrganizationId.set(response.organizationId);
         this._currentOrganizationName.set(response.organizationName);
         localStorage.setItem('currentUser', response.username);
+        // Sent back as "Authorization: Bearer" by authInterceptor; the backend trusts it over X-User-Name.
+        if (response.token) {
+          localStorage.setItem('access_token', response.token);
+        }
         if (role) {
           localStorage.setItem('currentRole', response.role);
         }
@@ -90,6 +95,7 @@ export class AuthService {
     this._currentOrganizationId.set(null);
     this._currentOrganizationName.set(null);
     localStorage.removeItem('currentUser');
+    localStorage.removeItem('access_token');
     localStorage.removeItem('currentRole');
     localStorage.removeItem('currentOrganizationId');
     localStorage.removeItem('currentOrganizationName');
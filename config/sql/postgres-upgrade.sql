@@ -49,6 +49,249 @@ alter table connector add COLUMN IF NOT EXISTS cloned_from integer;
 $aa$);
 -- end of region
 
+-- region change 3: request.vote_count
+-- Denormalised vote count, maintained by the same statement that inserts a vote (see
+-- VoteRepository.insertVoteAndIncrementCount), so reading a request's count needs no count(*).
+call apply_change(3, $aa$
+alter table request add column vote_count bigint DEFAULT 0 NOT NULL;
+update request r set vote_count = (select count(*) from vote v where v.request_id = r.id);
+$aa$);
+-- end of region
+
+-- region change 4: recently_used_applications.used_at
+-- Last use of the application by the user. Uses are upserted (ON CONFLICT (user_id, application_id))
+-- by RecentlyUsedTracker instead of delete + insert, so ordering moves from id to used_at.
+call apply_change(4, $aa$
+alter table recently_used_applications add column used_at timestamp with time zone DEFAULT now() NOT NULL;
+update recently_used_applications r
+    set used_at = now() - ((select max(id) from recently_used_applications) - r.id) * interval '1 millisecond';
+create index idx_rua_used_at on recently_used_applications using btree (used_at);
+$aa$);
+-- end of region
+
+-- region change 5: pooled id sequences
+-- Ids of connector versions, bundle versions and capability groups are allocated by Hibernate
+-- in blocks of 50 (pooled optimizer, allocationSize = 50) so inserts can be JDBC-batched.
+-- The sequence increment must equal the allocation size.
+call apply_change(5, $aa$
+alter table connector_version alter column id set increment by 50;
+alter table connector_bundle_version alter column id set increment by 50;
+alter table integration_method_capability alter column id set increment by 50;
+alter table conn_version_capability alter column id set increment by 50;
+$aa$);
+-- end of region
+
+-- region change 6: outbox_job
+-- Durable background jobs (transactional outbox). A job is inserted in the same transaction as
+-- the change that needs it and executed after commit by OutboxDispatcher, with retries.
+-- At most one PENDING/RUNNING job exists per (job_type, dedupe_key).
+call apply_change(6, $aa$
+CREATE TABLE outbox_job (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_type        character varying(50) NOT NULL,
+    dedupe_key      character varying(255) NOT NULL,
+    payload         text NOT NULL,
+    status          character varying(20) DEFAULT 'PENDING' NOT NULL,
+    attempts        integer DEFAULT 0 NOT NULL,
+    next_attempt_at timestamp with time zone DEFAULT now() NOT NULL,
+    locked_until    timestamp with time zone,
+    last_error      text,
+    created_at      timestamp with time zone DEFAULT now() NOT NULL,
+    updated_at      timestamp with time zone DEFAULT now() NOT NULL
+);
+CREATE UNIQUE INDEX uq_outbox_job_active ON outbox_job (job_type, dedupe_key)
+    WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_outbox_job_due ON outbox_job (next_attempt_at) WHERE status IN ('PENDING', 'RUNNING');
+$aa$);
+-- end of region
+
+-- region change 7: build_callback
+-- Inbox of processed Jenkins build callbacks, keyed by the build ID Jenkins sends back
+-- (the BUILD_REQUEST_ID build parameter). A duplicate or retried callback finds its row and is
+-- skipped (continue/fail) or answered with the recorded outcome (verify).
+call apply_change(7, $aa$
+CREATE TABLE build_callback (
+    build_id      character varying(255) NOT NULL,
+    callback_type character varying(20) NOT NULL,
+    outcome       character varying(20) NOT NULL,
+    message       text,
+    received_at   timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT build_callback_pkey PRIMARY KEY (build_id, callback_type)
+);
+$aa$);
+-- end of region
+
+-- region change 8: capability name unique
+-- Capability names are unique (they mirror the CapabilityType enum); CapabilityRegistry inserts
+-- missing capabilities with "on conflict (name) do nothing".
+call apply_change(8, $aa$
+CREATE UNIQUE INDEX uq_capability_name ON capability (name);
+$aa$);
+-- end of region
+
+-- region change 9: tutorial_blob, tutorial_file
+-- Content-addressed tutorial file store. Each distinct file content is stored once, as a blob
+-- named by its SHA-256 (tutorial_blob); tutorial_file is the per-revision manifest mapping file names
+-- to blobs. A trigger keeps tutorial_blob.ref_count equal to the number of manifest rows (also when
+-- they go away with a cascaded integration_method delete); blobs at zero are collected by the
+-- application. Existing tutorial folders are imported by the application on startup.
+call apply_change(9, $aa$
+CREATE TABLE tutorial_blob (
+    hash       character(64) NOT NULL,
+    size_bytes bigint NOT NULL,
+    ref_count  integer DEFAULT 0 NOT NULL,
+    created_at timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT tutorial_blob_pkey PRIMARY KEY (hash)
+);
+CREATE TABLE tutorial_file (
+    integ_method_id       uuid NOT NULL,
+    integ_method_revision character varying(255) NOT NULL,
+    file_name             character varying(255) NOT NULL,
+    blob_hash             character(64) NOT NULL,
+    created_at            timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT tutorial_file_pkey PRIMARY KEY (integ_method_id, integ_method_revision, file_name),
+    CONSTRAINT fk_tutorial_file_int_method FOREIGN KEY (integ_method_id, integ_method_revision)
+        REFERENCES integration_method (id, revision) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED,
+    CONSTRAINT fk_tutorial_file_blob FOREIGN KEY (blob_hash) REFERENCES tutorial_blob (hash)
+);
+CREATE INDEX idx_tutorial_file_blob_hash ON tutorial_file (blob_hash);
+CREATE INDEX idx_tutorial_blob_unreferenced ON tutorial_blob (hash) WHERE ref_count <= 0;
+
+CREATE FUNCTION tutorial_blob_ref_count() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE tutorial_blob SET ref_count = ref_count + 1 WHERE hash = NEW.blob_hash;
+    END IF;
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE tutorial_blob SET ref_count = ref_count - 1 WHERE hash = OLD.blob_hash;
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER tutorial_file_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF blob_hash ON tutorial_file
+    FOR EACH ROW EXECUTE FUNCTION tutorial_blob_ref_count();
+$aa$);
+-- end of region
+
+-- region change 10: tutorial file content type
+-- Content type of each tutorial file, fixed at upload so downloads do not probe the file system.
+call apply_change(10, $aa$
+ALTER TABLE tutorial_file ADD COLUMN content_type character varying(255);
+$aa$);
+-- end of region
+
+-- region change 11: tutorial file size in the index
+-- tutorial_file becomes a self-contained index of a revision's files (name, size, hash, content type,
+-- modification time), so listings and bundles need no blob lookups.
+call apply_change(11, $aa$
+ALTER TABLE tutorial_file ADD COLUMN size_bytes bigint;
+UPDATE tutorial_file f SET size_bytes = b.size_bytes FROM tutorial_blob b WHERE b.hash = f.blob_hash;
+ALTER TABLE tutorial_file ALTER COLUMN size_bytes SET NOT NULL;
+$aa$);
+-- end of region
+
+-- region change 12: numeric major revision of integration methods
+-- The major number of each integration-method revision as a stored column, indexed per method, so
+-- the next free major version is one index lookup instead of parsing every revision in the application.
+call apply_change(12, $aa$
+ALTER TABLE integration_method ADD COLUMN revision_major integer GENERATED ALWAYS AS (
+    CASE WHEN revision ~ '^[0-9]{1,9}(\.|$)' THEN CAST(substring(revision FROM '^[0-9]{1,9}') AS integer) ELSE 1 END
+) STORED;
+CREATE INDEX idx_integ_method_rev_major ON integration_method USING btree (id, revision_major);
+$aa$);
+-- end of region
+
+-- region change 13: optimistic locking versions
+-- Row versions for optimistic locking of integration methods, connectors and bundle versions: every
+-- JPA update bumps them, so concurrent editors of the same row conflict instead of overwriting each other.
+call apply_change(13, $aa$
+ALTER TABLE integration_method ADD COLUMN row_version bigint NOT NULL DEFAULT 0;
+ALTER TABLE connector ADD COLUMN row_version bigint NOT NULL DEFAULT 0;
+ALTER TABLE connector_bundle_version ADD COLUMN row_version bigint NOT NULL DEFAULT 0;
+$aa$);
+-- end of region
+
+-- region change 14: pooled id allocation for SQL inserts
+-- Pooled id blocks for raw SQL inserts: allocate_pooled_ids(seq, n) reserves ids the way Hibernate's
+-- pooled optimizer does (one nextval per block of 50), so copies made in SQL no longer burn 50 ids per row.
+call apply_change(14, $aa$
+CREATE FUNCTION allocate_pooled_ids(seq regclass, n integer) RETURNS SETOF bigint
+LANGUAGE plpgsql AS $$
+DECLARE
+    step bigint := (SELECT seqincrement FROM pg_sequence WHERE seqrelid = seq);
+    hi bigint;
+    lo bigint;
+    remaining bigint := n;
+BEGIN
+    WHILE remaining > 0 LOOP
+        hi := nextval(seq);
+        lo := greatest(hi - step + 1, 1);
+        hi := least(hi, lo + remaining - 1);
+        RETURN QUERY SELECT id FROM generate_series(lo, hi) id;
+        remaining := remaining - (hi - lo + 1);
+    END LOOP;
+END $$;
+$aa$);
+-- end of region
+
+-- region change 15: reference counts of cached connector artifacts
+-- Reference counts of the connector artifacts cached in the bundle blob store (artifacts/<url_hash>.jar),
+-- kept by a trigger on connector_bundle_version.artifact_url; artifacts no longer referenced are deleted.
+call apply_change(15, $aa$
+CREATE TABLE bundle_artifact (
+    url_hash   character(64) NOT NULL,
+    ref_count  integer DEFAULT 0 NOT NULL,
+    created_at timestamp with time zone DEFAULT now() NOT NULL
+);
+
+ALTER TABLE ONLY bundle_artifact
+    ADD CONSTRAINT bundle_artifact_pkey PRIMARY KEY (url_hash);
+
+CREATE INDEX idx_bundle_artifact_unreferenced ON bundle_artifact USING btree (url_hash) WHERE ref_count <= 0;
+
+CREATE FUNCTION bundle_artifact_ref_count() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') AND coalesce(btrim(NEW.artifact_url), '') <> '' THEN
+        INSERT INTO bundle_artifact (url_hash, ref_count)
+        VALUES (encode(sha256(convert_to(NEW.artifact_url, 'UTF8')), 'hex'), 1)
+        ON CONFLICT (url_hash) DO UPDATE SET ref_count = bundle_artifact.ref_count + 1;
+    END IF;
+    IF TG_OP IN ('DELETE', 'UPDATE') AND coalesce(btrim(OLD.artifact_url), '') <> '' THEN
+        UPDATE bundle_artifact SET ref_count = ref_count - 1
+        WHERE url_hash = encode(sha256(convert_to(OLD.artifact_url, 'UTF8')), 'hex');
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER connector_bundle_version_artifact_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF artifact_url ON connector_bundle_version
+    FOR EACH ROW EXECUTE FUNCTION bundle_artifact_ref_count();
+
+INSERT INTO bundle_artifact (url_hash, ref_count)
+SELECT encode(sha256(convert_to(artifact_url, 'UTF8')), 'hex'), count(*)
+FROM connector_bundle_version
+WHERE coalesce(btrim(artifact_url), '') <> ''
+GROUP BY 1;
+$aa$);
+-- end of region
+
+-- region change 16: case-insensitive order of tutorial file names
+-- Serves the case-insensitively ordered file names of a tutorial revision from one index, without a sort.
+call apply_change(16, $aa$
+CREATE INDEX idx_tutorial_file_name_lower ON tutorial_file USING btree (integ_method_id, integ_method_revision, lower(file_name), file_name);
+$aa$);
+-- end of region
+
+-- region change 17: content hash of application logos
+-- SHA-256 of the logo content, served as its ETag; logos stored before are hashed on startup.
+call apply_change(17, $aa$
+ALTER TABLE application ADD COLUMN logo_hash character(64);
+$aa$);
+-- end of region
+
 -- Append new apply_change sections above this line. For every new change N (3 and higher):
 --   1. add a "-- region change N: <name>" section here containing
 --        call apply_change(N, $aa$
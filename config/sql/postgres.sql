@@ -162,7 +162,8 @@ CREATE TABLE application (
 	lifecycle_state ApplicationLifecycleType NOT NULL,
 	created_at timestamp without time zone NOT NULL,
 	updated timestamp without time zone NOT NULL,
-	logo_path character varying(255)
+	logo_path character varying(255),
+	logo_hash character(64)
 );
 
 CREATE TABLE application_tag (
@@ -237,7 +238,8 @@ CREATE TABLE connector (
 	fully_qualified_class_name character varying(255),
 	connector_bundle_id integer NOT NULL,
 	description character varying(350),
-	cloned_from integer
+	cloned_from integer,
+	row_version bigint NOT NULL DEFAULT 0
 );
 
 ALTER TABLE connector ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
@@ -297,7 +299,7 @@ CREATE TABLE connector_version (
 ALTER TABLE connector_version ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
     SEQUENCE NAME connector_version_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1
@@ -348,13 +350,14 @@ CREATE TABLE connector_bundle_version (
 	build_framework BuildFrameworkType,
 	commit_tag character varying(255),
 	artifact_url character varying(255),
-	error_message text
+	error_message text,
+	row_version bigint NOT NULL DEFAULT 0
 );
 
 ALTER TABLE connector_bundle_version ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
     SEQUENCE NAME connector_bundle_version_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1
@@ -386,6 +389,7 @@ CREATE TABLE request (
     collab boolean NOT NULL,
     base_url character varying(255),
     system_version character varying(20),
+    vote_count bigint DEFAULT 0 NOT NULL,
     CONSTRAINT unique_request_per_application UNIQUE (application_id)
 );
 
@@ -435,7 +439,11 @@ CREATE TABLE integration_method (
 	created_at timestamp without time zone NOT NULL,
 	updated timestamp without time zone NOT NULL,
 	app_version character varying(255),
-	reviewed_by character varying(255)
+	reviewed_by character varying(255),
+	revision_major integer GENERATED ALWAYS AS (
+		CASE WHEN revision ~ '^[0-9]{1,9}(\.|$)' THEN CAST(substring(revision FROM '^[0-9]{1,9}') AS integer) ELSE 1 END
+	) STORED,
+	row_version bigint NOT NULL DEFAULT 0
 );
 
 CREATE TABLE integration_method_type (
@@ -496,7 +504,7 @@ CREATE TABLE integration_method_capability (
 ALTER TABLE integration_method_capability ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
     SEQUENCE NAME integration_method_capability_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1
@@ -517,7 +525,7 @@ CREATE TABLE conn_version_capability (
 ALTER TABLE conn_version_capability ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
     SEQUENCE NAME conn_version_capability_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1
@@ -549,7 +557,8 @@ ALTER TABLE integration_method_connector ALTER COLUMN id ADD GENERATED BY DEFAUL
 CREATE TABLE recently_used_applications (
     id             bigint NOT NULL,
     user_id        character varying(255) NOT NULL,
-    application_id uuid NOT NULL
+    application_id uuid NOT NULL,
+    used_at        timestamp with time zone DEFAULT now() NOT NULL
 );
 
 ALTER TABLE recently_used_applications ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
@@ -561,6 +570,123 @@ ALTER TABLE recently_used_applications ALTER COLUMN id ADD GENERATED BY DEFAULT
     CACHE 1
 );
 
+CREATE TABLE outbox_job (
+    id              bigint NOT NULL,
+    job_type        character varying(50) NOT NULL,
+    dedupe_key      character varying(255) NOT NULL,
+    payload         text NOT NULL,
+    status          character varying(20) DEFAULT 'PENDING' NOT NULL,
+    attempts        integer DEFAULT 0 NOT NULL,
+    next_attempt_at timestamp with time zone DEFAULT now() NOT NULL,
+    locked_until    timestamp with time zone,
+    last_error      text,
+    created_at      timestamp with time zone DEFAULT now() NOT NULL,
+    updated_at      timestamp with time zone DEFAULT now() NOT NULL
+);
+
+ALTER TABLE outbox_job ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME outbox_job_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+CREATE TABLE build_callback (
+    build_id      character varying(255) NOT NULL,
+    callback_type character varying(20) NOT NULL,
+    outcome       character varying(20) NOT NULL,
+    message       text,
+    received_at   timestamp with time zone DEFAULT now() NOT NULL
+);
+
+CREATE TABLE tutorial_blob (
+    hash       character(64) NOT NULL,
+    size_bytes bigint NOT NULL,
+    ref_count  integer DEFAULT 0 NOT NULL,
+    created_at timestamp with time zone DEFAULT now() NOT NULL
+);
+
+CREATE TABLE tutorial_file (
+    integ_method_id       uuid NOT NULL,
+    integ_method_revision character varying(255) NOT NULL,
+    file_name             character varying(255) NOT NULL,
+    blob_hash             character(64) NOT NULL,
+    size_bytes            bigint NOT NULL,
+    content_type          character varying(255),
+    created_at            timestamp with time zone DEFAULT now() NOT NULL
+);
+
+-- Keeps tutorial_blob.ref_count equal to the number of tutorial_file rows pointing at the blob,
+-- including rows removed by a cascaded integration_method delete.
+CREATE FUNCTION tutorial_blob_ref_count() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE tutorial_blob SET ref_count = ref_count + 1 WHERE hash = NEW.blob_hash;
+    END IF;
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE tutorial_blob SET ref_count = ref_count - 1 WHERE hash = OLD.blob_hash;
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER tutorial_file_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF blob_hash ON tutorial_file
+    FOR EACH ROW EXECUTE FUNCTION tutorial_blob_ref_count();
+
+-- Connector artifacts cached in the bundle blob store as artifacts/<url_hash>.jar, url_hash being the
+-- SHA-256 of the artifact URL. ref_count is the number of connector_bundle_version rows with that URL;
+-- BundleService deletes the cached artifacts that drop to zero.
+CREATE TABLE bundle_artifact (
+    url_hash   character(64) NOT NULL,
+    ref_count  integer DEFAULT 0 NOT NULL,
+    created_at timestamp with time zone DEFAULT now() NOT NULL
+);
+
+CREATE FUNCTION bundle_artifact_ref_count() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') AND coalesce(btrim(NEW.artifact_url), '') <> '' THEN
+        INSERT INTO bundle_artifact (url_hash, ref_count)
+        VALUES (encode(sha256(convert_to(NEW.artifact_url, 'UTF8')), 'hex'), 1)
+        ON CONFLICT (url_hash) DO UPDATE SET ref_count = bundle_artifact.ref_count + 1;
+    END IF;
+    IF TG_OP IN ('DELETE', 'UPDATE') AND coalesce(btrim(OLD.artifact_url), '') <> '' THEN
+        UPDATE bundle_artifact SET ref_count = ref_count - 1
+        WHERE url_hash = encode(sha256(convert_to(OLD.artifact_url, 'UTF8')), 'hex');
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER connector_bundle_version_artifact_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF artifact_url ON connector_bundle_version
+    FOR EACH ROW EXECUTE FUNCTION bundle_artifact_ref_count();
+
+-- Ids for raw SQL inserts into the tables whose ids Hibernate allocates in pooled blocks
+-- (connector_version, connector_bundle_version, conn_version_capability, integration_method_capability;
+-- sequence increment = allocationSize = 50). Each nextval reserves the block (value - increment, value],
+-- exactly as the pooled optimizer does, so n rows cost ceil(n / increment) sequence calls instead of a
+-- whole block per row. Inserts into these tables must take their ids from Hibernate or from this
+-- function; the identity default would burn a block per row.
+CREATE FUNCTION allocate_pooled_ids(seq regclass, n integer) RETURNS SETOF bigint
+LANGUAGE plpgsql AS $$
+DECLARE
+    step bigint := (SELECT seqincrement FROM pg_sequence WHERE seqrelid = seq);
+    hi bigint;
+    lo bigint;
+    remaining bigint := n;
+BEGIN
+    WHILE remaining > 0 LOOP
+        hi := nextval(seq);
+        lo := greatest(hi - step + 1, 1);
+        hi := least(hi, lo + remaining - 1);
+        RETURN QUERY SELECT id FROM generate_series(lo, hi) id;
+        remaining := remaining - (hi - lo + 1);
+    END LOOP;
+END $$;
+
 CREATE TABLE organizations (
     id          integer NOT NULL,
     name        character varying(255) NOT NULL,
@@ -678,6 +804,21 @@ ALTER TABLE ONLY integration_method_connector
 ALTER TABLE ONLY recently_used_applications
     ADD CONSTRAINT recently_used_applications_pkey PRIMARY KEY (id);
 	
+ALTER TABLE ONLY outbox_job
+    ADD CONSTRAINT outbox_job_pkey PRIMARY KEY (id);
+
+ALTER TABLE ONLY build_callback
+    ADD CONSTRAINT build_callback_pkey PRIMARY KEY (build_id, callback_type);
+
+ALTER TABLE ONLY tutorial_blob
+    ADD CONSTRAINT tutorial_blob_pkey PRIMARY KEY (hash);
+
+ALTER TABLE ONLY bundle_artifact
+    ADD CONSTRAINT bundle_artifact_pkey PRIMARY KEY (url_hash);
+
+ALTER TABLE ONLY tutorial_file
+    ADD CONSTRAINT tutorial_file_pkey PRIMARY KEY (integ_method_id, integ_method_revision, file_name);
+
 ALTER TABLE ONLY organizations
     ADD CONSTRAINT organizations_pkey PRIMARY KEY (id);
 
@@ -730,6 +871,7 @@ CREATE INDEX idx_cct_tag_id                 			ON connector_connector_tag USING
 CREATE INDEX idx_integ_method_app_id        			ON integration_method USING btree (application_id);
 CREATE INDEX idx_imc_connector_id           			ON integration_method_connector USING btree (connector_id);
 CREATE INDEX idx_imc_integ_method_id        			ON integration_method_connector USING btree (integ_method_id);
+CREATE UNIQUE INDEX uq_capability_name        			ON capability USING btree (name);
 CREATE INDEX idx_im_cap_integ_method_id     			ON integration_method_capability USING btree (integ_method_id);
 CREATE INDEX idx_cvc_conn_version_id        			ON conn_version_capability USING btree (conn_version_id);
 CREATE INDEX idx_request_application_id     			ON request USING btree (application_id);
@@ -737,12 +879,20 @@ CREATE INDEX idx_obj_cap_request_id         			ON object_class_capabilities USIN
 CREATE INDEX idx_vote_request_id            			ON vote USING btree (request_id);
 CREATE INDEX idx_rua_user_id                			ON recently_used_applications USING btree (user_id);
 CREATE INDEX idx_rua_application_id         			ON recently_used_applications USING btree (application_id);
+CREATE INDEX idx_rua_used_at                			ON recently_used_applications USING btree (used_at);
+CREATE UNIQUE INDEX uq_outbox_job_active     			ON outbox_job USING btree (job_type, dedupe_key) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_outbox_job_due              			ON outbox_job USING btree (next_attempt_at) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_tutorial_file_blob_hash     			ON tutorial_file USING btree (blob_hash);
+CREATE INDEX idx_tutorial_file_name_lower    			ON tutorial_file USING btree (integ_method_id, integ_method_revision, lower(file_name), file_name);
+CREATE INDEX idx_tutorial_blob_unreferenced  			ON tutorial_blob USING btree (hash) WHERE ref_count <= 0;
+CREATE INDEX idx_bundle_artifact_unreferenced		ON bundle_artifact USING btree (url_hash) WHERE ref_count <= 0;
 CREATE INDEX idx_catalog_users_org_id       			ON catalog_users USING btree (organization_id);
 CREATE INDEX idx_app_lifecycle              			ON application USING btree (lifecycle_state);
 CREATE INDEX idx_cbundle_lifecycle          			ON connector_bundle USING btree (lifecycle_state);
 CREATE INDEX idx_cbundle_version_lifecycle  			ON connector_bundle_version USING btree (lifecycle_state);
 CREATE INDEX idx_cver_lifecycle             			ON connector_version USING btree (lifecycle_state);
 CREATE INDEX idx_integ_method_lifecycle     			ON integration_method USING btree (lifecycle_state);
+CREATE INDEX idx_integ_method_rev_major     			ON integration_method USING btree (id, revision_major);
 CREATE INDEX idx_app_name                   			ON application USING btree (name);
 CREATE INDEX idx_cbundle_name               			ON connector_bundle USING btree (bundle_name);
 CREATE INDEX idx_midpoint_version             			ON midpoint_version USING btree (id);
@@ -838,6 +988,12 @@ ALTER TABLE ONLY int_method_int_method_type
 
 ALTER TABLE ONLY int_method_int_method_type
     ADD CONSTRAINT fk_im_imt_imt FOREIGN KEY (integration_method_type_id) REFERENCES integration_method_type(id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+
+ALTER TABLE ONLY tutorial_file
+    ADD CONSTRAINT fk_tutorial_file_int_method FOREIGN KEY (integ_method_id, integ_method_revision) REFERENCES integration_method (id, revision) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+
+ALTER TABLE ONLY tutorial_file
+    ADD CONSTRAINT fk_tutorial_file_blob FOREIGN KEY (blob_hash) REFERENCES tutorial_blob (hash);
 -- end of region
 
 -- seed essential tables
@@ -936,5 +1092,5 @@ SELECT setval('midpoint_version_id_seq', 10);
 -- installation is already at the current change number, so no upgrade section applies.
 -- Keep in sync with the newest apply_change call in upgrade.sql and with
 -- DatabaseSchemaVersionValidator.REQUIRED_VERSION.
-call apply_change(2, $$ SELECT 1 $$, true);
+call apply_change(17, $$ SELECT 1 $$, true);
 -- end of region
\ No newline at end of file
@@ -25,5 +25,10 @@ if [ -f "$JENKINS_USERNAME_FILE" ]; then
     export JENKINS_USERNAME=$(cat "$JENKINS_USERNAME_FILE")
 fi
 
+# Read session token signing key from secret file (optional; all replicas must share it)
+if [ -f "$AUTH_TOKEN_SECRET_FILE" ]; then
+    export AUTH_TOKEN_SECRET=$(cat "$AUTH_TOKEN_SECRET_FILE")
+fi
+
 # Run Spring Boot application
 exec java -jar /integration-catalog/integration-catalog.jar
\ No newline at end of file
@@ -15,14 +15,26 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableConfigurationProperties({
 		GithubProperties.class,
+		GitlabProperties.class,
 		JenkinsProperties.class,
 		LogoStorageProperties.class,
 		TutorialStorageProperties.class,
-		ConnectorSigningProperties.class
+		ConnectorSigningProperties.class,
+		LoginProperties.class,
+		SessionTokenProperties.class,
+		RecentlyUsedProperties.class,
+		OutboxProperties.class,
+		OutboundHttpProperties.class,
+		TemplateCacheProperties.class,
+		BlobStoreProperties.class,
+		BundleStorageProperties.class,
+		ReferenceCacheProperties.class
 })
 public class IntegrationCatalogApplication {
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.common;
+
+import com.evolveum.midpoint.integration.catalog.object.CatalogUser;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * The caller as carried by a verified session token: everything the access checks need to know
+ * about them, so they do not have to re-read catalog_users on every privileged call.
+ */
+public record SessionPrincipal(
+        String username,
+        String role,
+        Integer organizationId,
+        String organizationName
+) {
+
+    /** Request attribute under which the session token filter stores the verified principal. */
+    public static final String REQUEST_ATTRIBUTE = SessionPrincipal.class.getName();
+
+    public static SessionPrincipal of(CatalogUser user) {
+        return new SessionPrincipal(
+                user.getUsername(),
+                user.getRole(),
+                user.getOrganization() != null ? user.getOrganization().getId() : null,
+                user.getOrganization() != null ? user.getOrganization().getName() : null);
+    }
+
+    /** The principal of the current HTTP request, if it carried a valid session token. */
+    public static Optional<SessionPrincipal> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+                (SessionPrincipal) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public boolean isSuperuser() {
+        return "Superuser".equals(role);
+    }
+
+    public boolean isOrganizationContributor() {
+        return "OrganizationContributor".equals(role);
+    }
+}
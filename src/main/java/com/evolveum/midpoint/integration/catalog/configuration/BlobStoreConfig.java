@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+import com.evolveum.midpoint.integration.catalog.integration.LocalBlobStore;
+import com.evolveum.midpoint.integration.catalog.integration.OutboundHttpClient;
+import com.evolveum.midpoint.integration.catalog.integration.S3BlobStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * One {@link BlobStore} per storage area, both of the type selected by {@code blob-store.type}.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore logoBlobStore(BlobStoreProperties properties, LogoStorageProperties logoStorageProperties,
+                                   OutboundHttpClient outboundHttpClient) {
+        return create(properties, logoStorageProperties.basePath(), "logos/", outboundHttpClient);
+    }
+
+    @Bean
+    public BlobStore tutorialBlobStore(BlobStoreProperties properties, TutorialStorageProperties tutorialStorageProperties,
+                                       OutboundHttpClient outboundHttpClient) {
+        return create(properties, tutorialStorageProperties.basePath(), "tutorials/", outboundHttpClient);
+    }
+
+    @Bean
+    public BlobStore bundleBlobStore(BlobStoreProperties properties, BundleStorageProperties bundleStorageProperties,
+                                     OutboundHttpClient outboundHttpClient) {
+        return create(properties, bundleStorageProperties.basePath(), "bundles/", outboundHttpClient);
+    }
+
+    private BlobStore create(BlobStoreProperties properties, String localBasePath, String s3Prefix,
+                             OutboundHttpClient outboundHttpClient) {
+        return switch (properties.type()) {
+            case LOCAL -> new LocalBlobStore(Paths.get(localBasePath));
+            case S3 -> new S3BlobStore(outboundHttpClient, properties, s3Prefix);
+        };
+    }
+}
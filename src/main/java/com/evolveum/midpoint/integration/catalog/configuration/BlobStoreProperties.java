@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties of the blob stores holding logos, tutorial files and cached connector
+ * artifacts.
+ * <p>
+ * With {@code local} each store is a directory ({@code logo.storage.base-path},
+ * {@code tutorial.storage.base-path}, {@code bundle.storage.base-path}), which ties the objects to one
+ * node. With {@code s3} all three live in one bucket of an S3-compatible service (AWS S3, MinIO, ...)
+ * under the {@code logos/}, {@code tutorials/} and {@code bundles/} prefixes, so any number of catalog
+ * replicas can share them.
+ *
+ * @param type      {@code local} or {@code s3}
+ * @param endpoint  base URL of the S3 service, e.g. {@code https://s3.eu-central-1.amazonaws.com} or {@code http://minio:9000};
+ *                  buckets are addressed path-style
+ * @param region    region used for request signing (MinIO accepts any, conventionally {@code us-east-1})
+ * @param bucket    bucket holding the objects
+ * @param accessKey access key id
+ * @param secretKey secret access key
+ */
+@ConfigurationProperties(prefix = "blob-store")
+public record BlobStoreProperties(
+        Type type,
+        String endpoint,
+        String region,
+        String bucket,
+        String accessKey,
+        String secretKey
+) {
+    public enum Type {
+        LOCAL, S3
+    }
+
+    public BlobStoreProperties {
+        if (type == null) {
+            type = Type.LOCAL;
+        }
+        if (region == null || region.isBlank()) {
+            region = "us-east-1";
+        }
+        if (type == Type.S3 && (endpoint == null || endpoint.isBlank() || bucket == null || bucket.isBlank())) {
+            throw new IllegalArgumentException("blob-store.endpoint and blob-store.bucket are required for blob-store.type=s3");
+        }
+    }
+}
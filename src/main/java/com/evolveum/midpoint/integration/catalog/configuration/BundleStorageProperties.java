@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the storage of connector artifacts fetched for ZIP bundles.
+ *
+ * @param basePath   directory of the cached artifacts when {@code blob-store.type=local}
+ * @param gcInterval how often cached artifacts that no connector bundle version refers to are deleted
+ */
+@ConfigurationProperties(prefix = "bundle.storage")
+public record BundleStorageProperties(
+        String basePath,
+        Duration gcInterval
+) {
+    public BundleStorageProperties {
+        if (basePath == null || basePath.isBlank()) {
+            basePath = "/data/bundles";
+        }
+        if (gcInterval == null || gcInterval.isNegative() || gcInterval.isZero()) {
+            gcInterval = Duration.ofHours(1);
+        }
+    }
+}
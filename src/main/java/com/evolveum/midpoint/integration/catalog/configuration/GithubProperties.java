@@ -15,6 +15,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public record GithubProperties (
         String apiToken,
         String groupPath,
-        String templatePath
+        String templatePath,
+        String templateTag
 ) {
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties of the GitLab client. Low-code connector repositories are provisioned on
+ * GitLab instead of GitHub when {@code url} is set.
+ *
+ * @param url          base URL of the GitLab instance
+ * @param apiToken     personal or group access token
+ * @param groupPath    group the connector projects (and the template project) live in
+ * @param templatePath template project within the group
+ * @param templateTag  tag of the template project new projects are scaffolded from
+ */
+@ConfigurationProperties(prefix = "gitlab")
+public record GitlabProperties(
+        String url,
+        String apiToken,
+        String groupPath,
+        String templatePath,
+        String templateTag
+) {
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for password verification on login.
+ *
+ * @param verifierThreads       threads hashing passwords; bounds the CPU a login burst can take from catalog reads
+ * @param verifierQueueCapacity logins allowed to wait for a verifier thread before new ones are refused with 503
+ * @param attemptsPerMinute     sustained login attempts allowed per username and per client IP
+ * @param attemptsBurst         attempts a username/IP may make back to back before the per-minute rate applies
+ * @param bcryptStrength        BCrypt work factor for new hashes; weaker stored hashes are re-hashed on successful login
+ */
+@ConfigurationProperties(prefix = "auth.login")
+public record LoginProperties(
+        int verifierThreads,
+        int verifierQueueCapacity,
+        int attemptsPerMinute,
+        int attemptsBurst,
+        int bcryptStrength
+) {
+    public static final int DEFAULT_BCRYPT_STRENGTH = 10;
+
+    public LoginProperties {
+        if (verifierThreads <= 0) {
+            verifierThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        if (verifierQueueCapacity <= 0) {
+            verifierQueueCapacity = 64;
+        }
+        if (attemptsPerMinute <= 0) {
+            attemptsPerMinute = 10;
+        }
+        if (attemptsBurst <= 0) {
+            attemptsBurst = 5;
+        }
+        if (bcryptStrength <= 0) {
+            bcryptStrength = DEFAULT_BCRYPT_STRENGTH;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for outbound HTTP calls (Jenkins, GitHub, GitLab, artifact downloads).
+ *
+ * @param connectTimeout          TCP/TLS connect timeout of the shared client
+ * @param requestTimeout          default timeout of a request without its own; also the longest wait for a free per-host slot
+ * @param maxConcurrentPerHost    requests in flight to one host at a time
+ * @param circuitFailureThreshold consecutive failures after which calls to the host are refused
+ * @param circuitOpenDuration     how long calls are refused before a single trial call is let through
+ * @param metricsLogInterval      how often per-host call counts and latencies are logged (only when there was traffic)
+ */
+@ConfigurationProperties(prefix = "outbound-http")
+public record OutboundHttpProperties(
+        Duration connectTimeout,
+        Duration requestTimeout,
+        int maxConcurrentPerHost,
+        int circuitFailureThreshold,
+        Duration circuitOpenDuration,
+        Duration metricsLogInterval
+) {
+    public OutboundHttpProperties {
+        if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+            connectTimeout = Duration.ofSeconds(10);
+        }
+        if (requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+            requestTimeout = Duration.ofSeconds(60);
+        }
+        if (maxConcurrentPerHost <= 0) {
+            maxConcurrentPerHost = 8;
+        }
+        if (circuitFailureThreshold <= 0) {
+            circuitFailureThreshold = 5;
+        }
+        if (circuitOpenDuration == null || circuitOpenDuration.isNegative() || circuitOpenDuration.isZero()) {
+            circuitOpenDuration = Duration.ofSeconds(30);
+        }
+        if (metricsLogInterval == null || metricsLogInterval.isNegative() || metricsLogInterval.isZero()) {
+            metricsLogInterval = Duration.ofMinutes(5);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the background job outbox.
+ *
+ * @param workerThreads  jobs executed concurrently (GitHub provisioning, Jenkins triggers, ...)
+ * @param pollInterval   how often the outbox table is checked for due jobs; commits also wake the dispatcher
+ * @param maxAttempts    attempts before a job is marked FAILED
+ * @param initialBackoff delay before the first retry; doubled on each further attempt
+ * @param maxBackoff     upper bound of the retry delay
+ * @param lease          how long a claimed job may run before another dispatcher may take it over
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        int workerThreads,
+        Duration pollInterval,
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Duration lease
+) {
+    public OutboxProperties {
+        if (workerThreads <= 0) {
+            workerThreads = 4;
+        }
+        if (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero()) {
+            pollInterval = Duration.ofSeconds(2);
+        }
+        if (maxAttempts <= 0) {
+            maxAttempts = 8;
+        }
+        if (initialBackoff == null || initialBackoff.isNegative() || initialBackoff.isZero()) {
+            initialBackoff = Duration.ofSeconds(10);
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            maxBackoff = Duration.ofMinutes(30);
+        }
+        if (lease == null || lease.isNegative() || lease.isZero()) {
+            lease = Duration.ofMinutes(10);
+        }
+    }
+}
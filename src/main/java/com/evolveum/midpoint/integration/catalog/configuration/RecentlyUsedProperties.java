@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the recently-used applications list.
+ *
+ * @param globalCapacity   distinct applications cached in memory across all users
+ * @param perUserCapacity  distinct applications cached in memory per user
+ * @param maxTrackedUsers  users with a cached list; least recently active ones are dropped above it
+ * @param flushInterval    delay between writes of pending uses to recently_used_applications, and how
+ *                         long a cached list is served before it is read from the table again
+ * @param flushBatchSize   rows per JDBC batch when flushing
+ * @param maxPending       uses waiting for a flush; further uses stay in memory only until the queue drains
+ * @param retainPerUser    rows kept per user when the table is pruned
+ * @param retainTotal      rows kept overall when the table is pruned
+ * @param pruneInterval    delay between prunes of the table
+ */
+@ConfigurationProperties(prefix = "recently-used")
+public record RecentlyUsedProperties(
+        int globalCapacity,
+        int perUserCapacity,
+        int maxTrackedUsers,
+        Duration flushInterval,
+        int flushBatchSize,
+        int maxPending,
+        int retainPerUser,
+        int retainTotal,
+        Duration pruneInterval
+) {
+    public RecentlyUsedProperties {
+        if (globalCapacity <= 0) {
+            globalCapacity = 64;
+        }
+        if (perUserCapacity <= 0) {
+            perUserCapacity = 32;
+        }
+        if (maxTrackedUsers <= 0) {
+            maxTrackedUsers = 10_000;
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            flushInterval = Duration.ofSeconds(5);
+        }
+        if (flushBatchSize <= 0) {
+            flushBatchSize = 500;
+        }
+        if (maxPending <= 0) {
+            maxPending = 10_000;
+        }
+        if (retainPerUser <= 0) {
+            retainPerUser = 50;
+        }
+        if (retainTotal <= 0) {
+            retainTotal = 100_000;
+        }
+        if (pruneInterval == null || pruneInterval.isNegative() || pruneInterval.isZero()) {
+            pruneInterval = Duration.ofMinutes(10);
+        }
+    }
+}
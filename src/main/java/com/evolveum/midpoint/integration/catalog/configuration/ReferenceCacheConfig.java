@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import com.evolveum.midpoint.integration.catalog.object.ApplicationTag;
+import com.evolveum.midpoint.integration.catalog.object.Capability;
+import com.evolveum.midpoint.integration.catalog.object.CountryOfOrigin;
+import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodType;
+import com.evolveum.midpoint.integration.catalog.object.MidpointVersion;
+import com.evolveum.midpoint.integration.catalog.object.Organization;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.StatisticsSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * JCache (Caffeine) cache manager behind the Hibernate second-level cache.
+ * <p>
+ * Only the small, rarely changing reference entities are cached ({@code @Cacheable} with
+ * {@code shared-cache-mode=ENABLE_SELECTIVE}); each gets its own region bounded by
+ * {@code reference-cache.max-entries} and {@code reference-cache.time-to-live}. The query cache holds
+ * the id lists of the repository finders marked cacheable and is bounded by
+ * {@code reference-cache.max-query-results} and the same time to live.
+ * <p>
+ * The caches are local to each replica and an edit only evicts or invalidates entries of the replica
+ * that made it, so the time to live is kept short: it bounds how long another replica serves an old
+ * entity or query result. The update timestamps region (one entry per table) expires after the same
+ * time but is not bounded in size; a timestamp always outlives the query results cached before it, while
+ * evicting one early would let a stale result through. Hibernate fails to start on a region that is not
+ * created here.
+ * <p>
+ * Native modifying queries name the table they write ({@code HINT_NATIVE_SPACES}); without it
+ * Hibernate would clear every region on each such statement.
+ */
+@Configuration
+public class ReferenceCacheConfig {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(
+            MidpointVersion.class,
+            IntegrationMethodType.class,
+            Capability.class,
+            ApplicationTag.class,
+            CountryOfOrigin.class,
+            Organization.class);
+
+    /** Regions holding cached data: one per entity type (named after the entity) and the query results. */
+    public static List<String> dataRegionNames() {
+        return Stream.concat(CACHED_ENTITIES.stream().map(Class::getName),
+                Stream.of(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)).toList();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceCacheManager(ReferenceCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(),
+                ReferenceCacheConfig.class.getClassLoader());
+        for (Class<?> entity : CACHED_ENTITIES) {
+            cacheManager.createCache(entity.getName(), bounded(properties.maxEntries(), properties));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                bounded(properties.maxQueryResults(), properties));
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setExpireAfterWrite(OptionalLong.of(properties.timeToLive().toNanos()));
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceCacheCustomizer(CacheManager referenceCacheManager,
+                                                                  ReferenceCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(StatisticsSettings.GENERATE_STATISTICS, properties.statisticsEnabled());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, ReferenceCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.timeToLive().toNanos()));
+        configuration.setStatisticsEnabled(true); // JMX javax.cache:type=CacheStatistics
+        return configuration;
+    }
+}
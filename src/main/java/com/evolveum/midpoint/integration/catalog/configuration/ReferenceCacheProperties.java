@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the second-level cache of reference entities (midPoint versions,
+ * integration method types, capabilities, application tags, countries of origin, organizations).
+ *
+ * @param maxEntries         maximum number of entities kept per entity type
+ * @param maxQueryResults    maximum number of cached query results (lists of ids) across all cached queries
+ * @param timeToLive         how long an entry is kept after it was loaded; bounds the staleness of rows
+ *                           changed by another replica or outside the application (upgrade scripts, manual SQL)
+ * @param statisticsEnabled  whether Hibernate collects statistics (hibernate.generate_statistics); the
+ *                           per-region hit/miss counts are only logged when it is on
+ * @param metricsLogInterval how often per-region hit/miss counts are logged (only when the cache was used)
+ */
+@ConfigurationProperties(prefix = "reference-cache")
+public record ReferenceCacheProperties(
+        long maxEntries,
+        long maxQueryResults,
+        Duration timeToLive,
+        boolean statisticsEnabled,
+        Duration metricsLogInterval
+) {
+    public ReferenceCacheProperties {
+        if (maxEntries <= 0) {
+            maxEntries = 1_000;
+        }
+        if (maxQueryResults <= 0) {
+            maxQueryResults = 500;
+        }
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            timeToLive = Duration.ofMinutes(1);
+        }
+        if (metricsLogInterval == null || metricsLogInterval.isNegative() || metricsLogInterval.isZero()) {
+            metricsLogInterval = Duration.ofMinutes(5);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import com.evolveum.midpoint.integration.catalog.service.SessionTokenService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SessionTokenConfig {
+
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokenService sessionTokenService) {
+        FilterRegistrationBean<SessionTokenFilter> registration =
+                new FilterRegistrationBean<>(new SessionTokenFilter(sessionTokenService));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
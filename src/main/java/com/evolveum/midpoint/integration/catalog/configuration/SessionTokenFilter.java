@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import com.evolveum.midpoint.integration.catalog.common.SessionPrincipal;
+import com.evolveum.midpoint.integration.catalog.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates API requests from the {@code Authorization: Bearer} session token.
+ * <p>
+ * A valid token puts its {@link SessionPrincipal} on the request and makes {@code X-User-Name}
+ * read as the token's username, so the existing header-based endpoints act on the verified
+ * identity and cannot be spoofed. Without a valid token the header is passed through only when
+ * tokens are not {@linkplain SessionTokenProperties#required() required}; otherwise it is
+ * dropped and the request is anonymous.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    static final String USER_HEADER = "X-User-Name";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService) {
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Optional<SessionPrincipal> principal = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? sessionTokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim())
+                : Optional.empty();
+
+        if (principal.isPresent()) {
+            request.setAttribute(SessionPrincipal.REQUEST_ATTRIBUTE, principal.get());
+            chain.doFilter(new UserHeaderRequest(request, principal.get().username()), response);
+        } else if (sessionTokenService.isTokenRequired()) {
+            chain.doFilter(new UserHeaderRequest(request, null), response);
+        } else {
+            chain.doFilter(request, response);
+        }
+    }
+
+    /** Replaces (or, with a null username, removes) the X-User-Name header. */
+    private static final class UserHeaderRequest extends HttpServletRequestWrapper {
+
+        private final String username;
+
+        UserHeaderRequest(HttpServletRequest request, String username) {
+            super(request);
+            this.username = username;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return USER_HEADER.equalsIgnoreCase(name) ? username : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!USER_HEADER.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+            return Collections.enumeration(username != null ? List.of(username) : List.of());
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(USER_HEADER::equalsIgnoreCase);
+            if (username != null) {
+                names.add(USER_HEADER);
+            }
+            return Collections.enumeration(names);
+        }
+    }
+}
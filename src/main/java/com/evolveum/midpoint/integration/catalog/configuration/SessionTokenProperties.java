@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the signed session tokens issued on login.
+ *
+ * @param secret   Base64-encoded HMAC-SHA256 key. Every replica must share it; when blank a random
+ *                 key is generated at startup, so tokens do not survive a restart.
+ * @param ttl      how long an issued token is accepted; role/organization changes apply after it expires
+ * @param required when true, requests without a valid token are anonymous even if they send
+ *                 X-User-Name; when false the header alone is still trusted (for clients not yet sending tokens)
+ */
+@ConfigurationProperties(prefix = "auth.token")
+public record SessionTokenProperties(
+        String secret,
+        Duration ttl,
+        boolean required
+) {
+    public static final Duration DEFAULT_TTL = Duration.ofHours(8);
+
+    public SessionTokenProperties {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            ttl = DEFAULT_TTL;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the local cache of connector scaffolding templates.
+ *
+ * @param basePath directory holding the content-addressed template blobs and the per-tag manifests
+ */
+@ConfigurationProperties(prefix = "template.cache")
+public record TemplateCacheProperties(
+        String basePath
+) {
+    public TemplateCacheProperties {
+        if (basePath == null || basePath.isBlank()) {
+            basePath = "/data/templates";
+        }
+    }
+}
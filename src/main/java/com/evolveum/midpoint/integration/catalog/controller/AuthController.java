@@ -13,12 +13,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -34,13 +36,17 @@ public class AuthController {
     @Operation(summary = "Login", description = "Authenticate a user and return their profile")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Login successful"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for this username or client"),
+            @ApiResponse(responseCode = "503", description = "Too many logins being verified at once")
     })
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto request) {
-        return authService.login(request.username(), request.password())
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    public CompletableFuture<ResponseEntity<LoginResponseDto>> login(@Valid @RequestBody LoginRequestDto request,
+                                                                     HttpServletRequest httpRequest) {
+        return authService.login(request.username(), request.password(), httpRequest.getRemoteAddr())
+                .thenApply(result -> result
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()));
     }
 
     @Operation(summary = "Get organization members", description = "Returns all usernames in the same organization as the given user")
@@ -26,6 +26,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
@@ -37,8 +39,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -174,12 +175,17 @@ public class Controller {
     @Operation(summary = "Upload status - success")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Upload status - success worked"),
+            @ApiResponse(responseCode = "400", description = "Upload status - unknown capability in the payload"),
             @ApiResponse(responseCode = "404", description = "Upload status - success did not work")
     })
     @PostMapping("/upload/continue/{oid}")
     public ResponseEntity<Void> completeBuildSuccessfully(@RequestBody ContinueForm continueForm, @PathVariable UUID oid) {
-        applicationService.successBuild(oid, continueForm);
-        return ResponseEntity.ok().build();
+        try {
+            applicationService.successBuild(oid, continueForm);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @Operation(summary = "Upload status - fail")
@@ -326,6 +332,19 @@ public class Controller {
         return ResponseEntity.ok(hasVoted);
     }
 
+    @Operation(summary = "Get vote status for many requests",
+            description = "Returns vote counts and has-voted flags of the voter for the given request IDs, "
+                    + "or for all open requests when no IDs are given")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vote statuses retrieved successfully")
+    })
+    @GetMapping("/requests/votes/status")
+    public ResponseEntity<List<VoteStatusDto>> getVoteStatuses(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String voter) {
+        return ResponseEntity.ok(applicationService.getVoteStatuses(ids, voter));
+    }
+
     @Operation(summary = "Show counts of categories")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Category counts retrieved successfully"),
@@ -472,18 +491,28 @@ public class Controller {
         return ResponseEntity.ok(connectors);
     }
 
-    @Operation(summary = "Save integration method as new version")
+    @Operation(summary = "Save integration method as new version",
+            description = "An If-Match header with the revision's ETag (IntegrationMethodDto.etag) makes the "
+                    + "save fail with 412 when the revision was changed since it was read.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Saved; the body is the resulting revision"),
+            @ApiResponse(responseCode = "404", description = "Integration method revision not found"),
+            @ApiResponse(responseCode = "409", description = "Revision is locked or was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current revision")
+    })
     @PutMapping("/applications/{appId}/integration-method/{methodId}/{currentRevision}")
     public ResponseEntity<String> editIntegrationMethod(
             @PathVariable UUID appId,
             @PathVariable UUID methodId,
             @PathVariable String currentRevision,
             @RequestBody EditIntegrationMethodDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestHeader(value = "X-User-Name", required = false, defaultValue = "anonymous") String username) {
         try {
-            String newRevision = applicationService.editIntegrationMethod(methodId, currentRevision, dto, username);
+            String newRevision = applicationService.editIntegrationMethod(methodId, currentRevision, dto,
+                    expectedVersion(ifMatch), username);
             return ResponseEntity.ok(newRevision);
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
@@ -509,7 +538,7 @@ public class Controller {
         try {
             applicationService.startReviewIntegrationMethod(methodId, revision, username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
@@ -535,7 +564,7 @@ public class Controller {
         try {
             applicationService.stopReviewIntegrationMethod(methodId, revision, username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
@@ -561,7 +590,7 @@ public class Controller {
         try {
             applicationService.publishIntegrationMethod(methodId, revision, username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
@@ -587,7 +616,7 @@ public class Controller {
         try {
             applicationService.rejectIntegrationMethod(methodId, revision, username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
@@ -614,7 +643,7 @@ public class Controller {
             // freshly forked draft revision when the source was a published (immutable) version.
             String savedRevision = applicationService.addConnectorToIntegrationMethod(appId, methodId, revision, dto, username);
             return ResponseEntity.ok(savedRevision);
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
@@ -631,10 +660,14 @@ public class Controller {
     }
 
     @Operation(summary = "Update a connector of an integration method revision",
-            description = "Replaces the fields of an existing connector (and its bundle / latest version) in place.")
+            description = "Replaces the fields of an existing connector (and its bundle / latest version) in place. "
+                    + "An If-Match header with the connector's ETag (ImplementationListItemDto.connectorEtag) "
+                    + "makes the update fail with 412 when the connector was changed since it was read.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Connector updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Integration method or connector not found")
+            @ApiResponse(responseCode = "404", description = "Integration method or connector not found"),
+            @ApiResponse(responseCode = "409", description = "Revision is locked or was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current connector")
     })
     @PutMapping("/applications/{appId}/integration-method/{methodId}/{revision}/connectors/{connectorId}")
     public ResponseEntity<Void> updateConnector(
@@ -643,11 +676,12 @@ public class Controller {
             @PathVariable String revision,
             @PathVariable Integer connectorId,
             @RequestBody EditConnectorDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestHeader(value = "X-User-Name", required = false, defaultValue = "anonymous") String username) {
         try {
-            applicationService.updateConnector(methodId, revision, connectorId, dto, username);
+            applicationService.updateConnector(methodId, revision, connectorId, dto, expectedVersion(ifMatch), username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
@@ -672,7 +706,7 @@ public class Controller {
             applicationService.updateConnectorCompatibility(methodId, revision, connectorId,
                     dto.connectorVersionFrom(), dto.connectorVersionTo(), username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
@@ -695,13 +729,32 @@ public class Controller {
         try {
             applicationService.deleteConnectorFromIntegrationMethod(methodId, revision, connectorId, username);
             return ResponseEntity.ok().build();
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OptimisticLockingFailureException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
         }
     }
 
+    /**
+     * Version a client expects from its If-Match header ({@code "7"} or {@code W/"7"}), or null when it
+     * sent none or {@code *} and the edit is unconditional.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Unknown entity tag: " + ifMatch);
+        }
+    }
+
     // TODO access this endpoint only for superuser
 
     @Operation(summary = "Update application details",
@@ -747,12 +800,34 @@ public class Controller {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
-        } catch (RuntimeException ex) {
-            if (ex.getMessage() != null && ex.getMessage().contains("not found")) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
-            }
+        } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to upload logo: " + ex.getMessage(), ex);
+                    "Failed to save logo file: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Operation(summary = "Upload application logo as the raw request body",
+            description = "Streams the image (Content-Type image/png, image/jpeg, image/gif, image/svg+xml or image/webp) "
+                    + "straight to storage without multipart buffering. The optional name only supplies the extension.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logo uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid file (wrong type, too large, or empty)"),
+            @ApiResponse(responseCode = "404", description = "Application not found"),
+            @ApiResponse(responseCode = "500", description = "Failed to save logo file")
+    })
+    @PostMapping(value = "/applications/{id}/logo", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> uploadLogoStream(
+            @PathVariable UUID id,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+        try {
+            Application application = applicationService.getApplication(id);
+            logoStorageService.saveLogo(application, name, mediaTypeOnly(contentType), declaredSize(contentLength), body);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Failed to save logo file: " + ex.getMessage(), ex);
@@ -760,7 +835,8 @@ public class Controller {
     }
 
     @Operation(summary = "Upload tutorial file for an integration method",
-            description = "Uploads a tutorial document (PDF, XML, JSON, YAML, TXT) for an integration method. Stored on disk; path saved to integration_method.file_path.")
+            description = "Uploads a tutorial document (PDF, XML, JSON, YAML, TXT) for an integration method. "
+                    + "The content is stored once in the tutorial blob store and listed in the revision's tutorial_file manifest.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tutorial uploaded successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid file (wrong type, too large, or empty)"),
@@ -776,12 +852,32 @@ public class Controller {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
-        } catch (RuntimeException ex) {
-            if (ex.getMessage() != null && ex.getMessage().contains("not found")) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
-            }
+        } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to upload tutorial: " + ex.getMessage(), ex);
+                    "Failed to save tutorial file: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Operation(summary = "Upload tutorial file for an integration method as the raw request body",
+            description = "Streams the request body straight to storage without multipart buffering; the name query "
+                    + "parameter gives the file name (PDF, XML, JSON, YAML, TXT).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tutorial uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid file (wrong type, too large, or empty)"),
+            @ApiResponse(responseCode = "404", description = "Integration method not found"),
+            @ApiResponse(responseCode = "500", description = "Failed to save tutorial file")
+    })
+    @PostMapping(value = "/integration-methods/{id}/tutorial", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> uploadTutorialStream(
+            @PathVariable UUID id,
+            @RequestParam("name") String name,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+        try {
+            tutorialStorageService.saveTutorial(id, name, declaredSize(contentLength), body);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Failed to save tutorial file: " + ex.getMessage(), ex);
@@ -800,18 +896,45 @@ public class Controller {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
-        } catch (RuntimeException ex) {
-            if (ex.getMessage() != null && ex.getMessage().contains("not found")) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
-            }
+        } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to upload tutorial: " + ex.getMessage(), ex);
+                    "Failed to save tutorial file: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Operation(summary = "Upload tutorial file for a specific integration method revision as the raw request body",
+            description = "Streams the request body straight to storage without multipart buffering; the name query "
+                    + "parameter gives the file name.")
+    @PostMapping(value = "/applications/{appId}/integration-method/{methodId}/{revision}/tutorial",
+            consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> uploadTutorialStreamForRevision(
+            @PathVariable UUID appId,
+            @PathVariable UUID methodId,
+            @PathVariable String revision,
+            @RequestParam("name") String name,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+        try {
+            tutorialStorageService.saveTutorialForRevision(methodId, revision, name, declaredSize(contentLength), body);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Failed to save tutorial file: " + ex.getMessage(), ex);
         }
     }
 
+    /** Announced body length for the storage services, -1 when the request is chunked. */
+    private static long declaredSize(Long contentLength) {
+        return contentLength != null ? contentLength : -1;
+    }
+
+    /** Strips parameters (such as charset) from a Content-Type header value. */
+    private static String mediaTypeOnly(String contentType) {
+        return contentType == null ? null : contentType.split(";")[0].trim();
+    }
+
     @Operation(summary = "List tutorial files for a specific integration method revision")
     @GetMapping("/applications/{appId}/integration-method/{methodId}/{revision}/tutorial")
     public ResponseEntity<List<String>> listTutorialFiles(
@@ -821,29 +944,37 @@ public class Controller {
         return ResponseEntity.ok(tutorialStorageService.listTutorialFiles(methodId, revision));
     }
 
-    @Operation(summary = "Download a single tutorial file for a specific integration method revision")
+    @Operation(summary = "Download a single tutorial file for a specific integration method revision",
+            description = "Streams the file. Supports Range requests and conditional requests (ETag is the content hash).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File streamed"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range(s) streamed"),
+            @ApiResponse(responseCode = "304", description = "File not modified (ETag / Last-Modified match)"),
+            @ApiResponse(responseCode = "404", description = "Tutorial file not found")
+    })
     @GetMapping("/applications/{appId}/integration-method/{methodId}/{revision}/tutorial/file")
-    public ResponseEntity<byte[]> downloadTutorialFile(
+    public ResponseEntity<Resource> downloadTutorialFile(
             @PathVariable UUID appId,
             @PathVariable UUID methodId,
             @PathVariable String revision,
             @RequestParam("name") String name) {
+        TutorialStorageService.StoredTutorialFile file;
         try {
-            Path file = tutorialStorageService.resolveTutorialFile(methodId, revision, name);
-            byte[] bytes = Files.readAllBytes(file);
-            String contentType = Files.probeContentType(file);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "\"")
-                    .body(bytes);
+            file = tutorialStorageService.findTutorialFile(methodId, revision, name);
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (RuntimeException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
-        } catch (IOException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to read tutorial file: " + ex.getMessage(), ex);
         }
+        // Spring answers If-None-Match / If-Modified-Since with 304 and Range with 206 for Resource bodies,
+        // streaming the content from the blob store rather than loading it
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .eTag(file.hash())
+                .lastModified(file.lastModified())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.name() + "\"")
+                .body(tutorialStorageService.tutorialFileContent(file));
     }
 
     @Operation(summary = "Download a ZIP bundle for an integration method revision",
@@ -901,16 +1032,15 @@ public class Controller {
     }
 
     @Operation(summary = "Get application logo",
-            description = "Returns the logo image for an application with proper Content-Type header")
+            description = "Streams the logo image for an application with proper Content-Type header. "
+                    + "Supports conditional requests (ETag is the content hash).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Logo retrieved successfully"),
             @ApiResponse(responseCode = "304", description = "Logo not modified (ETag match)"),
             @ApiResponse(responseCode = "404", description = "Application or logo not found")
     })
     @GetMapping("/applications/{id}/logo")
-    public ResponseEntity<byte[]> getLogo(
-            @PathVariable UUID id,
-            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    public ResponseEntity<Resource> getLogo(@PathVariable UUID id) {
         Application application;
         try {
             application = applicationService.getApplication(id);
@@ -922,24 +1052,19 @@ public class Controller {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No logo available for this application");
         }
 
-        byte[] logoBytes = logoStorageService.loadLogoBytes(application.getLogoPath());
-        if (logoBytes == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Logo file not found on disk");
+        Resource logo = logoStorageService.loadLogo(application);
+        if (logo == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Logo file not found in storage");
         }
 
-        String etag = "\"" + application.getLogoPath().hashCode() + "-" + logoBytes.length + "\"";
-        if (ifNoneMatch != null && ifNoneMatch.equals(etag)) {
-            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        // Spring answers a matching If-None-Match with 304 and streams the Resource otherwise
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(detectContentType(application.getLogoPath())))
+                .header(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+        if (application.getLogoHash() != null) {
+            response.eTag(application.getLogoHash());
         }
-
-        String contentType = detectContentType(application.getLogoPath());
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentLength(logoBytes.length);
-        headers.setCacheControl("public, max-age=86400");
-        headers.setETag(etag);
-
-        return new ResponseEntity<>(logoBytes, headers, HttpStatus.OK);
+        return response.body(logo);
     }
 
     private String detectContentType(String logoPath) {
@@ -976,13 +1101,18 @@ public class Controller {
     // ==================== Recently Used Applications ====================
 
     @Operation(summary = "Get recently used applications",
-            description = "Returns a global list of recently used applications across all users")
+            description = "Returns a global list of recently used applications across all users, "
+                    + "or only the calling user's when mine=true")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Recently used applications retrieved successfully")
     })
     @GetMapping("/recently-used")
-    public ResponseEntity<List<ApplicationDto>> getRecentlyUsed() {
-        return ResponseEntity.ok(applicationService.getRecentlyUsedApplications());
+    public ResponseEntity<List<ApplicationDto>> getRecentlyUsed(
+            @RequestParam(defaultValue = "false") boolean mine,
+            @RequestHeader(value = "X-User-Name", required = false, defaultValue = "anonymous") String username) {
+        return ResponseEntity.ok(mine
+                ? applicationService.getRecentlyUsedApplications(username)
+                : applicationService.getRecentlyUsedApplications());
     }
 
     @Operation(summary = "Record recently used application",
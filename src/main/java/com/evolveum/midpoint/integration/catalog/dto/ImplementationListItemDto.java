@@ -37,5 +37,6 @@ public record ImplementationListItemDto(
         String commitTag,                  // connector_bundle_version.commit_tag
         List<ObjectClassCapabilityDto> objectClassCapabilities, // conn_version_capability + items
         String connectorMinVersion,        // integration_method_connector.connector_minversion
-        String connectorMaxVersion         // integration_method_connector.connector_maxversion
+        String connectorMaxVersion,        // integration_method_connector.connector_maxversion
+        String connectorEtag               // connector.row_version, for If-Match on connector edits
 ) {}
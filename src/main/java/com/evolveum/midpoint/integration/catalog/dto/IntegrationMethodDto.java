@@ -38,5 +38,6 @@ public record IntegrationMethodDto(
         String maintainer,                                          // integration_method.maintainer
         LocalDate createdAt,                                        // integration_method.created_at
         LocalDate updated,                                          // integration_method.updated (= review start date while REVIEWING)
-        List<IncludedConnectorDto> connectors                       // connectors linked via integration_method_connector
+        List<IncludedConnectorDto> connectors,                      // connectors linked via integration_method_connector
+        String etag                                                 // integration_method.row_version, for If-Match on edits
 ) {}
\ No newline at end of file
@@ -10,5 +10,6 @@ public record LoginResponseDto(
         String username,         // catalog_users.username
         String role,             // catalog_users.role
         Integer organizationId,  // organizations.id
-        String organizationName  // organizations.name
+        String organizationName, // organizations.name
+        String token             // signed session token, sent back as "Authorization: Bearer <token>"
 ) {}
@@ -18,5 +18,6 @@ public class VerifyBundleInformationForm {
     private String integrationMethodRevision;   // integration_method.revision
     private String connectorVersionId;
     private String connectorVersionRevision;
+    private String buildId;                     // BUILD_REQUEST_ID build parameter; a repeated verify gets the recorded answer
 
 }
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.dto;
+
+public record VoteStatusDto(
+        Long requestId,
+        long voteCount,     // request.vote_count
+        boolean hasVoted    // computed: the given voter has a vote row for the request
+) {}
@@ -7,6 +7,7 @@
 package com.evolveum.midpoint.integration.catalog.form;
 
 import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,12 +16,16 @@ import java.util.List;
 @Setter
 @Getter
 public class ContinueForm {
+    /** Jenkins build ID (the BUILD_REQUEST_ID build parameter); duplicate callbacks with it are skipped. */
+    private String buildId;
     private String connectorBundle;
     private String connectorVersion;
     private String integrationMethodRevision;
     private Long publishTime;
     private String downloadLink;
     private String connectorClass;
+    /** Unknown names are read as null and rejected by the callback service with a 400. */
+    @JsonFormat(with = JsonFormat.Feature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
     private List<CapabilityType> capability;
     private String connectorVersionId;
     private String connectorVersionRevision;
@@ -12,6 +12,8 @@ import lombok.Setter;
 @Setter
 @Getter
 public class FailForm {
+    /** Jenkins build ID (the BUILD_REQUEST_ID build parameter); duplicate callbacks with it are skipped. */
+    private String buildId;
     private String errorMessage;
     private String integrationMethodRevision;
     private String connectorVersionId;
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage of immutable binary objects (logos, tutorial files, connector artifacts) addressed by
+ * slash-separated keys.
+ * <p>
+ * Writes go through a local staging file: callers stream the upload into {@link #newStagingFile()}
+ * (hashing or size-checking it on the way) and hand it over with {@link #putFile}. For the local
+ * store the staging file sits next to the objects, so handing it over is a rename; remote stores
+ * upload it with a known length. Reads are streamed.
+ */
+public interface BlobStore {
+
+    /** Size and modification time of a stored object. */
+    record BlobInfo(long size, Instant lastModified) {
+    }
+
+    /** Creates an empty file to stream new content into before {@link #putFile storing} it. */
+    Path newStagingFile() throws IOException;
+
+    /**
+     * Stores the staging file under {@code key}, replacing any existing object, and removes the
+     * staging file. {@code contentType} may be null.
+     */
+    void putFile(String key, Path stagingFile, String contentType) throws IOException;
+
+    /** Opens an object for reading; {@link java.nio.file.NoSuchFileException} if there is none. */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * The object as a {@link Resource} for HTTP responses, with its metadata already known (e.g. from
+     * an index): length and modification time come from {@code info} and every
+     * {@link Resource#getInputStream()} opens a fresh stream, so byte ranges can be served without
+     * reading the object up to the range. A missing object only surfaces when its content is read.
+     */
+    Resource resource(String key, BlobInfo info);
+
+    Optional<BlobInfo> stat(String key) throws IOException;
+
+    /** Deletes an object; deleting a missing object is not an error. */
+    void delete(String key) throws IOException;
+}
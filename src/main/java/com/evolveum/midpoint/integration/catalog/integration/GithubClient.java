@@ -8,79 +8,201 @@ package com.evolveum.midpoint.integration.catalog.integration;
 
 import com.evolveum.midpoint.integration.catalog.common.ItemFile;
 import com.evolveum.midpoint.integration.catalog.configuration.GithubProperties;
-import com.evolveum.midpoint.integration.catalog.object.ConnectorVersion;
 
 import org.kohsuke.github.*;
+import org.kohsuke.github.extras.HttpClientGitHubConnector;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Dominik.
+ * <p>
+ * When {@code github.templatePath} and {@code github.templateTag} are set, new repositories are
+ * scaffolded from that template repository: it is downloaded as one archive per tag through the
+ * {@link TemplateCache}, and the template and uploaded files are pushed together as one tree and one
+ * commit, so a burst of uploads does not turn into a burst of template reads.
  */
 @Service
 public class GithubClient {
 
+    private static final String GITHUB_HOST = "api.github.com";
+
     private final GithubProperties properties;
+    private final OutboundHttpClient outboundHttpClient;
+    private final TemplateCache templateCache;
+    private volatile GitHub github;
 
-    public GithubClient(GithubProperties properties) {
+    public GithubClient(GithubProperties properties, OutboundHttpClient outboundHttpClient,
+                        TemplateCache templateCache) {
         this.properties = properties;
+        this.outboundHttpClient = outboundHttpClient;
+        this.templateCache = templateCache;
+    }
+
+    /**
+     * Creates the repository, commits the template files and {@code files} (which win on equal paths)
+     * on top of the initial commit and tags that commit {@code v<bundleVersion>}. Takes plain values so
+     * it can run outside the upload transaction. Safe to repeat: an existing repository is reused and
+     * a version that is already tagged is not committed again.
+     */
+    public GHRepository createProject(String nameOfProject, String description, String bundleVersion,
+                                      List<ItemFile> files) throws Exception {
+        GHRepository repo = findOrCreateRepository(nameOfProject, description);
+        if (!hasVersionTag(repo, bundleVersion)) {
+            commitVersion(repo, description, bundleVersion, files);
+        }
+        return repo;
+    }
+
+    /**
+     * The repository of the authenticated account with the given name, created (with an initial commit)
+     * when it does not exist yet. A repository left behind by an earlier, partly failed attempt, or
+     * created concurrently by another worker, is reused.
+     */
+    private GHRepository findOrCreateRepository(String nameOfProject, String description) throws Exception {
+        return outboundHttpClient.call(GITHUB_HOST, () -> {
+            GitHub github = github();
+            GHRepository existing = github.getMyself().getRepository(nameOfProject);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                // autoInit: the Git data API refuses to create trees in an empty repository
+                return github.createRepository(nameOfProject)
+                        .description(description)
+                        .private_(false)
+                        .autoInit(true)
+                        .create();
+            } catch (HttpException e) {
+                GHRepository created = e.getResponseCode() == 422 ? github.getMyself().getRepository(nameOfProject) : null;
+                if (created == null) {
+                    throw e;
+                }
+                return created;
+            }
+        }, GithubClient::isHostFailure);
     }
 
-    public GHRepository createProjectForConnectorVersion(String nameOfProject, ConnectorVersion connectorVersion,
-                                                          List<ItemFile> files) throws Exception {
-        GitHub github = new GitHubBuilder()
-                .withOAuthToken(properties.apiToken())
-                .build();
+    /** Whether {@code v<bundleVersion>} is tagged in the repository, i.e. the version was committed completely. */
+    private boolean hasVersionTag(GHRepository repo, String bundleVersion) throws Exception {
+        return outboundHttpClient.call(GITHUB_HOST, () -> refExists(repo, "tags/v" + bundleVersion),
+                GithubClient::isHostFailure);
+    }
 
-        String description = connectorVersion.getFullyQualifiedClassName() != null
-                ? connectorVersion.getFullyQualifiedClassName() : nameOfProject;
+    /**
+     * Commits the template files and {@code files} (which win on equal paths) onto the main branch and
+     * tags the commit {@code v<bundleVersion>}. When the branch already holds exactly that content (an
+     * earlier attempt failed after the commit), only the tag is created.
+     */
+    private void commitVersion(GHRepository repo, String description, String bundleVersion,
+                               List<ItemFile> files) throws Exception {
+        Map<String, byte[]> content = new LinkedHashMap<>(templateFiles());
+        for (ItemFile file : files) {
+            content.put(file.path(), file.content().getBytes(StandardCharsets.UTF_8));
+        }
+        outboundHttpClient.call(GITHUB_HOST, () -> {
+            pushContent(repo, description, bundleVersion, content);
+            return null;
+        }, GithubClient::isHostFailure);
+    }
 
-        GHRepository repo = github.createRepository(nameOfProject)
-                .description(description)
-                .private_(false)
-                .autoInit(true)
-                .create();
+    private Map<String, byte[]> templateFiles() throws Exception {
+        String templatePath = properties.templatePath();
+        String templateTag = properties.templateTag();
+        if (templatePath == null || templatePath.isBlank() || templateTag == null || templateTag.isBlank()) {
+            return Map.of();
+        }
+        String templateRepository = properties.groupPath() + "/" + templatePath;
+        return templateCache.files("github:" + templateRepository, templateTag,
+                () -> outboundHttpClient.call(GITHUB_HOST, () -> github().getRepository(templateRepository)
+                                .readZip(TemplateCache::unzipRepositoryArchive, templateTag),
+                        GithubClient::isHostFailure));
+    }
 
+    private void pushContent(GHRepository repo, String description, String bundleVersion,
+                             Map<String, byte[]> content) throws IOException {
         GHRef branchRef = repo.getRef("heads/main");
         GHCommit latestCommit = repo.getCommit(branchRef.getObject().getSha());
         GHTreeBuilder treeBuilder = repo.createTree().baseTree(latestCommit.getSHA1());
 
-        for (ItemFile file : files) {
-            treeBuilder.add(file.path(), file.content(), false);
+        for (Map.Entry<String, byte[]> file : content.entrySet()) {
+            String text = asText(file.getValue());
+            if (text != null) {
+                treeBuilder.add(file.getKey(), text, false);
+            } else {
+                // binary content cannot be inlined in the tree request; this uploads a blob first
+                treeBuilder.add(file.getKey(), file.getValue(), false);
+            }
         }
 
-        String bundleVersion = resolveBundleVersion(connectorVersion);
-        createTag(repo, latestCommit.getSHA1(), description, bundleVersion);
-
         GHTree tree = treeBuilder.create();
-        GHCommit commit = repo.createCommit()
-                .message(description)
-                .tree(tree.getSha())
-                .parent(latestCommit.getSHA1())
-                .create();
-
-        branchRef.updateTo(commit.getSHA1());
+        String commitSha = latestCommit.getSHA1();
+        if (!tree.getSha().equals(latestCommit.getTree().getSha())) {
+            GHCommit commit = repo.createCommit()
+                    .message(description)
+                    .tree(tree.getSha())
+                    .parent(latestCommit.getSHA1())
+                    .create();
+            branchRef.updateTo(commit.getSHA1());
+            commitSha = commit.getSHA1();
+        }
+        createTag(repo, commitSha, description, bundleVersion);
+    }
 
-        return repo;
+    private static boolean refExists(GHRepository repo, String ref) throws IOException {
+        try {
+            repo.getRef(ref);
+            return true;
+        } catch (GHFileNotFoundException e) {
+            return false;
+        }
     }
 
-    private String resolveBundleVersion(ConnectorVersion connectorVersion) {
-        if (connectorVersion.getConnectorBundleVersion() != null
-                && connectorVersion.getConnectorBundleVersion().getBundleVersion() != null) {
-            return connectorVersion.getConnectorBundleVersion().getBundleVersion();
+    /** Errors of the host itself; GitHub refusing the request (4xx other than 429) is not one. */
+    private static boolean isHostFailure(Exception error) {
+        if (error instanceof GHFileNotFoundException) {
+            return false;
         }
-        return "1.0.0";
+        return !(error instanceof HttpException httpEx && OutboundHttpClient.isClientError(httpEx.getResponseCode()));
     }
 
-    private void createTag(GHRepository repo, String sha, String description, String version) {
-        String tagVersion = "v" + version;
+    /** The content as a string if it is valid UTF-8, otherwise {@code null}. */
+    private static String asText(byte[] content) {
         try {
-            GHTagObject tagObject = repo.createTag(tagVersion, description, sha, "commit");
-            repo.createRef("refs/tags/" + tagVersion, tagObject.getSha());
-        } catch (IOException e) {
-            throw new RuntimeException("Exception occurred during tag creation: " + e);
+            return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(content)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    /** One GitHub instance on the shared HTTP client, so connections and TLS sessions are reused. */
+    private GitHub github() throws IOException {
+        GitHub current = github;
+        if (current == null) {
+            synchronized (this) {
+                current = github;
+                if (current == null) {
+                    current = new GitHubBuilder()
+                            .withOAuthToken(properties.apiToken())
+                            .withConnector(new HttpClientGitHubConnector(outboundHttpClient.httpClient()))
+                            .build();
+                    github = current;
+                }
+            }
         }
+        return current;
+    }
+
+    private void createTag(GHRepository repo, String sha, String description, String version) throws IOException {
+        String tagVersion = "v" + version;
+        GHTagObject tagObject = repo.createTag(tagVersion, description, sha, "commit");
+        repo.createRef("refs/tags/" + tagVersion, tagObject.getSha());
     }
 }
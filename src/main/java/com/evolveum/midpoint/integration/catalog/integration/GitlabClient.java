@@ -6,96 +6,214 @@
 
 package com.evolveum.midpoint.integration.catalog.integration;
 
+import com.evolveum.midpoint.integration.catalog.common.ItemFile;
+import com.evolveum.midpoint.integration.catalog.configuration.GitlabProperties;
+import com.evolveum.midpoint.integration.catalog.configuration.OutboundHttpProperties;
+import org.gitlab4j.api.Constants;
 import org.gitlab4j.api.GitLabApi;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Branch;
+import org.gitlab4j.api.models.Commit;
 import org.gitlab4j.api.models.CommitAction;
 import org.gitlab4j.api.models.Project;
 import org.gitlab4j.api.models.TreeItem;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+/**
+ * gitlab4j has its own HTTP stack, so the shared client cannot be plugged in; instead one
+ * {@link GitLabApi} is kept (reusing its connections), created with the outbound timeouts, and
+ * calls are made under the {@link OutboundHttpClient} per-host limits and circuit breaker.
+ * <p>
+ * A project is bootstrapped with a constant number of API calls whatever the template size: the
+ * template is downloaded as one ZIP archive of {@code templateTag} (once per tag, through the
+ * {@link TemplateCache}), its files and the uploaded files land in a single multi-action commit, and
+ * the tag is created directly on that commit.
+ */
+@Service
 public class GitlabClient {
 
-    private final String gitlabUrl = System.getProperty("gitlab.url");
-    private final String apiToken = System.getProperty("gitlab.apiToken");
-    private final String groupPath = System.getProperty("gitlab.groupPath");
-    private final String templatePath = System.getProperty("gitlab.templatePath");
-    private final String templateTag = System.getProperty("gitlab.templateTag");
-
-    public void createProject(String nameOfProject, String newVersion, MultipartFile script) throws Exception {
-        GitLabApi gitLabApi = new GitLabApi(gitlabUrl, apiToken);
+    private static final String BRANCH = "main";
 
-        String templateProjectPath = groupPath + "/" + templatePath;
+    private final GitlabProperties properties;
+    private final OutboundHttpClient outboundHttpClient;
+    private final OutboundHttpProperties outboundHttpProperties;
+    private final TemplateCache templateCache;
+    private volatile GitLabApi gitLabApi;
 
-        Project templateProject = gitLabApi.getProjectApi().getProject(templateProjectPath);
+    public GitlabClient(GitlabProperties properties, OutboundHttpClient outboundHttpClient,
+                        OutboundHttpProperties outboundHttpProperties, TemplateCache templateCache) {
+        this.properties = properties;
+        this.outboundHttpClient = outboundHttpClient;
+        this.outboundHttpProperties = outboundHttpProperties;
+        this.templateCache = templateCache;
+    }
 
-        List<TreeItem> files = gitLabApi.getRepositoryApi()
-                .getTree(templateProject.getId(), "/", templateTag, true);
+    /** Whether {@code gitlab.url} is set, i.e. low-code repositories are provisioned on GitLab. */
+    public boolean isConfigured() {
+        return properties.url() != null && !properties.url().isBlank();
+    }
 
-        List<CommitAction> actions = new ArrayList<>();
+    /**
+     * Creates the project (or reuses one left by an earlier attempt), commits the template files and
+     * {@code files} (which win on equal paths) to the main branch in one commit and tags it
+     * {@code newVersion}. Safe to repeat: a version that is already tagged is not committed again,
+     * and a commit of the version without its tag is only tagged.
+     */
+    public Project createProject(String nameOfProject, String newVersion, List<ItemFile> files) throws Exception {
+        Project project = findOrCreateProject(nameOfProject);
+        if (gitlab(() -> gitLabApi().getTagsApi().getOptionalTag(project.getId(), newVersion)).isPresent()) {
+            return project;
+        }
 
-        for (TreeItem file : files) {
-            if (!file.getType().equals(TreeItem.Type.BLOB)) {
-                continue;
+        String message = "Commit for version " + newVersion;
+        Optional<Branch> branch = gitlab(() -> gitLabApi().getRepositoryApi().getOptionalBranch(project.getId(), BRANCH));
+        String commitId;
+        if (branch.isPresent() && message.equals(branch.get().getCommit().getMessage())) {
+            // an earlier attempt committed the version but failed before tagging it
+            commitId = branch.get().getCommit().getId();
+        } else {
+            Map<String, byte[]> content = new LinkedHashMap<>(templateFiles());
+            for (ItemFile file : files) {
+                content.put(file.path(), file.content().getBytes(StandardCharsets.UTF_8));
             }
-            String content = gitLabApi.getRepositoryFileApi()
-                    .getFile(templateProject.getId(), file.getPath(), "main")
-                    .getDecodedContentAsString();
-
-            actions.add(new CommitAction()
-                    .withAction(CommitAction.Action.CREATE)
-                    .withFilePath(file.getPath())
-                    .withContent(content));
+            Set<String> existingPaths = branch.isPresent() ? existingPaths(project) : Set.of();
+            List<CommitAction> actions = new ArrayList<>(content.size());
+            content.forEach((path, bytes) -> actions.add(createAction(path, bytes, existingPaths.contains(path))));
+
+            Commit commit = gitlab(() -> gitLabApi().getCommitsApi().createCommit(
+                    project.getId(),
+                    BRANCH,
+                    message,
+                    null,
+                    null,
+                    null,
+                    actions
+            ));
+            commitId = commit.getId();
         }
 
-        //todo use it for new project .... using existing project because of testing
-//        Project newProject = gitLabApi.getProjectApi().createProject(
-//                new Project()
-//                        .withName(nameOfProject)
-//                        .withNamespaceId(gitLabApi.getGroupApi().getGroup(groupPath).getId())
-//        );
-
-        Project newProject = gitLabApi.getProjectApi().getProject(groupPath + "/" + "sample-scimdev-noclass");
-
-        gitLabApi.getCommitsApi().createCommit(
-                newProject.getId(),
-                "main",
-                "Commit for version " + newVersion,
-                null,
-                null,
-                null,
-                actions
-        );
-
-        String encoded = Base64.getEncoder().encodeToString(script.getBytes());
-
-        CommitAction action = new CommitAction()
-                .withAction(CommitAction.Action.CREATE)
-                .withFilePath("src/main/resources/Schema.schema.groovy")
-                .withContent(encoded);
-
-        gitLabApi.getCommitsApi().createCommit(
-                newProject.getId(),
-                "main",
-                "Add script",
-                null,
-                null,
-                null,
-                Collections.singletonList(action)
-        );
-
-        String tmpBranch = "tmp/" + newVersion;
-
-        gitLabApi.getRepositoryApi().createBranch(newProject.getId(), tmpBranch, "main");
-
-        gitLabApi.getTagsApi().createTag(
-                newProject.getId(),
+        gitlab(() -> gitLabApi().getTagsApi().createTag(
+                project.getId(),
                 newVersion,
-                tmpBranch,
+                commitId,
                 "Initial tag " + newVersion,
                 (String) null
-        );
+        ));
+        return project;
+    }
+
+    /**
+     * The project with the given name in {@code groupPath}, created when it does not exist yet. A
+     * project created concurrently by another worker is reused.
+     */
+    private Project findOrCreateProject(String nameOfProject) throws Exception {
+        String projectPath = projectPath(nameOfProject);
+        String fullPath = properties.groupPath() + "/" + projectPath;
+        Optional<Project> existing = gitlab(() -> gitLabApi().getProjectApi().getOptionalProject(fullPath));
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            Long namespaceId = gitlab(() -> gitLabApi().getGroupApi().getGroup(properties.groupPath()).getId());
+            return gitlab(() -> gitLabApi().getProjectApi().createProject(
+                    new Project()
+                            .withName(nameOfProject)
+                            .withPath(projectPath)
+                            .withNamespaceId(namespaceId)
+            ));
+        } catch (GitLabApiException e) {
+            // 400 "has already been taken": created in the meantime
+            Optional<Project> created = e.getHttpStatus() == 400
+                    ? gitlab(() -> gitLabApi().getProjectApi().getOptionalProject(fullPath))
+                    : Optional.empty();
+            return created.orElseThrow(() -> e);
+        }
+    }
+
+    private Set<String> existingPaths(Project project) throws Exception {
+        List<TreeItem> tree = gitlab(() -> gitLabApi().getRepositoryApi().getTree(project.getId(), null, BRANCH, true));
+        Set<String> paths = new HashSet<>();
+        for (TreeItem item : tree) {
+            if (item.getType() == TreeItem.Type.BLOB) {
+                paths.add(item.getPath());
+            }
+        }
+        return paths;
+    }
+
+    private Map<String, byte[]> templateFiles() throws Exception {
+        String templatePath = properties.templatePath();
+        String templateTag = properties.templateTag();
+        if (templatePath == null || templatePath.isBlank() || templateTag == null || templateTag.isBlank()) {
+            return Map.of();
+        }
+        String templateProjectPath = properties.groupPath() + "/" + templatePath;
+        return templateCache.files("gitlab:" + host() + "/" + templateProjectPath, templateTag,
+                () -> downloadTemplate(templateProjectPath, templateTag));
+    }
+
+    /** Downloads the template project at {@code tag} as a single ZIP archive. */
+    private Map<String, byte[]> downloadTemplate(String templateProjectPath, String tag) throws Exception {
+        Project templateProject = gitlab(() -> gitLabApi().getProjectApi().getProject(templateProjectPath));
+
+        return gitlab(() -> {
+            try (InputStream archive = gitLabApi().getRepositoryApi()
+                    .getRepositoryArchive(templateProject.getId(), tag, Constants.ArchiveFormat.ZIP)) {
+                return TemplateCache.unzipRepositoryArchive(archive);
+            }
+        });
+    }
+
+    private static CommitAction createAction(String path, byte[] content, boolean exists) {
+        return new CommitAction()
+                .withAction(exists ? CommitAction.Action.UPDATE : CommitAction.Action.CREATE)
+                .withFilePath(path)
+                .withEncoding(Constants.Encoding.BASE64)
+                .withContent(Base64.getEncoder().encodeToString(content));
+    }
+
+    /** GitLab project paths allow letters, digits, '.', '_' and '-' only. */
+    static String projectPath(String nameOfProject) {
+        String path = nameOfProject.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]+", "-");
+        return path.replaceAll("^[-._]+|[-._]+$", "");
+    }
+
+    private String host() {
+        return URI.create(properties.url()).getHost();
+    }
+
+    /** One GitLabApi for all calls, so its connections are reused. */
+    private GitLabApi gitLabApi() {
+        GitLabApi current = gitLabApi;
+        if (current == null) {
+            synchronized (this) {
+                current = gitLabApi;
+                if (current == null) {
+                    current = new GitLabApi(properties.url(), properties.apiToken());
+                    current.setRequestTimeout(
+                            (int) outboundHttpProperties.connectTimeout().toMillis(),
+                            (int) outboundHttpProperties.requestTimeout().toMillis());
+                    gitLabApi = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private <T> T gitlab(OutboundHttpClient.OutboundCall<T> call) throws Exception {
+        return outboundHttpClient.call(host(), call, GitlabClient::isHostFailure);
+    }
 
-        gitLabApi.getRepositoryApi().deleteBranch(newProject.getId(), tmpBranch);
+    /**
+     * Errors of the host itself. A refused request (4xx other than 429, e.g. the 400 of a project
+     * created in the meantime) is not one; a {@link GitLabApiException} without a status wraps an I/O error.
+     */
+    private static boolean isHostFailure(Exception error) {
+        return !(error instanceof GitLabApiException apiEx && OutboundHttpClient.isClientError(apiEx.getHttpStatus()));
     }
 }
@@ -8,29 +8,37 @@ package com.evolveum.midpoint.integration.catalog.integration;
 
 import com.evolveum.midpoint.integration.catalog.configuration.JenkinsProperties;
 
+import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Map;
 
+/**
+ * Triggers parameterised Jenkins builds through the shared {@link OutboundHttpClient}; builds are
+ * triggered from the outbox, see {@code JenkinsBuildTrigger}.
+ */
+@Component
 public class JenkinsClient {
 
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
     private final JenkinsProperties properties;
-    private final HttpClient client;
+    private final OutboundHttpClient client;
 
-    public JenkinsClient(JenkinsProperties properties) {
+    public JenkinsClient(JenkinsProperties properties, OutboundHttpClient client) {
         this.properties = properties;
-        this.client = HttpClient.newHttpClient();
+        this.client = client;
     }
 
-    public HttpResponse<String> triggerJob(Map<String, String> parameters) throws IOException, InterruptedException {
+    public HttpResponse<String> triggerJob(Map<String, String> parameters) throws IOException {
         String jobUrl = String.format("/job/%s/buildWithParameters", properties.jobName());
 
         URI uri = UriComponentsBuilder.fromUriString(properties.url()).path(jobUrl)
@@ -39,6 +47,7 @@ public class JenkinsClient {
 
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(uri)
+                .timeout(REQUEST_TIMEOUT)
                 .header("Authorization", basicAuthHeader());
 
         HttpRequest request = requestBuilder.POST(HttpRequest.BodyPublishers.noBody()).build();
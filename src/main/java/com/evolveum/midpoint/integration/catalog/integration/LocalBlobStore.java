@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+/**
+ * {@link BlobStore} in a directory: a key is a relative path under it. Staging files are kept in
+ * its {@code tmp} subdirectory, so storing one is an atomic rename on the same file system.
+ */
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    /** Subdirectory of staging files; never used as a key prefix. */
+    public static final String STAGING_DIR = "tmp";
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.staging = this.root.resolve(STAGING_DIR);
+        try {
+            if (!Files.exists(this.root)) {
+                Files.createDirectories(this.root);
+                log.info("Created storage directory: {}", this.root);
+            }
+            if (!Files.isDirectory(this.root)) {
+                throw new IllegalStateException("Storage path is not a directory: " + this.root);
+            }
+            if (!Files.isWritable(this.root)) {
+                throw new IllegalStateException("Storage directory is not writable: " + this.root);
+            }
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create storage directory: " + this.root, e);
+        }
+        log.info("Local blob store at {}", this.root);
+    }
+
+    @Override
+    public Path newStagingFile() throws IOException {
+        return Files.createTempFile(staging, "upload-", ".tmp");
+    }
+
+    @Override
+    public void putFile(String key, Path stagingFile, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public Resource resource(String key, BlobInfo info) {
+        return new FileSystemResource(resolve(key));
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return Optional.of(new BlobInfo(attributes.size(), attributes.lastModifiedTime().toInstant()));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root) || file.startsWith(staging)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return file;
+    }
+}
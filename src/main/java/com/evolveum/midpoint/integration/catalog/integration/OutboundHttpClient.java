@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import com.evolveum.midpoint.integration.catalog.configuration.OutboundHttpProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * The one place outbound HTTP goes through.
+ * <p>
+ * Holds a single {@link HttpClient} (HTTP/2 where the server offers it, redirects followed), so
+ * connections and TLS sessions are reused by every integration. Each call is bounded per host by
+ * a concurrency limit and a circuit breaker: after {@code circuitFailureThreshold} consecutive
+ * failures (I/O errors, 5xx or 429) calls to the host fail fast for {@code circuitOpenDuration},
+ * then a single trial call decides whether it closes again. A request the host refuses (4xx other
+ * than 429) is the caller's problem, not the host's, and does not count. Call counts and latencies
+ * are kept per host and logged periodically.
+ * <p>
+ * Clients built on other HTTP stacks (gitlab4j) wrap their API calls in {@link #call}.
+ */
+@Slf4j
+@Component
+public class OutboundHttpClient {
+
+    /** An outbound call of a client library; see {@link #call} for which exceptions count against the host. */
+    @FunctionalInterface
+    public interface OutboundCall<T> {
+        T call() throws Exception;
+    }
+
+    /** Per-host counters as of {@link #snapshot()}. */
+    public record HostStats(String host, long calls, long failures, double averageMillis, double maxMillis,
+                            int inFlight, boolean circuitOpen) {
+    }
+
+    private final OutboundHttpProperties properties;
+    private final HttpClient httpClient;
+    private final ConcurrentMap<String, HostState> hosts = new ConcurrentHashMap<>();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> metricsLogging;
+
+    public OutboundHttpClient(OutboundHttpProperties properties, TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL) // Nexus may redirect to a storage host
+                .connectTimeout(properties.connectTimeout())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        Duration interval = properties.metricsLogInterval();
+        metricsLogging = taskScheduler.scheduleWithFixedDelay(this::logStats, Instant.now().plus(interval), interval);
+    }
+
+    @PreDestroy
+    void stop() {
+        metricsLogging.cancel(false);
+        logStats();
+    }
+
+    /**
+     * The shared client, for libraries that take a {@link HttpClient} of their own. Calls made
+     * this way reuse connections but bypass the limits and breaker; wrap them in {@link #call}.
+     */
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Sends the request on the shared client. A request without a timeout gets
+     * {@code outbound-http.request-timeout}.
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+        HttpRequest effective = request.timeout().isPresent()
+                ? request
+                : HttpRequest.newBuilder(request, (name, value) -> true).timeout(properties.requestTimeout()).build();
+        try {
+            return execute(hostKey(request.uri()), () -> httpClient.send(effective, bodyHandler),
+                    response -> response.statusCode() >= 500 || response.statusCode() == 429,
+                    IOException.class::isInstance);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs a call of another HTTP stack against {@code host} under the same limits and breaker.
+     * {@code hostFailure} decides which exceptions of the call count as failures of the host; the
+     * library's error for a refused request (see {@link #isClientError}) should not, or a few bad
+     * requests, or a 400 the caller recovers from, would open the circuit for everyone.
+     */
+    public <T> T call(String host, OutboundCall<T> action, Predicate<Exception> hostFailure) throws Exception {
+        return execute(host, action, result -> false, hostFailure);
+    }
+
+    /** Whether the host refused the request itself (4xx other than 429), as opposed to failing or throttling. */
+    public static boolean isClientError(int status) {
+        return status >= 400 && status < 500 && status != 429;
+    }
+
+    public List<HostStats> snapshot() {
+        return hosts.values().stream()
+                .map(HostState::stats)
+                .sorted(Comparator.comparing(HostStats::host))
+                .toList();
+    }
+
+    private <T> T execute(String host, OutboundCall<T> action, Predicate<T> failedResult,
+                          Predicate<Exception> failedError) throws Exception {
+        HostState state = hosts.computeIfAbsent(host, HostState::new);
+        state.beforeCall(System.nanoTime());
+        boolean acquired;
+        try {
+            acquired = state.permits.tryAcquire(properties.requestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.cancelTrial();
+            throw new IOException("Interrupted while waiting to call " + host, e);
+        }
+        if (!acquired) {
+            state.cancelTrial();
+            throw new IOException("Too many concurrent requests to " + host);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.call();
+            failed = failedResult.test(result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + host, e);
+        } catch (Exception e) {
+            failed = failedError.test(e);
+            throw e;
+        } finally {
+            state.permits.release();
+            state.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private void logStats() {
+        for (HostState state : hosts.values()) {
+            long calls = state.calls.sum();
+            if (calls == state.lastLoggedCalls) {
+                continue;
+            }
+            state.lastLoggedCalls = calls;
+            HostStats stats = state.stats();
+            log.info("Outbound HTTP {}: {} calls, {} failures, avg {} ms, max {} ms{}",
+                    stats.host(), stats.calls(), stats.failures(),
+                    Math.round(stats.averageMillis()), Math.round(stats.maxMillis()),
+                    stats.circuitOpen() ? ", circuit open" : "");
+        }
+    }
+
+    private final class HostState {
+
+        private final String host;
+        private final Semaphore permits = new Semaphore(properties.maxConcurrentPerHost());
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastLoggedCalls;
+
+        // circuit breaker, guarded by this
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        private HostState(String host) {
+            this.host = host;
+        }
+
+        synchronized void beforeCall(long now) throws IOException {
+            if (consecutiveFailures < properties.circuitFailureThreshold()) {
+                return;
+            }
+            if (now - openUntil < 0 || trialInFlight) {
+                throw new IOException("Circuit open for " + host + " after " + consecutiveFailures
+                        + " consecutive failures");
+            }
+            trialInFlight = true;
+        }
+
+        synchronized void cancelTrial() {
+            trialInFlight = false;
+        }
+
+        void record(long nanos, boolean failed) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) {
+                failures.increment();
+            }
+            synchronized (this) {
+                trialInFlight = false;
+                if (!failed) {
+                    if (consecutiveFailures >= properties.circuitFailureThreshold()) {
+                        log.info("Circuit for {} closed again", host);
+                    }
+                    consecutiveFailures = 0;
+                    return;
+                }
+                consecutiveFailures++;
+                if (consecutiveFailures >= properties.circuitFailureThreshold()) {
+                    openUntil = System.nanoTime() + properties.circuitOpenDuration().toNanos();
+                    if (consecutiveFailures == properties.circuitFailureThreshold()) {
+                        log.warn("Circuit for {} opened after {} consecutive failures", host, consecutiveFailures);
+                    }
+                }
+            }
+        }
+
+        synchronized boolean isOpen() {
+            return consecutiveFailures >= properties.circuitFailureThreshold() && System.nanoTime() - openUntil < 0;
+        }
+
+        HostStats stats() {
+            long count = calls.sum();
+            double average = count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000;
+            return new HostStats(host, count, failures.sum(), average, maxNanos.get() / 1_000_000.0,
+                    properties.maxConcurrentPerHost() - permits.availablePermits(), isOpen());
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import com.evolveum.midpoint.integration.catalog.configuration.BlobStoreProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * {@link BlobStore} in a bucket of an S3-compatible service (AWS S3, MinIO, ...), spoken to over the
+ * shared {@link OutboundHttpClient} with AWS Signature Version 4 request signing; the bucket is
+ * addressed path-style. Every key is put under a fixed prefix so several stores can share a bucket.
+ * <p>
+ * Bodies are sent unsigned ({@code UNSIGNED-PAYLOAD}) so uploads stream from the staging file
+ * without hashing it a second time; use an https endpoint outside trusted networks.
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final OutboundHttpClient http;
+    private final BlobStoreProperties properties;
+    private final String prefix;
+    private final String endpoint;
+
+    public S3BlobStore(OutboundHttpClient http, BlobStoreProperties properties, String prefix) {
+        this.http = http;
+        this.properties = properties;
+        this.prefix = prefix;
+        this.endpoint = properties.endpoint().replaceAll("/+$", "");
+        log.info("S3 blob store at {}/{}/{}", endpoint, properties.bucket(), prefix);
+    }
+
+    @Override
+    public Path newStagingFile() throws IOException {
+        return Files.createTempFile("blob-", ".tmp");
+    }
+
+    @Override
+    public void putFile(String key, Path stagingFile, String contentType) throws IOException {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key))
+                    .PUT(HttpRequest.BodyPublishers.ofFile(stagingFile));
+            Map<String, String> headers = new TreeMap<>();
+            if (contentType != null) {
+                headers.put("content-type", contentType);
+            }
+            HttpResponse<String> response = http.send(sign(request, "PUT", key, headers), HttpResponse.BodyHandlers.ofString());
+            expectSuccess(response, "PUT", key);
+        } finally {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return openFrom(key, 0);
+    }
+
+    @Override
+    public Resource resource(String key, BlobInfo info) {
+        return new ObjectResource(key, info);
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody());
+        HttpResponse<Void> response = http.send(sign(request, "HEAD", key, new TreeMap<>()), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 HEAD " + key + " failed with status " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        return Optional.of(new BlobInfo(size, lastModified));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key)).DELETE();
+        HttpResponse<String> response = http.send(sign(request, "DELETE", key, new TreeMap<>()), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 404) {
+            expectSuccess(response, "DELETE", key);
+        }
+    }
+
+    /** GETs the object from {@code offset} on (a ranged GET unless the offset is 0). */
+    private InputStream openFrom(String key, long offset) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key)).GET();
+        Map<String, String> headers = new TreeMap<>();
+        if (offset > 0) {
+            headers.put("range", "bytes=" + offset + "-");
+        }
+        HttpResponse<InputStream> response = http.send(sign(request, "GET", key, headers), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 == 2) {
+            return response.body();
+        }
+        response.body().close();
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("S3 GET " + key + " failed with status " + response.statusCode());
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String operation, String key) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 " + operation + " " + key + " failed with status " + response.statusCode()
+                    + ": " + response.body());
+        }
+    }
+
+    private URI objectUri(String key) {
+        return URI.create(endpoint + objectPath(key));
+    }
+
+    private String objectPath(String key) {
+        return "/" + properties.bucket() + "/" + encodePath(prefix + key);
+    }
+
+    // ── Signature Version 4 ──────────────────────────────────────────────────
+
+    /**
+     * Adds the SigV4 headers to the request. {@code headers} are extra headers to sign and send,
+     * keyed by lower-case name; Host is signed as sent by the client.
+     */
+    private HttpRequest sign(HttpRequest.Builder request, String method, String key, Map<String, String> headers) {
+        String amzDate = AMZ_DATE.format(ZonedDateTime.now(ZoneOffset.UTC));
+        URI uri = objectUri(key);
+
+        SortedMap<String, String> signed = new TreeMap<>(headers);
+        signed.put("host", uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort());
+        signed.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        signed.put("x-amz-date", amzDate);
+
+        String canonicalRequest = canonicalRequest(method, objectPath(key), signed, UNSIGNED_PAYLOAD);
+        String signature = signature(properties.secretKey(), properties.region(), amzDate, canonicalRequest);
+
+        signed.forEach((name, value) -> {
+            if (!name.equals("host")) {
+                request.header(name, value);
+            }
+        });
+        request.header("Authorization", "AWS4-HMAC-SHA256 Credential=" + properties.accessKey() + "/"
+                + scope(amzDate, properties.region()) + ", SignedHeaders=" + String.join(";", signed.keySet())
+                + ", Signature=" + signature);
+        return request.build();
+    }
+
+    /**
+     * The SigV4 canonical request of a request without query parameters. {@code headers} are the
+     * signed headers keyed by lower-case name; {@code path} is already URI-encoded.
+     */
+    static String canonicalRequest(String method, String path, SortedMap<String, String> headers, String payloadHash) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        headers.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value.trim()).append('\n'));
+        return method + "\n" + path + "\n\n" + canonicalHeaders + "\n"
+                + String.join(";", headers.keySet()) + "\n" + payloadHash;
+    }
+
+    /** The hex SigV4 signature of a canonical request for the s3 service, {@code amzDate} as in x-amz-date. */
+    static String signature(String secretKey, String region, String amzDate, String canonicalRequest) {
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope(amzDate, region) + "\n"
+                + hex(sha256(canonicalRequest));
+        byte[] signingKey = hmac(hmac(hmac(hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8),
+                amzDate.substring(0, 8)), region), "s3"), "aws4_request");
+        return hex(hmac(signingKey, stringToSign));
+    }
+
+    private static String scope(String amzDate, String region) {
+        return amzDate.substring(0, 8) + "/" + region + "/s3/aws4_request";
+    }
+
+    /** URI-encodes a key the way SigV4 expects: everything but unreserved characters and '/'. */
+    static String encodePath(String path) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || c == '/') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    // ── Resource view ────────────────────────────────────────────────────────
+
+    /**
+     * An object as a {@link Resource}. Its streams are opened lazily: a skip before the first read
+     * (which is how byte ranges are served) becomes the start of a ranged GET instead of downloading
+     * and discarding the skipped bytes.
+     */
+    private final class ObjectResource extends AbstractResource {
+
+        private final String key;
+        private final BlobInfo info;
+
+        private ObjectResource(String key, BlobInfo info) {
+            this.key = key;
+            this.info = info;
+        }
+
+        @Override
+        public String getDescription() {
+            return "S3 object [" + properties.bucket() + "/" + prefix + key + "]";
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return info.size();
+        }
+
+        @Override
+        public long lastModified() {
+            return info.lastModified().toEpochMilli();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long offset;
+                private InputStream delegate;
+
+                @Override
+                public long skip(long n) throws IOException {
+                    if (delegate != null) {
+                        return delegate.skip(n);
+                    }
+                    long skipped = Math.max(0, Math.min(n, info.size() - offset));
+                    offset += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public int read() throws IOException {
+                    return delegate().read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return delegate().read(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (delegate != null) {
+                        delegate.close();
+                    }
+                }
+
+                private InputStream delegate() throws IOException {
+                    if (delegate == null) {
+                        delegate = openFrom(key, offset);
+                    }
+                    return delegate;
+                }
+            };
+        }
+    }
+}
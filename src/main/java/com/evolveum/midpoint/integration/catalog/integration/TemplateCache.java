@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import com.evolveum.midpoint.integration.catalog.configuration.TemplateCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Local cache of connector scaffolding templates (GitHub and GitLab template repositories).
+ * <p>
+ * A template is fetched from its remote once per tag and stored on disk as a content-addressed
+ * blob set: {@code blobs/<aa>/<sha-256>} holds each distinct file content once, and
+ * {@code manifests/<sha-256 of source@tag>} lists {@code <sha-256>\t<path>} per file. The manifest is
+ * written last, so an interrupted fetch is simply repeated. Tags are treated as immutable; a moved
+ * tag needs a new tag name (or the manifest deleted) to be picked up.
+ */
+@Slf4j
+@Component
+public class TemplateCache {
+
+    /** Fetches all files of a template at a given tag, keyed by repository-relative path. */
+    @FunctionalInterface
+    public interface TemplateFetcher {
+        Map<String, byte[]> fetch() throws Exception;
+    }
+
+    private final Path basePath;
+    private final Path blobsPath;
+    private final Path manifestsPath;
+    /** Manifests already read or written by this instance: path to blob hash, per source@tag. */
+    private final ConcurrentMap<String, Map<String, String>> manifests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> fetchLocks = new ConcurrentHashMap<>();
+
+    public TemplateCache(TemplateCacheProperties properties) {
+        this.basePath = Paths.get(properties.basePath()).toAbsolutePath().normalize();
+        this.blobsPath = basePath.resolve("blobs");
+        this.manifestsPath = basePath.resolve("manifests");
+        try {
+            Files.createDirectories(blobsPath);
+            Files.createDirectories(manifestsPath);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create template cache directory: " + basePath, e);
+        }
+        log.info("Template cache base path resolved to: {}", basePath);
+    }
+
+    /**
+     * Returns the files of {@code source} at {@code tag} (sorted by path), calling {@code fetcher}
+     * only when the template is not cached yet. Concurrent requests for the same template wait for
+     * a single fetch.
+     */
+    public Map<String, byte[]> files(String source, String tag, TemplateFetcher fetcher) throws Exception {
+        String key = source + "@" + tag;
+        Map<String, byte[]> files = readCached(key);
+        if (files != null) {
+            return files;
+        }
+        synchronized (fetchLocks.computeIfAbsent(key, k -> new Object())) {
+            files = readCached(key);
+            if (files != null) {
+                return files;
+            }
+            Map<String, byte[]> fetched = new TreeMap<>(fetcher.fetch());
+            store(key, fetched);
+            log.info("Cached template {} ({} files)", key, fetched.size());
+            return Collections.unmodifiableMap(fetched);
+        }
+    }
+
+    /**
+     * Reads a repository archive (GitHub and GitLab both serve ZIPs with a single
+     * {@code <project>-<ref>[-<sha>]/} top-level folder) into path to content, dropping that folder.
+     */
+    public static Map<String, byte[]> unzipRepositoryArchive(InputStream archive) throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName();
+                int slash = name.indexOf('/');
+                String path = slash >= 0 ? name.substring(slash + 1) : name;
+                if (!path.isEmpty()) {
+                    files.put(path, zip.readAllBytes());
+                }
+            }
+        }
+        return files;
+    }
+
+    private Map<String, byte[]> readCached(String key) throws IOException {
+        Map<String, String> manifest = manifests.get(key);
+        if (manifest == null) {
+            manifest = readManifest(key);
+            if (manifest == null) {
+                return null;
+            }
+            manifests.putIfAbsent(key, manifest);
+        }
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            try {
+                files.put(entry.getKey(), Files.readAllBytes(blobPath(entry.getValue())));
+            } catch (NoSuchFileException e) {
+                log.warn("Blob {} of cached template {} is missing, fetching the template again", entry.getValue(), key);
+                manifests.remove(key);
+                return null;
+            }
+        }
+        return Collections.unmodifiableMap(files);
+    }
+
+    private Map<String, String> readManifest(String key) throws IOException {
+        Path file = manifestsPath.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)));
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Map<String, String> manifest = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                manifest.put(line.substring(tab + 1), line.substring(0, tab));
+            }
+        }
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    private void store(String key, Map<String, byte[]> files) throws IOException {
+        Map<String, String> manifest = new LinkedHashMap<>();
+        List<String> lines = new ArrayList<>(files.size());
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            String hash = sha256(entry.getValue());
+            Path blob = blobPath(hash);
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                writeAtomically(blob, entry.getValue());
+            }
+            manifest.put(entry.getKey(), hash);
+            lines.add(hash + "\t" + entry.getKey());
+        }
+        writeAtomically(manifestsPath.resolve(sha256(key.getBytes(StandardCharsets.UTF_8))),
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        manifests.put(key, Collections.unmodifiableMap(manifest));
+    }
+
+    private Path blobPath(String hash) {
+        return blobsPath.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), ".tmp-", null);
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
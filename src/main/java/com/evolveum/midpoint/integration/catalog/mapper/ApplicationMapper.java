@@ -12,32 +12,67 @@ import com.evolveum.midpoint.integration.catalog.repository.CatalogUserRepositor
 import com.evolveum.midpoint.integration.catalog.repository.DownloadRepository;
 import com.evolveum.midpoint.integration.catalog.repository.MidpointVersionRepository;
 import com.evolveum.midpoint.integration.catalog.repository.RequestRepository;
-import com.evolveum.midpoint.integration.catalog.repository.VoteRepository;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 @Component
 public class ApplicationMapper {
 
     private final RequestRepository requestRepository;
-    private final VoteRepository voteRepository;
     private final DownloadRepository downloadRepository;
     private final CatalogUserRepository catalogUserRepository;
     private final MidpointVersionRepository midpointVersionRepository;
 
-    public ApplicationMapper(RequestRepository requestRepository, VoteRepository voteRepository,
+    public ApplicationMapper(RequestRepository requestRepository,
                              DownloadRepository downloadRepository, CatalogUserRepository catalogUserRepository,
                              MidpointVersionRepository midpointVersionRepository) {
         this.requestRepository = requestRepository;
-        this.voteRepository = voteRepository;
         this.downloadRepository = downloadRepository;
         this.catalogUserRepository = catalogUserRepository;
         this.midpointVersionRepository = midpointVersionRepository;
     }
 
+    // ── Catalog-user resolution ───────────────────────────────────────────────
+
+    /**
+     * Resolves the authors of every integration method of the given applications with a single
+     * query. Callers mapping a list or page resolve once up front and pass the lookup to each
+     * per-application mapping call, so the query count does not grow with the number of methods.
+     */
+    public CatalogUserLookup resolveAuthors(Collection<Application> apps) {
+        return resolveUsers(apps.stream()
+                .filter(app -> app.getIntegrationMethods() != null)
+                .flatMap(app -> app.getIntegrationMethods().stream())
+                .map(IntegrationMethod::getAuthor));
+    }
+
+    /** Resolves the maintainers of every connector linked to the given integration methods with a single query. */
+    public CatalogUserLookup resolveConnectorMaintainers(Collection<IntegrationMethod> methods) {
+        return resolveUsers(methods.stream()
+                .filter(Objects::nonNull)
+                .flatMap(m -> m.getConnectors().stream())
+                .map(IntegrationMethodConnector::getConnector)
+                .filter(Objects::nonNull)
+                .map(Connector::getMaintainer));
+    }
+
+    private CatalogUserLookup resolveUsers(Stream<String> usernames) {
+        Set<String> distinct = usernames
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (distinct.isEmpty()) {
+            return new CatalogUserLookup(Map.of());
+        }
+        Map<String, CatalogUser> users = new HashMap<>();
+        for (CatalogUser user : catalogUserRepository.findWithOrganizationByUsernameIn(distinct)) {
+            users.put(user.getUsername(), user);
+        }
+        return new CatalogUserLookup(users);
+    }
+
     // ── Tag helpers ───────────────────────────────────────────────────────────
 
     public List<ApplicationTagDto> filterTagsByType(Application app, ApplicationTag.ApplicationTagType tagType) {
@@ -72,6 +107,10 @@ public class ApplicationMapper {
      * Capabilities are collected from IntegrationMethodCapability → items → Capability.
      */
     public List<IntegrationMethodDto> mapIntegrationMethods(Application app) {
+        return mapIntegrationMethods(app, resolveAuthors(List.of(app)));
+    }
+
+    public List<IntegrationMethodDto> mapIntegrationMethods(Application app, CatalogUserLookup users) {
         if (app.getIntegrationMethods() == null) return null;
 
         return app.getIntegrationMethods().stream()
@@ -83,13 +122,10 @@ public class ApplicationMapper {
                     // Author's organization drives the org-mate access checks; an
                     // IndividualContributor's uploads stay personal even when they belong
                     // to an organization, so the org is only exposed for org contributors.
-                    Integer organizationId = null;
-                    if (method.getAuthor() != null) {
-                        organizationId = catalogUserRepository.findByUsername(method.getAuthor())
-                                .filter(u -> "OrganizationContributor".equals(u.getRole()))
-                                .map(u -> u.getOrganization() != null ? u.getOrganization().getId() : null)
-                                .orElse(null);
-                    }
+                    Integer organizationId = users.find(method.getAuthor())
+                            .filter(u -> "OrganizationContributor".equals(u.getRole()))
+                            .map(u -> u.getOrganization() != null ? u.getOrganization().getId() : null)
+                            .orElse(null);
 
                     // Connector info from first linked connector
                     String connectorVersion = null;
@@ -209,7 +245,8 @@ public class ApplicationMapper {
                             method.getMaintainer(),
                             method.getCreatedAt() != null ? method.getCreatedAt().toLocalDate() : null,
                             method.getUpdated() != null ? method.getUpdated().toLocalDate() : null,
-                            includedConnectors
+                            includedConnectors,
+                            eTagOf(method.getRowVersion())
                     );
                 })
                 .toList();
@@ -226,6 +263,23 @@ public class ApplicationMapper {
                 .toList();
     }
 
+    private void addCapabilities(IntegrationMethod method, EnumSet<CapabilityType> capabilitySet,
+                                 Set<String> otherCapabilities) {
+        if (method.getCapabilities() == null) return;
+        for (IntegrationMethodCapability cap : method.getCapabilities()) {
+            if (cap.getItems() == null) continue;
+            for (IntegrationMethodCapabilityItem item : cap.getItems()) {
+                if (item.getCapability() == null || item.getCapability().getName() == null) continue;
+                CapabilityType type = CapabilityType.fromName(item.getCapability().getName());
+                if (type != null) {
+                    capabilitySet.add(type);
+                } else {
+                    otherCapabilities.add(item.getCapability().getName());
+                }
+            }
+        }
+    }
+
     public List<String> extractFrameworks(Application app) {
         if (app.getIntegrationMethods() == null || app.getIntegrationMethods().isEmpty()) return null;
         return app.getIntegrationMethods().stream()
@@ -251,37 +305,45 @@ public class ApplicationMapper {
             Optional<Request> requestOpt = requestRepository.findByApplicationId(app.getId());
             if (requestOpt.isPresent()) {
                 Request request = requestOpt.get();
-                objectClassCapabilities = request.getObjectClassCapabilities().stream()
-                        .filter(occ -> occ.getCapabilities() != null && occ.getCapabilities().length > 0)
-                        .map(occ -> new ObjectClassCapabilityDto(
-                                occ.getObjectName(),
-                                Arrays.stream(occ.getCapabilities()).map(Enum::name).toList()
-                        ))
-                        .toList();
-                capabilities = objectClassCapabilities.stream()
-                        .flatMap(occ -> occ.capabilities().stream())
-                        .distinct()
-                        .collect(java.util.stream.Collectors.toList());
+                EnumSet<CapabilityType> union = EnumSet.noneOf(CapabilityType.class);
+                objectClassCapabilities = new ArrayList<>();
+                for (ObjectClassCapabilities occ : request.getObjectClassCapabilities()) {
+                    if (occ.getCapabilities() == null || occ.getCapabilities().isEmpty()) {
+                        continue;
+                    }
+                    objectClassCapabilities.add(new ObjectClassCapabilityDto(
+                            occ.getObjectName(), CapabilityType.names(occ.getCapabilities())));
+                    union.addAll(occ.getCapabilities());
+                }
+                capabilities = CapabilityType.names(union);
                 requester = request.getRequester();
                 requestId = request.getId();
-                voteCount = voteRepository.countByRequestId(requestId);
+                voteCount = request.getVoteCount();
             }
         }
-        return mapToApplicationDto(app, capabilities, requester, requestId, voteCount, objectClassCapabilities);
+        return mapToApplicationDto(app, capabilities, requester, requestId, voteCount, objectClassCapabilities,
+                resolveAuthors(List.of(app)));
     }
 
     public ApplicationDto mapToApplicationDto(Application app, List<String> capabilities, String requester,
                                                Long requestId, Long voteCount) {
-        return mapToApplicationDto(app, capabilities, requester, requestId, voteCount, null);
+        return mapToApplicationDto(app, capabilities, requester, requestId, voteCount, null,
+                resolveAuthors(List.of(app)));
+    }
+
+    public ApplicationDto mapToApplicationDto(Application app, List<String> capabilities, String requester,
+                                               Long requestId, Long voteCount, CatalogUserLookup users) {
+        return mapToApplicationDto(app, capabilities, requester, requestId, voteCount, null, users);
     }
 
     public ApplicationDto mapToApplicationDto(Application app, List<String> capabilities, String requester,
                                                Long requestId, Long voteCount,
-                                               List<ObjectClassCapabilityDto> objectClassCapabilities) {
+                                               List<ObjectClassCapabilityDto> objectClassCapabilities,
+                                               CatalogUserLookup users) {
         List<CountryOfOriginDto> origins = mapOrigins(app);
         List<ApplicationTagDto> categories = filterTagsByType(app, ApplicationTag.ApplicationTagType.CATEGORY);
         List<ApplicationTagDto> tags = mapAllTags(app);
-        List<IntegrationMethodDto> integrationMethods = mapIntegrationMethods(app);
+        List<IntegrationMethodDto> integrationMethods = mapIntegrationMethods(app, users);
         List<String> frameworks = extractFrameworks(app);
         String lifecycleState = app.getLifecycleState() != null ? app.getLifecycleState().name() : null;
 
@@ -309,6 +371,10 @@ public class ApplicationMapper {
     // ── ApplicationCardDto mapping ────────────────────────────────────────────
 
     public ApplicationCardDto toCardDto(Application app) {
+        return toCardDto(app, resolveAuthors(List.of(app)));
+    }
+
+    public ApplicationCardDto toCardDto(Application app, CatalogUserLookup users) {
         String lifecycleState = app.getLifecycleState() != null ? app.getLifecycleState().name() : null;
         List<CountryOfOriginDto> origins = mapOrigins(app);
 
@@ -331,29 +397,32 @@ public class ApplicationMapper {
 
         Long requestId = null;
         Long voteCount = null;
-        List<String> capabilities = new ArrayList<>();
+        EnumSet<CapabilityType> capabilitySet = EnumSet.noneOf(CapabilityType.class);
+        // capability rows without a CapabilityType constant, if any
+        Set<String> otherCapabilities = new LinkedHashSet<>();
 
         if (app.getLifecycleState() == Application.ApplicationLifecycleType.REQUESTED) {
             Optional<Request> requestOpt = requestRepository.findByApplicationId(app.getId());
             if (requestOpt.isPresent()) {
                 Request request = requestOpt.get();
                 requestId = request.getId();
-                voteCount = voteRepository.countByRequestId(request.getId());
-                request.getObjectClassCapabilities().stream()
-                        .filter(occ -> occ.getCapabilities() != null)
-                        .flatMap(occ -> Arrays.stream(occ.getCapabilities()))
-                        .map(Enum::name)
-                        .forEach(capabilities::add);
+                voteCount = request.getVoteCount();
+                for (ObjectClassCapabilities occ : request.getObjectClassCapabilities()) {
+                    if (occ.getCapabilities() != null) {
+                        capabilitySet.addAll(occ.getCapabilities());
+                    }
+                }
             }
         }
 
         // Collect capabilities from integration methods
         if (app.getIntegrationMethods() != null) {
-            app.getIntegrationMethods().stream()
-                    .flatMap(m -> collectCapabilities(m) != null ? collectCapabilities(m).stream() : Stream.empty())
-                    .filter(cap -> !capabilities.contains(cap))
-                    .forEach(capabilities::add);
+            for (IntegrationMethod method : app.getIntegrationMethods()) {
+                addCapabilities(method, capabilitySet, otherCapabilities);
+            }
         }
+        List<String> capabilities = CapabilityType.names(capabilitySet);
+        capabilities.addAll(otherCapabilities);
 
         List<String> frameworks = extractFrameworks(app);
 
@@ -433,7 +502,7 @@ public class ApplicationMapper {
             maintainers = app.getIntegrationMethods().stream()
                     .map(IntegrationMethod::getAuthor)
                     .filter(username -> username != null)
-                    .map(this::maintainerCategoryForUser)
+                    .map(username -> maintainerCategoryForUser(users, username))
                     .filter(category -> category != null)
                     .distinct()
                     .toList();
@@ -463,8 +532,8 @@ public class ApplicationMapper {
     }
 
     /** Maps an integration method's maintainer username to its maintainer category. */
-    private String maintainerCategoryForUser(String username) {
-        return catalogUserRepository.findByUsername(username)
+    private String maintainerCategoryForUser(CatalogUserLookup users, String username) {
+        return users.find(username)
                 .map(CatalogUser::getRole)
                 .map(ApplicationMapper::roleToMaintainerCategory)
                 .orElse(null);
@@ -489,11 +558,16 @@ public class ApplicationMapper {
     // ── IntegrationMethod list item ───────────────────────────────────────────
 
     public ImplementationListItemDto mapToIntegrationMethodListItemDto(IntegrationMethod method) {
+        if (method == null) return null;
+        return mapToIntegrationMethodListItemDto(method, resolveConnectorMaintainers(List.of(method)));
+    }
+
+    public ImplementationListItemDto mapToIntegrationMethodListItemDto(IntegrationMethod method, CatalogUserLookup users) {
         if (method == null) return null;
         IntegrationMethodConnector link = method.getConnectors().isEmpty()
                 ? null
                 : method.getConnectors().get(0);
-        return buildIntegrationMethodListItem(method, link);
+        return buildIntegrationMethodListItem(method, link, users);
     }
 
     /**
@@ -502,13 +576,15 @@ public class ApplicationMapper {
      */
     public List<ImplementationListItemDto> mapConnectorsForMethod(IntegrationMethod method) {
         if (method == null) return List.of();
+        CatalogUserLookup users = resolveConnectorMaintainers(List.of(method));
         return method.getConnectors().stream()
                 .filter(link -> link.getConnector() != null)
-                .map(link -> buildIntegrationMethodListItem(method, link))
+                .map(link -> buildIntegrationMethodListItem(method, link, users))
                 .toList();
     }
 
-    private ImplementationListItemDto buildIntegrationMethodListItem(IntegrationMethod method, IntegrationMethodConnector link) {
+    private ImplementationListItemDto buildIntegrationMethodListItem(IntegrationMethod method, IntegrationMethodConnector link,
+                                                                     CatalogUserLookup users) {
         Connector connector = link != null ? link.getConnector() : null;
         String connectorMinVersion = link != null ? link.getConnectorMinVersion() : null;
         String connectorMaxVersion = link != null ? link.getConnectorMaxVersion() : null;
@@ -566,11 +642,10 @@ public class ApplicationMapper {
         // (e.g. it is an organization itself), has no organization, or is an individual
         // contributor — an IndividualContributor who belongs to an organization still publishes
         // and is displayed as themselves, without the organization.
-        String maintainerOrganization = maintainer == null ? null
-                : catalogUserRepository.findByUsername(maintainer)
-                        .filter(u -> "OrganizationContributor".equals(u.getRole()))
-                        .map(u -> u.getOrganization() != null ? u.getOrganization().getName() : null)
-                        .orElse(null);
+        String maintainerOrganization = users.find(maintainer)
+                .filter(u -> "OrganizationContributor".equals(u.getRole()))
+                .map(u -> u.getOrganization() != null ? u.getOrganization().getName() : null)
+                .orElse(null);
 
         return new ImplementationListItemDto(
                 method.getId(),
@@ -596,10 +671,16 @@ public class ApplicationMapper {
                 commitTag,
                 objectClassCapabilities,
                 connectorMinVersion,
-                connectorMaxVersion
+                connectorMaxVersion,
+                connector != null ? eTagOf(connector.getRowVersion()) : null
         );
     }
 
+    /** Entity tag of a versioned row, as clients send it back in If-Match. */
+    private static String eTagOf(long rowVersion) {
+        return "\"" + rowVersion + "\"";
+    }
+
     /**
      * Collects the object-class capabilities of the connector's first connector version,
      * grouped by object class, so the edit form can pre-fill the capability picker.
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.mapper;
+
+import com.evolveum.midpoint.integration.catalog.object.CatalogUser;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Catalog users (with their organization) resolved up front for one mapping call.
+ * <p>
+ * {@link ApplicationMapper} collects every author/maintainer username of the page it is about
+ * to map, loads them with one query and serves all per-method and per-connector user lookups
+ * from this map. Lives only as long as that call, so it never serves stale role or organization data.
+ */
+public final class CatalogUserLookup {
+
+    private final Map<String, CatalogUser> usersByUsername;
+
+    CatalogUserLookup(Map<String, CatalogUser> usersByUsername) {
+        this.usersByUsername = usersByUsername;
+    }
+
+    public Optional<CatalogUser> find(String username) {
+        return username == null ? Optional.empty() : Optional.ofNullable(usersByUsername.get(username));
+    }
+}
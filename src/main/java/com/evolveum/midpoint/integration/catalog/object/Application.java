@@ -52,6 +52,10 @@ public class Application {
     @Column(name = "logo_path")
     private String logoPath;
 
+    /** SHA-256 of the logo content (hex); the logo's ETag. */
+    @Column(name = "logo_hash")
+    private String logoHash;
+
     @Enumerated(EnumType.STRING)
     @JdbcType(value = PostgreSQLEnumJdbcType.class)
     @Column(name = "lifecycle_state", columnDefinition = "applicationLifecycleType")
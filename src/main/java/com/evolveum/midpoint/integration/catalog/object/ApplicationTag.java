@@ -9,6 +9,8 @@ package com.evolveum.midpoint.integration.catalog.object;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcType;
 import org.hibernate.dialect.type.PostgreSQLEnumJdbcType;
 
@@ -19,6 +21,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "application_tag")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter
 public class ApplicationTag {
 
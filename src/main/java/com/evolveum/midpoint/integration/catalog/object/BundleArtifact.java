@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.object;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A connector artifact cached in the bundle blob store, named by the SHA-256 of its artifact URL.
+ * {@code refCount} is maintained by a database trigger on {@code connector_bundle_version.artifact_url};
+ * artifacts that drop to zero are collected by {@code BundleService}.
+ */
+@Entity
+@Table(name = "bundle_artifact")
+@Getter @Setter
+@Accessors(chain = true)
+public class BundleArtifact {
+
+    @Id
+    @Column(name = "url_hash", length = 64)
+    private String urlHash;
+
+    @Column(name = "ref_count", insertable = false, updatable = false)
+    private int refCount;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
@@ -6,6 +6,16 @@
 
 package com.evolveum.midpoint.integration.catalog.object;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Connector capability. Sets of capabilities are kept as {@link java.util.EnumSet}s (a single
+ * {@code long} bitmask), so unions and intersections are plain bitwise operations.
+ */
 public enum CapabilityType {
     CREATE(false),
     GET(false),
@@ -27,6 +37,14 @@ public enum CapabilityType {
     UPDATE_DELTA(false);
 
 
+    private static final Map<String, CapabilityType> BY_NAME = new HashMap<>();
+
+    static {
+        for (CapabilityType type : values()) {
+            BY_NAME.put(type.name(), type);
+        }
+    }
+
     private final boolean isGlobal;
     CapabilityType(boolean isGlobal) {
 
@@ -36,4 +54,18 @@ public enum CapabilityType {
     public boolean isGlobal() {
         return isGlobal;
     }
+
+    /** The constant with the given name, or {@code null} when there is none (no exception, unlike valueOf). */
+    public static CapabilityType fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /** Names of the constants in the set, in declaration order. */
+    public static List<String> names(Set<CapabilityType> types) {
+        List<String> names = new ArrayList<>(types.size());
+        for (CapabilityType type : types) {
+            names.add(type.name());
+        }
+        return names;
+    }
 }
@@ -21,7 +21,8 @@ import java.util.List;
 public class ConnVersionCapability {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conn_version_capability_seq")
+    @SequenceGenerator(name = "conn_version_capability_seq", sequenceName = "conn_version_capability_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "object_class", nullable = false)
@@ -43,6 +43,11 @@ public class Connector {
     @Column(name = "display_name")
     private String displayName;
 
+    /** Optimistic-locking version, exposed to clients as the connector's ETag. */
+    @Version
+    @Column(name = "row_version", nullable = false)
+    private long rowVersion;
+
     @Column(name = "fully_qualified_class_name")
     private String fullyQualifiedClassName;
 
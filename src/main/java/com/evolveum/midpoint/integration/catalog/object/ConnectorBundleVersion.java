@@ -30,7 +30,7 @@ public class ConnectorBundleVersion implements Persistable<Integer> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "connector_bundle_version_seq")
-    @SequenceGenerator(name = "connector_bundle_version_seq", sequenceName = "connector_bundle_version_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "connector_bundle_version_seq", sequenceName = "connector_bundle_version_id_seq", allocationSize = 50)
     private Integer id;
 
     @Id
@@ -57,6 +57,10 @@ public class ConnectorBundleVersion implements Persistable<Integer> {
     @Column(nullable = false)
     private LocalDateTime updated;
 
+    @Version
+    @Column(name = "row_version", nullable = false)
+    private long rowVersion;
+
     @Enumerated(EnumType.STRING)
     @JdbcType(value = PostgreSQLEnumJdbcType.class)
     @Column(name = "lifecycle_state", columnDefinition = "LifecycleType", nullable = false)
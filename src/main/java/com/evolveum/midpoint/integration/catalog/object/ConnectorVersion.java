@@ -30,7 +30,7 @@ public class ConnectorVersion implements Persistable<Integer> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "connector_version_seq")
-    @SequenceGenerator(name = "connector_version_seq", sequenceName = "connector_version_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "connector_version_seq", sequenceName = "connector_version_id_seq", allocationSize = 50)
     private Integer id;
 
     @Id
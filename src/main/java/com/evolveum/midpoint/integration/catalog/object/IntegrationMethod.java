@@ -118,6 +118,11 @@ public class IntegrationMethod implements Persistable<UUID> {
     @Column(name = "reviewed_by")
     private String reviewedBy;
 
+    /** Optimistic-locking version, exposed to clients as the revision's ETag. */
+    @Version
+    @Column(name = "row_version", nullable = false)
+    private long rowVersion;
+
     @OneToMany(mappedBy = "integrationMethod", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<IntegrationMethodCapability> capabilities = new ArrayList<>();
 
@@ -21,7 +21,8 @@ import java.util.List;
 public class IntegrationMethodCapability {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "integration_method_capability_seq")
+    @SequenceGenerator(name = "integration_method_capability_seq", sequenceName = "integration_method_capability_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "object_class", nullable = false)
@@ -13,6 +13,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnTransformer;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Entity
 @Table(name = "object_class_capabilities")
 @Getter @Setter
@@ -34,5 +37,5 @@ public class ObjectClassCapabilities {
     @Convert(converter = CapabilitiesArrayConverter.class)
     @ColumnTransformer(write = "?::\"CapabilityType\"[]")
     @Column(name = "capabilities")
-    private CapabilityType[] capabilities;
+    private Set<CapabilityType> capabilities = EnumSet.noneOf(CapabilityType.class);
 }
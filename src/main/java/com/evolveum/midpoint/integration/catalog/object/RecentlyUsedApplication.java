@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
@@ -28,4 +29,7 @@ public class RecentlyUsedApplication {
 
     @Column(name = "application_id", nullable = false)
     private UUID applicationId;
+
+    @Column(name = "used_at", nullable = false)
+    private OffsetDateTime usedAt;
 }
@@ -6,6 +6,7 @@
 
 package com.evolveum.midpoint.integration.catalog.object;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -53,8 +54,16 @@ public class Request {
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, orphanRemoval = false)
     private List<Vote> votes = new ArrayList<>();
 
+    /**
+     * Number of votes, maintained in SQL by {@code VoteRepository.insertVoteAndIncrementCount}
+     * (never written through the entity). Exposed in JSON as {@code votesCount}.
+     */
+    @JsonIgnore
+    @Column(name = "vote_count", nullable = false, insertable = false, updatable = false)
+    private long voteCount;
+
     @Transient
     public long getVotesCount() {
-        return votes == null ? 0 : votes.size();
+        return voteCount;
     }
 }
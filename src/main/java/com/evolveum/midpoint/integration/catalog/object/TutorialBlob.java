@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.object;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Tutorial file content stored once, named by its SHA-256. {@code refCount} is maintained by a
+ * database trigger on {@code tutorial_file}; blobs that drop to zero are collected by
+ * {@code TutorialStorageService}.
+ */
+@Entity
+@Table(name = "tutorial_blob")
+@Getter @Setter
+@Accessors(chain = true)
+public class TutorialBlob {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", insertable = false, updatable = false)
+    private int refCount;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.object;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of an integration method revision's tutorial manifest: a file name and the blob holding
+ * its content, with the size, content type and modification time needed to list and serve it.
+ * Revisions sharing files share blobs.
+ */
+@Entity
+@Table(name = "tutorial_file")
+@IdClass(TutorialFileId.class)
+@Getter @Setter
+@Accessors(chain = true)
+public class TutorialFile {
+
+    @Id
+    @Column(name = "integ_method_id")
+    private UUID integMethodId;
+
+    @Id
+    @Column(name = "integ_method_revision")
+    private String integMethodRevision;
+
+    @Id
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "blob_hash", nullable = false, length = 64)
+    private String blobHash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
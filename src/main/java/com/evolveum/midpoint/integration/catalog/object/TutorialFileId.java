@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.object;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+public class TutorialFileId implements Serializable {
+
+    private UUID integMethodId;
+    private String integMethodRevision;
+    private String fileName;
+
+    public TutorialFileId() {}
+
+    public TutorialFileId(UUID integMethodId, String integMethodRevision, String fileName) {
+        this.integMethodId = integMethodId;
+        this.integMethodRevision = integMethodRevision;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TutorialFileId that)) return false;
+        return Objects.equals(integMethodId, that.integMethodId)
+                && Objects.equals(integMethodRevision, that.integMethodRevision)
+                && Objects.equals(fileName, that.fileName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(integMethodId, integMethodRevision, fileName);
+    }
+}
@@ -11,6 +11,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,4 +25,12 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>,
     Optional<Application> findByName(String name);
     Page<Application> findByNameContainingIgnoreCase(String q, Pageable pageable);
     List<Application> findByLifecycleState(Application.ApplicationLifecycleType lifecycleState);
+
+    List<Application> findByLogoPathIsNotNullAndLogoHashIsNull();
+
+    /** Sets the logo hash unless the logo was replaced in the meantime; leaves {@code updated} alone. */
+    @Modifying
+    @Transactional
+    @Query("update Application a set a.logoHash = :logoHash where a.id = :id and a.logoPath = :logoPath")
+    int updateLogoHash(@Param("id") UUID id, @Param("logoPath") String logoPath, @Param("logoHash") String logoHash);
 }
@@ -7,8 +7,11 @@
 package com.evolveum.midpoint.integration.catalog.repository;
 
 import com.evolveum.midpoint.integration.catalog.object.ApplicationTag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,7 +19,13 @@ import java.util.Optional;
 public interface ApplicationTagRepository extends JpaRepository<ApplicationTag, Long>,
         JpaSpecificationExecutor<ApplicationTag> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<ApplicationTag> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ApplicationTag> findByTagType(ApplicationTag.ApplicationTagType tagType);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ApplicationTag> findByNameAndTagType(String name, ApplicationTag.ApplicationTagType tagType);
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.repository;
+
+import com.evolveum.midpoint.integration.catalog.object.BundleArtifact;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BundleArtifactRepository extends JpaRepository<BundleArtifact, String> {
+
+    /**
+     * Registers the artifact, or locks its row when it is already known, so that garbage collection
+     * cannot remove it until the caller's transaction has stored it.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bundle_artifact"))
+    @Query(value = """
+            insert into bundle_artifact (url_hash)
+            values (:urlHash)
+            on conflict (url_hash) do update set url_hash = excluded.url_hash
+            """, nativeQuery = true)
+    int register(@Param("urlHash") String urlHash);
+
+    @Query(value = "select url_hash from bundle_artifact where ref_count <= 0", nativeQuery = true)
+    List<String> findUnreferencedHashes();
+
+    /** @return 1 when the artifact was removed, 0 when it is referenced again (or already gone) */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bundle_artifact"))
+    @Query(value = "delete from bundle_artifact where url_hash = :urlHash and ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("urlHash") String urlHash);
+}
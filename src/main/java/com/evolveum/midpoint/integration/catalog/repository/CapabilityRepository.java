@@ -7,13 +7,41 @@
 package com.evolveum.midpoint.integration.catalog.repository;
 
 import com.evolveum.midpoint.integration.catalog.object.Capability;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CapabilityRepository extends JpaRepository<Capability, Integer>,
         JpaSpecificationExecutor<Capability> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Capability> findAll();
+
     Optional<Capability> findByName(String name);
+
+    /**
+     * Inserts the capability unless one with the name exists; safe against a concurrent insert of the
+     * same name (unique index uq_capability_name).
+     *
+     * @return 1 when inserted, 0 when it already existed
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "capability"))
+    @Query(value = """
+            insert into capability (name, globality)
+            values (:name, cast(:globality as GlobalityType))
+            on conflict (name) do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("globality") String globality);
 }
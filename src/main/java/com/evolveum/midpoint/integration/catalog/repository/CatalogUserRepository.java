@@ -8,7 +8,12 @@ package com.evolveum.midpoint.integration.catalog.repository;
 
 import com.evolveum.midpoint.integration.catalog.object.CatalogUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,23 @@ public interface CatalogUserRepository extends JpaRepository<CatalogUser, String
     Optional<CatalogUser> findByUsername(String username);
 
     List<CatalogUser> findByOrganizationId(Integer organizationId);
+
+    /**
+     * Loads the given users together with their organization in a single query, so mapping
+     * a page of methods/connectors does not issue one user (and one organization) lookup per row.
+     * Usernames that do not resolve to a catalog user are simply absent from the result.
+     */
+    @Query("select u from CatalogUser u left join fetch u.organization where u.username in :usernames")
+    List<CatalogUser> findWithOrganizationByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Replaces the stored password hash, but only if it is still {@code currentHash}: a concurrent
+     * password change is never overwritten by a rehash of the old password. Returns the rows updated.
+     */
+    @Modifying
+    @Transactional
+    @Query("update CatalogUser u set u.password = :newHash where u.username = :username and u.password = :currentHash")
+    int replacePasswordHash(@Param("username") String username,
+                            @Param("currentHash") String currentHash,
+                            @Param("newHash") String newHash);
 }
@@ -10,7 +10,12 @@ import com.evolveum.midpoint.integration.catalog.object.ConnectorBundle;
 import com.evolveum.midpoint.integration.catalog.object.LifecycleType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,7 +26,15 @@ public interface ConnectorBundleRepository extends JpaRepository<ConnectorBundle
 
     boolean existsByBundleName(String bundleName);
 
-    boolean existsByBundleNameAndRevision(String bundleName, String revision);
-
     List<ConnectorBundle> findByLifecycleState(LifecycleType lifecycleState);
+
+    /** Moves the given bundles that are in state {@code from} to state {@code to}. */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("""
+            update ConnectorBundle b set b.lifecycleState = :to, b.updated = local datetime
+            where b.id in :ids and b.lifecycleState = :from
+            """)
+    int transitionLifecycle(@Param("ids") Collection<Integer> ids, @Param("from") LifecycleType from,
+                            @Param("to") LifecycleType to);
 }
@@ -8,18 +8,65 @@ package com.evolveum.midpoint.integration.catalog.repository;
 
 import com.evolveum.midpoint.integration.catalog.object.ConnectorBundleVersion;
 import com.evolveum.midpoint.integration.catalog.object.ConnectorBundleVersionId;
+import com.evolveum.midpoint.integration.catalog.object.LifecycleType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ConnectorBundleVersionRepository extends JpaRepository<ConnectorBundleVersion, ConnectorBundleVersionId>,
         JpaSpecificationExecutor<ConnectorBundleVersion> {
 
+    /** Where the sources of a bundle version live, or why they could not be put there. */
+    interface RepositoryLinks {
+        String getGitCloneUrl();
+        String getBrowseLink();
+        String getErrorMessage();
+    }
+
     List<ConnectorBundleVersion> findByConnectorBundleId(Integer connectorBundleId);
 
     Optional<ConnectorBundleVersion> findByConnectorBundleIdAndBundleVersion(Integer connectorBundleId, String bundleVersion);
 
     boolean existsByConnectorBundleIdAndBundleVersion(Integer connectorBundleId, String bundleVersion);
+
+    @Query("""
+            select v.gitCloneUrl as gitCloneUrl, v.browseLink as browseLink, v.errorMessage as errorMessage
+            from ConnectorBundleVersion v where v.id = :id and v.revision = :revision
+            """)
+    Optional<RepositoryLinks> findRepositoryLinks(@Param("id") Integer id, @Param("revision") String revision);
+
+    /**
+     * Records where the provisioned sources live. These columns are system-owned, so the update leaves
+     * row_version alone and an editor's ETag of the version stays valid.
+     */
+    @Modifying
+    @Transactional
+    @Query("update ConnectorBundleVersion v set v.gitCloneUrl = :gitCloneUrl, v.browseLink = :browseLink "
+            + "where v.id = :id and v.revision = :revision")
+    int updateRepositoryLinks(@Param("id") Integer id, @Param("revision") String revision,
+                              @Param("gitCloneUrl") String gitCloneUrl, @Param("browseLink") String browseLink);
+
+    /** Moves the versions of the given bundles that are in state {@code from} to state {@code to}. */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("""
+            update versioned ConnectorBundleVersion v set v.lifecycleState = :to, v.updated = local datetime
+            where v.connectorBundle.id in :bundleIds and v.lifecycleState = :from
+            """)
+    int transitionLifecycleOfBundles(@Param("bundleIds") Collection<Integer> bundleIds,
+                                     @Param("from") LifecycleType from, @Param("to") LifecycleType to);
+
+    /** Records a provisioning or build failure; system-owned like the repository links, so not versioned. */
+    @Modifying
+    @Transactional
+    @Query("update ConnectorBundleVersion v set v.errorMessage = :errorMessage where v.id = :id and v.revision = :revision")
+    int updateErrorMessage(@Param("id") Integer id, @Param("revision") String revision,
+                           @Param("errorMessage") String errorMessage);
 }
@@ -11,9 +11,12 @@ import com.evolveum.midpoint.integration.catalog.object.ConnectorVersionId;
 import com.evolveum.midpoint.integration.catalog.object.LifecycleType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ConnectorVersionRepository extends JpaRepository<ConnectorVersion, ConnectorVersionId>,
@@ -53,4 +56,20 @@ public interface ConnectorVersionRepository extends JpaRepository<ConnectorVersi
                                    @Param("className") String className,
                                    @Param("version") String version,
                                    @Param("excludeConnectorId") Integer excludeConnectorId);
+
+    /** Moves the versions of the given connectors that are in state {@code from} to state {@code to}. */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("""
+            update ConnectorVersion cv set cv.lifecycleState = :to, cv.updated = local datetime
+            where cv.connector.id in :connectorIds and cv.lifecycleState = :from
+            """)
+    int transitionLifecycleOfConnectors(@Param("connectorIds") Collection<Integer> connectorIds,
+                                        @Param("from") LifecycleType from, @Param("to") LifecycleType to);
+
+    @Modifying
+    @Transactional
+    @Query("update ConnectorVersion cv set cv.errorMessage = :errorMessage where cv.id = :id and cv.revision = :revision")
+    int updateErrorMessage(@Param("id") Integer id, @Param("revision") String revision,
+                           @Param("errorMessage") String errorMessage);
 }
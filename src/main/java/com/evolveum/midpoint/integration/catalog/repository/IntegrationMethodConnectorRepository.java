@@ -8,9 +8,29 @@ package com.evolveum.midpoint.integration.catalog.repository;
 
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodConnector;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
 
 public interface IntegrationMethodConnectorRepository extends JpaRepository<IntegrationMethodConnector, Integer> {
 
+    /** A connector linked to a method revision, with the bundle it belongs to. */
+    interface LinkedConnector {
+        Integer getConnectorId();
+
+        Integer getBundleId();
+    }
+
     /** How many integration-method revisions link a given connector (i.e. whether it is shared). */
     long countByConnector_Id(Integer connectorId);
+
+    /** The connectors (and their bundles) linked to a method revision, without loading the entities. */
+    @Query("""
+            select c.id as connectorId, c.connectorBundle.id as bundleId
+            from IntegrationMethodConnector l join l.connector c
+            where l.integrationMethod.id = :id and l.integrationMethod.revision = :revision
+            """)
+    List<LinkedConnector> findLinkedConnectors(@Param("id") UUID id, @Param("revision") String revision);
 }
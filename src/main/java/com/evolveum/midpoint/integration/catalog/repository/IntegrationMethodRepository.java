@@ -25,4 +25,8 @@ public interface IntegrationMethodRepository extends JpaRepository<IntegrationMe
     Optional<IntegrationMethod> findFirstByIdOrderByCreatedAtDesc(UUID id);
     List<IntegrationMethod> findByLifecycleState(LifecycleType lifecycleState);
 
+    List<IntegrationMethod> findByIdAndLifecycleState(UUID id, LifecycleType lifecycleState);
+
+    List<IntegrationMethod> findByFilePath(String filePath);
+
 }
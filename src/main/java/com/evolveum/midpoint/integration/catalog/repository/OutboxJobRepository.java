@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.repository;
+
+import com.evolveum.midpoint.integration.catalog.object.OutboxJob;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface OutboxJobRepository extends JpaRepository<OutboxJob, Long> {
+
+    /**
+     * Inserts a PENDING job unless one with the same type and dedupe key is already pending or
+     * running. Joins the caller's transaction, so the job becomes visible only when it commits.
+     *
+     * @return 1 when the job was inserted, 0 when it was de-duplicated
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_job"))
+    @Query(value = """
+            insert into outbox_job (job_type, dedupe_key, payload)
+            values (:jobType, :dedupeKey, :payload)
+            on conflict (job_type, dedupe_key) where status in ('PENDING', 'RUNNING') do nothing
+            """, nativeQuery = true)
+    int enqueue(@Param("jobType") String jobType, @Param("dedupeKey") String dedupeKey,
+                @Param("payload") String payload);
+
+    /**
+     * Claims up to {@code limit} due jobs (and RUNNING jobs whose lease expired, i.e. whose worker
+     * died) for {@code leaseSeconds}. Concurrent dispatchers on other replicas skip the locked rows.
+     */
+    @Transactional
+    @Query(value = """
+            update outbox_job
+            set status = 'RUNNING', attempts = attempts + 1, updated_at = now(),
+                locked_until = now() + make_interval(secs => :leaseSeconds)
+            where id in (
+                select id from outbox_job
+                where (status = 'PENDING' and next_attempt_at <= now())
+                   or (status = 'RUNNING' and locked_until < now())
+                order by next_attempt_at, id
+                limit :limit
+                for update skip locked)
+            returning *
+            """, nativeQuery = true)
+    List<OutboxJob> claimDue(@Param("limit") int limit, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Marks the job DONE, provided it is still held by the claim that counted {@code attempts}. When
+     * the lease expired and another dispatcher claimed the job again, the attempt count has moved on
+     * (or the job is no longer RUNNING) and the late outcome is dropped; {@link #reschedule} and
+     * {@link #markFailed} check the claim the same way.
+     *
+     * @return 1 when the job was updated, 0 when the lease was lost
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_job"))
+    @Query(value = """
+            update outbox_job
+            set status = 'DONE', locked_until = null, last_error = null, updated_at = now()
+            where id = :id and status = 'RUNNING' and attempts = :attempts
+            """, nativeQuery = true)
+    int markDone(@Param("id") Long id, @Param("attempts") int attempts);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_job"))
+    @Query(value = """
+            update outbox_job
+            set status = 'PENDING', locked_until = null, next_attempt_at = :nextAttemptAt,
+                last_error = :error, updated_at = now()
+            where id = :id and status = 'RUNNING' and attempts = :attempts
+            """, nativeQuery = true)
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") OffsetDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_job"))
+    @Query(value = """
+            update outbox_job
+            set status = 'FAILED', locked_until = null, last_error = :error, updated_at = now()
+            where id = :id and status = 'RUNNING' and attempts = :attempts
+            """, nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+}
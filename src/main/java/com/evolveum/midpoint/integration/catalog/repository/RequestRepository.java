@@ -6,10 +6,14 @@
 
 package com.evolveum.midpoint.integration.catalog.repository;
 
+import com.evolveum.midpoint.integration.catalog.dto.VoteStatusDto;
 import com.evolveum.midpoint.integration.catalog.object.Request;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +26,27 @@ public interface RequestRepository extends JpaRepository<Request, Long>,
     boolean existsByApplicationId(UUID applicationId);
 
     long countById(Long id);
+
+    @Query("select r.voteCount from Request r where r.id = :id")
+    Optional<Long> findVoteCountById(@Param("id") Long id);
+
+    @Query("""
+            select new com.evolveum.midpoint.integration.catalog.dto.VoteStatusDto(
+                r.id, r.voteCount, case when count(v.voter) > 0 then true else false end)
+            from Request r left join r.votes v on v.voter = :voter
+            where r.id in :ids
+            group by r.id, r.voteCount
+            order by r.id
+            """)
+    List<VoteStatusDto> findVoteStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("voter") String voter);
+
+    @Query("""
+            select new com.evolveum.midpoint.integration.catalog.dto.VoteStatusDto(
+                r.id, r.voteCount, case when count(v.voter) > 0 then true else false end)
+            from Request r left join r.votes v on v.voter = :voter
+            where r.application.lifecycleState = com.evolveum.midpoint.integration.catalog.object.Application.ApplicationLifecycleType.REQUESTED
+            group by r.id, r.voteCount
+            order by r.id
+            """)
+    List<VoteStatusDto> findVoteStatusOfOpenRequests(@Param("voter") String voter);
 }
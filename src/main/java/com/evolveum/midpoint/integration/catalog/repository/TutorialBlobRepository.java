@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.repository;
+
+import com.evolveum.midpoint.integration.catalog.object.TutorialBlob;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface TutorialBlobRepository extends JpaRepository<TutorialBlob, String> {
+
+    /**
+     * Registers the blob, or locks its row when it is already known, so that garbage collection
+     * cannot remove it until the caller's transaction has referenced it.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_blob"))
+    @Query(value = """
+            insert into tutorial_blob (hash, size_bytes)
+            values (:hash, :size)
+            on conflict (hash) do update set size_bytes = excluded.size_bytes
+            """, nativeQuery = true)
+    int upsert(@Param("hash") String hash, @Param("size") long size);
+
+    @Query(value = "select hash from tutorial_blob where ref_count <= 0", nativeQuery = true)
+    List<String> findUnreferencedHashes();
+
+    /** @return 1 when the blob was removed, 0 when it is referenced again (or already gone) */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_blob"))
+    @Query(value = "delete from tutorial_blob where hash = :hash and ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.repository;
+
+import com.evolveum.midpoint.integration.catalog.object.TutorialFile;
+import com.evolveum.midpoint.integration.catalog.object.TutorialFileId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tutorial manifests. Writes are native statements so that they stay single round trips and the
+ * reference-count trigger sees every row.
+ */
+public interface TutorialFileRepository extends JpaRepository<TutorialFile, TutorialFileId> {
+
+    /** Files of a revision in the order of {@link #findFileNames}, served by the same index. */
+    @Query("""
+            select f from TutorialFile f
+            where f.integMethodId = :id and f.integMethodRevision = :revision
+            order by lower(f.fileName), f.fileName
+            """)
+    List<TutorialFile> findFiles(@Param("id") UUID id, @Param("revision") String revision);
+
+    /** File names of a revision, ordered case-insensitively; read in order from idx_tutorial_file_name_lower. */
+    @Query("""
+            select f.fileName from TutorialFile f
+            where f.integMethodId = :id and f.integMethodRevision = :revision
+            order by lower(f.fileName), f.fileName
+            """)
+    List<String> findFileNames(@Param("id") UUID id, @Param("revision") String revision);
+
+    Optional<TutorialFile> findByIntegMethodIdAndIntegMethodRevisionAndFileName(UUID integMethodId,
+                                                                              String integMethodRevision,
+                                                                              String fileName);
+
+    /** Adds the file to the revision's manifest, replacing the content of a file with the same name. */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_file"))
+    @Query(value = """
+            insert into tutorial_file (integ_method_id, integ_method_revision, file_name, blob_hash, size_bytes, content_type)
+            select :id, :revision, :fileName, hash, size_bytes, :contentType
+            from tutorial_blob
+            where hash = :hash
+            on conflict (integ_method_id, integ_method_revision, file_name)
+                do update set blob_hash = excluded.blob_hash, size_bytes = excluded.size_bytes,
+                              content_type = excluded.content_type, created_at = now()
+            """, nativeQuery = true)
+    int put(@Param("id") UUID id, @Param("revision") String revision, @Param("fileName") String fileName,
+            @Param("hash") String hash, @Param("contentType") String contentType);
+
+    /** Copies one revision's manifest to another; the blobs are shared, not copied. */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_file"))
+    @Query(value = """
+            insert into tutorial_file (integ_method_id, integ_method_revision, file_name, blob_hash, size_bytes,
+                                       content_type, created_at)
+            select integ_method_id, :toRevision, file_name, blob_hash, size_bytes, content_type, created_at
+            from tutorial_file
+            where integ_method_id = :id and integ_method_revision = :fromRevision
+            on conflict (integ_method_id, integ_method_revision, file_name)
+                do update set blob_hash = excluded.blob_hash, size_bytes = excluded.size_bytes,
+                              content_type = excluded.content_type, created_at = excluded.created_at
+            """, nativeQuery = true)
+    int copyRevision(@Param("id") UUID id, @Param("fromRevision") String fromRevision,
+                     @Param("toRevision") String toRevision);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_file"))
+    @Query(value = """
+            update tutorial_file set integ_method_revision = :toRevision
+            where integ_method_id = :id and integ_method_revision = :fromRevision
+            """, nativeQuery = true)
+    int moveRevision(@Param("id") UUID id, @Param("fromRevision") String fromRevision,
+                     @Param("toRevision") String toRevision);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_file"))
+    @Query(value = """
+            delete from tutorial_file
+            where integ_method_id = :id and integ_method_revision = :revision
+            """, nativeQuery = true)
+    int deleteRevision(@Param("id") UUID id, @Param("revision") String revision);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tutorial_file"))
+    @Query(value = """
+            delete from tutorial_file
+            where integ_method_id = :id and integ_method_revision = :revision and file_name = :fileName
+            """, nativeQuery = true)
+    int deleteFile(@Param("id") UUID id, @Param("revision") String revision, @Param("fileName") String fileName);
+}
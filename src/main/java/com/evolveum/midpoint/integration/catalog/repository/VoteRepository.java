@@ -10,6 +10,9 @@ import com.evolveum.midpoint.integration.catalog.object.Vote;
 import com.evolveum.midpoint.integration.catalog.object.VoteId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -23,4 +26,24 @@ public interface VoteRepository extends JpaRepository<Vote, VoteId>,
     Optional<Vote> findByRequestIdAndVoter(Long requestId, String voter);
 
     long countByRequestId(Integer requestId);
+
+    /**
+     * Records the vote and bumps {@code request.vote_count} in one statement. The insert is skipped
+     * (no conflict error) when the voter already voted or the request does not exist, and then no
+     * count is incremented. Returns the new vote count, or empty when nothing was inserted.
+     */
+    @Transactional
+    @Query(value = """
+            with inserted as (
+                insert into vote (request_id, voter)
+                select :requestId, :voter
+                where exists (select 1 from request where id = :requestId)
+                on conflict do nothing
+                returning request_id
+            )
+            update request set vote_count = vote_count + 1
+            where id in (select request_id from inserted)
+            returning vote_count
+            """, nativeQuery = true)
+    Optional<Long> insertVoteAndIncrementCount(@Param("requestId") Long requestId, @Param("voter") String voter);
 }
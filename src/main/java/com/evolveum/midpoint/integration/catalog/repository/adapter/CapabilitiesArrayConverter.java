@@ -10,48 +10,59 @@ import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
- * Converter for CapabilityType array to PostgreSQL text representation
+ * Converter for a CapabilityType set to the PostgreSQL text representation of a "CapabilityType"[] array.
+ * Elements are written in declaration order and parsed with a name lookup instead of split and valueOf.
  */
 @Converter
-public class CapabilitiesArrayConverter implements AttributeConverter<CapabilityType[], String> {
+public class CapabilitiesArrayConverter implements AttributeConverter<Set<CapabilityType>, String> {
 
     @Override
-    public String convertToDatabaseColumn(CapabilityType[] attribute) {
-        if (attribute == null || attribute.length == 0) {
+    public String convertToDatabaseColumn(Set<CapabilityType> attribute) {
+        if (attribute == null) {
             return null;
         }
 
         StringBuilder sb = new StringBuilder("{");
-        for (int i = 0; i < attribute.length; i++) {
-            if (i > 0) {
-                sb.append(",");
+        for (CapabilityType type : attribute) {
+            if (sb.length() > 1) {
+                sb.append(',');
             }
-            sb.append(attribute[i].name());
+            sb.append(type.name());
         }
-        sb.append("}");
+        sb.append('}');
         return sb.toString();
     }
 
     @Override
-    public CapabilityType[] convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
-            return new CapabilityType[0];
-        }
-
-        String data = dbData.trim();
-        if (data.startsWith("{") && data.endsWith("}")) {
-            data = data.substring(1, data.length() - 1);
+    public Set<CapabilityType> convertToEntityAttribute(String dbData) {
+        EnumSet<CapabilityType> result = EnumSet.noneOf(CapabilityType.class);
+        if (dbData == null) {
+            return result;
         }
 
-        if (data.isEmpty()) {
-            return new CapabilityType[0];
+        int start = dbData.indexOf('{') + 1;
+        int end = dbData.lastIndexOf('}');
+        if (end < start) {
+            end = dbData.length();
         }
-
-        String[] parts = data.split(",");
-        CapabilityType[] result = new CapabilityType[parts.length];
-        for (int i = 0; i < parts.length; i++) {
-            result[i] = CapabilityType.valueOf(parts[i].trim());
+        while (start < end) {
+            int comma = dbData.indexOf(',', start);
+            if (comma < 0 || comma > end) {
+                comma = end;
+            }
+            String name = dbData.substring(start, comma).trim();
+            if (!name.isEmpty()) {
+                CapabilityType type = CapabilityType.fromName(name);
+                if (type == null) {
+                    throw new IllegalArgumentException("Unknown capability in database: " + name);
+                }
+                result.add(type);
+            }
+            start = comma + 1;
         }
         return result;
     }
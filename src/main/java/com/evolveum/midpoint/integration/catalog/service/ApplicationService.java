@@ -10,6 +10,7 @@ import com.evolveum.midpoint.integration.catalog.dto.*;
 import com.evolveum.midpoint.integration.catalog.dto.EditIntegrationMethodDto;
 import com.evolveum.midpoint.integration.catalog.exception.ConnectorSigningException;
 import com.evolveum.midpoint.integration.catalog.mapper.ApplicationMapper;
+import com.evolveum.midpoint.integration.catalog.mapper.CatalogUserLookup;
 import com.evolveum.midpoint.integration.catalog.configuration.GithubProperties;
 import com.evolveum.midpoint.integration.catalog.configuration.JenkinsProperties;
 import com.evolveum.midpoint.integration.catalog.form.ContinueForm;
@@ -20,6 +21,9 @@ import com.evolveum.midpoint.integration.catalog.object.*;
 import com.evolveum.midpoint.integration.catalog.repository.*;
 import com.evolveum.midpoint.integration.catalog.repository.adapter.ApplicationReadPort;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -33,10 +37,13 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +53,8 @@ import java.util.stream.Collectors;
 @Service
 public class ApplicationService {
 
+    private static final int RECENTLY_USED_LIMIT = 9;
+
     private final ApplicationRepository applicationRepository;
     private final ApplicationTagRepository applicationTagRepository;
     private final CountryOfOriginRepository countryOfOriginRepository;
@@ -64,15 +73,19 @@ public class ApplicationService {
     private final ConnectorBundleRepository connectorBundleRepository;
     private final ApplicationApplicationTagRepository applicationApplicationTagRepository;
     private final ApplicationTagService applicationTagService;
-    private final RecentlyUsedApplicationRepository recentlyUsedApplicationRepository;
+    private final RecentlyUsedTracker recentlyUsedTracker;
     private final RequestVotingService requestVotingService;
     private final ConnectorDownloadService connectorDownloadService;
     private final BuildCallbackService buildCallbackService;
     private final ConnectorUploadService connectorUploadService;
-    private final CapabilityRepository capabilityRepository;
+    private final CapabilityRegistry capabilityRegistry;
     private final ConnectorVersionRepository connectorVersionRepository;
     private final ConnectorRepository connectorRepository;
     private final AuthService authService;
+    private final RevisionAllocator revisionAllocator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public ApplicationService(ApplicationRepository applicationRepository,
                               ApplicationTagRepository applicationTagRepository,
@@ -95,10 +108,10 @@ public class ApplicationService {
                               ConnectorDownloadService connectorDownloadService,
                               BuildCallbackService buildCallbackService,
                               ConnectorUploadService connectorUploadService,
-                              RecentlyUsedApplicationRepository recentlyUsedApplicationRepository,
-                              CapabilityRepository capabilityRepository,
+                              RecentlyUsedTracker recentlyUsedTracker,
+                              CapabilityRegistry capabilityRegistry,
                               ConnectorVersionRepository connectorVersionRepository, ConnectorRepository connectorRepository,
-                              AuthService authService) {
+                              AuthService authService, RevisionAllocator revisionAllocator) {
         this.applicationRepository = applicationRepository;
         this.applicationTagRepository = applicationTagRepository;
         this.countryOfOriginRepository = countryOfOriginRepository;
@@ -121,11 +134,12 @@ public class ApplicationService {
         this.connectorDownloadService = connectorDownloadService;
         this.buildCallbackService = buildCallbackService;
         this.connectorUploadService = connectorUploadService;
-        this.recentlyUsedApplicationRepository = recentlyUsedApplicationRepository;
-        this.capabilityRepository = capabilityRepository;
+        this.recentlyUsedTracker = recentlyUsedTracker;
+        this.capabilityRegistry = capabilityRegistry;
         this.connectorVersionRepository = connectorVersionRepository;
         this.connectorRepository = connectorRepository;
         this.authService = authService;
+        this.revisionAllocator = revisionAllocator;
     }
 
     /**
@@ -134,7 +148,7 @@ public class ApplicationService {
      * own it (see {@link AuthService#canEdit}). Server-side counterpart of the client's
      * edit-button gating — this is the check that actually protects the data.
      */
-    private void assertCanEditMethod(String username, UUID methodId, String revision) {
+    private IntegrationMethod assertCanEditMethod(String username, UUID methodId, String revision) {
         IntegrationMethod method = integrationMethodRepository.findById(new IntegrationMethodId(methodId, revision))
                 .orElseThrow(() -> new RuntimeException(
                         "Integration method not found: " + methodId + "/" + revision));
@@ -143,6 +157,7 @@ public class ApplicationService {
                     "You are not allowed to modify this integration method.");
         }
         assertNotUnderReview(username, method);
+        return method;
     }
 
     /**
@@ -151,12 +166,28 @@ public class ApplicationService {
      * reviewer. Superusers are exempt — the reviewer may fix findings directly during the review
      * (or hand the revision back via stop-review for the author to fix). Mirrors the client, which
      * disables the edit controls for this state for everyone but superusers.
+     *
+     * <p>The revision is locked optimistically: its version is verified again when the transaction
+     * commits, so a review started after this check fails the edit instead of slipping under it.
      */
     private void assertNotUnderReview(String username, IntegrationMethod method) {
         if (method.getLifecycleState() == LifecycleType.REVIEWING && !authService.isSuperuser(username)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     "This integration method is locked while it is under review.");
         }
+        entityManager.lock(method, LockModeType.OPTIMISTIC);
+    }
+
+    /**
+     * Enforces an If-Match precondition: an edit applies only to the version the client last read,
+     * otherwise it fails with 412 and the client has to reload. Without a precondition (null) the edit
+     * is unconditional.
+     */
+    private static void assertVersion(Long expectedVersion, long currentVersion, String what) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "The " + what + " was changed by someone else in the meantime; reload it and try again.");
+        }
     }
 
     /**
@@ -166,7 +197,7 @@ public class ApplicationService {
      * maintainer, in which case the IM maintainer must not be able to edit it (only its
      * maintainer, or a superuser, may). Throws 404 if the method/connector is missing, 403 otherwise.
      */
-    private void assertCanEditConnector(String username, UUID methodId, String revision, Integer connectorId) {
+    private Connector assertCanEditConnector(String username, UUID methodId, String revision, Integer connectorId) {
         IntegrationMethod method = integrationMethodRepository.findById(new IntegrationMethodId(methodId, revision))
                 .orElseThrow(() -> new RuntimeException(
                         "Integration method not found: " + methodId + "/" + revision));
@@ -182,11 +213,12 @@ public class ApplicationService {
                     "You are not allowed to modify this connector.");
         }
         assertNotUnderReview(username, method);
+        return connector;
     }
 
     public Application getApplication(UUID uuid) {
         return applicationRepository.findById(uuid)
-                .orElseThrow(() -> new RuntimeException("Application not found with id: " + uuid));
+                .orElseThrow(() -> new NoSuchElementException("Application not found with id: " + uuid));
     }
 
     public List<ApplicationTagDto> getApplicationTags() {
@@ -242,8 +274,7 @@ public class ApplicationService {
     }
 
     public List<CapabilityDto> getCapabilities() {
-        return capabilityRepository.findAll().stream()
-                .sorted(java.util.Comparator.comparingInt(c -> c.getDisplayOrder() != null ? c.getDisplayOrder() : 0))
+        return capabilityRegistry.all().stream()
                 .map(c -> new CapabilityDto(c.getName(), c.getGlobality(), c.getDisplayOrder()))
                 .toList();
     }
@@ -255,8 +286,12 @@ public class ApplicationService {
 
     @Transactional
     public String editIntegrationMethod(UUID methodId, String currentRevision, EditIntegrationMethodDto dto,
-                                        String username) {
-        assertCanEditMethod(username, methodId, currentRevision);
+                                        Long expectedVersion, String username) {
+        // Lock before the first load: a concurrent edit holding the lock commits its new revision
+        // (and row version) before this one reads the method, so the checks below see it.
+        revisionAllocator.lockMethodRevisions(methodId);
+        IntegrationMethod method = assertCanEditMethod(username, methodId, currentRevision);
+        assertVersion(expectedVersion, method.getRowVersion(), "integration method");
         return connectorUploadService.editIntegrationMethod(methodId, currentRevision, dto);
     }
 
@@ -310,10 +345,14 @@ public class ApplicationService {
 
     @Transactional
     public void updateConnector(UUID methodId, String revision, Integer connectorId, EditConnectorDto dto,
-                                String username) {
+                                Long expectedVersion, String username) {
         // A connector is gated on its own maintainer, not the IM's: the IM maintainer must not
         // be able to edit a connector maintained by someone else (a superuser still can).
-        assertCanEditConnector(username, methodId, revision, connectorId);
+        Connector connector = assertCanEditConnector(username, methodId, revision, connectorId);
+        assertVersion(expectedVersion, connector.getRowVersion(), "connector");
+        // An edit may only touch the bundle or version rows; bump the connector anyway so its ETag
+        // changes with every edit and a concurrent editor of the same connector conflicts.
+        entityManager.lock(connector, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
         connectorUploadService.updateConnector(methodId, revision, connectorId, dto, username);
     }
 
@@ -427,6 +466,10 @@ public class ApplicationService {
         return requestVotingService.hasUserVoted(requestId, voter);
     }
 
+    public List<VoteStatusDto> getVoteStatuses(List<Long> requestIds, String voter) {
+        return requestVotingService.getVoteStatuses(requestIds, voter);
+    }
+
     public void cancelRequest(Long requestId) {
         requestVotingService.cancelRequest(requestId);
     }
@@ -436,7 +479,9 @@ public class ApplicationService {
     }
 
     public List<ApplicationDto> getAllApplications() {
-        return applicationRepository.findAll().stream()
+        List<Application> apps = applicationRepository.findAll();
+        CatalogUserLookup users = applicationMapper.resolveAuthors(apps);
+        return apps.stream()
                 .map(app -> {
                     Long requestId = null;
                     Long voteCount = null;
@@ -444,10 +489,10 @@ public class ApplicationService {
                         Optional<Request> request = requestVotingService.getRequestForApplication(app.getId());
                         if (request.isPresent()) {
                             requestId = request.get().getId();
-                            voteCount = requestVotingService.getVoteCount(requestId);
+                            voteCount = request.get().getVoteCount();
                         }
                     }
-                    return applicationMapper.mapToApplicationDto(app, null, null, requestId, voteCount);
+                    return applicationMapper.mapToApplicationDto(app, null, null, requestId, voteCount, users);
                 })
                 .toList();
     }
@@ -461,7 +506,9 @@ public class ApplicationService {
         } else {
             page = applicationReadPort.findAll(pageable);
         }
-        return page.map(applicationMapper::toCardDto);
+        // One user query for the whole page instead of one per integration method.
+        CatalogUserLookup users = applicationMapper.resolveAuthors(page.getContent());
+        return page.map(app -> applicationMapper.toCardDto(app, users));
     }
 
     /**
@@ -553,31 +600,39 @@ public class ApplicationService {
 
     @Transactional(readOnly = true)
     public List<ImplementationListItemDto> getIntegrationMethodsByApplicationId(UUID applicationId) {
-        return integrationMethodRepository.findByApplicationId(applicationId).stream()
-                .map(applicationMapper::mapToIntegrationMethodListItemDto)
+        List<IntegrationMethod> methods = integrationMethodRepository.findByApplicationId(applicationId);
+        CatalogUserLookup users = applicationMapper.resolveConnectorMaintainers(methods);
+        return methods.stream()
+                .map(method -> applicationMapper.mapToIntegrationMethodListItemDto(method, users))
                 .filter(dto -> dto != null)
                 .toList();
     }
 
     public List<ApplicationDto> getRecentlyUsedApplications() {
-        return recentlyUsedApplicationRepository.findAllByOrderByIdDesc().stream()
-                .map(RecentlyUsedApplication::getApplicationId)
-                .distinct()
-                .limit(9)
-                .map(id -> applicationRepository.findById(id).orElse(null))
-                .filter(app -> app != null)
-                .map(app -> applicationMapper.mapToApplicationDto(app, null, null, null, null))
+        // ask for a few extra IDs in case some of the applications were deleted since their use
+        return mapRecentlyUsed(recentlyUsedTracker.recentApplicationIds(RECENTLY_USED_LIMIT * 2));
+    }
+
+    public List<ApplicationDto> getRecentlyUsedApplications(String userId) {
+        return mapRecentlyUsed(recentlyUsedTracker.recentApplicationIds(userId, RECENTLY_USED_LIMIT * 2));
+    }
+
+    private List<ApplicationDto> mapRecentlyUsed(List<UUID> ids) {
+        Map<UUID, Application> byId = applicationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+        List<Application> apps = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .limit(RECENTLY_USED_LIMIT)
+                .toList();
+        CatalogUserLookup users = applicationMapper.resolveAuthors(apps);
+        return apps.stream()
+                .map(app -> applicationMapper.mapToApplicationDto(app, null, null, null, null, users))
                 .toList();
     }
 
-    @Transactional
     public void recordRecentlyUsed(UUID applicationId, String userId) {
-        recentlyUsedApplicationRepository.deleteByUserIdAndApplicationId(userId, applicationId);
-        recentlyUsedApplicationRepository.flush();
-        RecentlyUsedApplication entry = new RecentlyUsedApplication()
-                .setUserId(userId)
-                .setApplicationId(applicationId);
-        recentlyUsedApplicationRepository.save(entry);
+        recentlyUsedTracker.record(applicationId, userId);
     }
 
     public long getTotalDownloadsCount() {
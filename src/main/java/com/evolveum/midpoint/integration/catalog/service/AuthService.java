@@ -6,50 +6,93 @@
 
 package com.evolveum.midpoint.integration.catalog.service;
 
+import com.evolveum.midpoint.integration.catalog.common.SessionPrincipal;
 import com.evolveum.midpoint.integration.catalog.dto.LoginResponseDto;
 import com.evolveum.midpoint.integration.catalog.object.CatalogUser;
 import com.evolveum.midpoint.integration.catalog.object.Organization;
 import com.evolveum.midpoint.integration.catalog.repository.CatalogUserRepository;
 import com.evolveum.midpoint.integration.catalog.repository.OrganizationRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class AuthService {
 
     private final CatalogUserRepository catalogUserRepository;
     private final OrganizationRepository organizationRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
+    private final SessionTokenService sessionTokenService;
 
-    public AuthService(CatalogUserRepository catalogUserRepository, OrganizationRepository organizationRepository) {
+    public AuthService(CatalogUserRepository catalogUserRepository, OrganizationRepository organizationRepository,
+                       PasswordVerifier passwordVerifier, LoginThrottle loginThrottle,
+                       SessionTokenService sessionTokenService) {
         this.catalogUserRepository = catalogUserRepository;
         this.organizationRepository = organizationRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordVerifier = passwordVerifier;
+        this.loginThrottle = loginThrottle;
+        this.sessionTokenService = sessionTokenService;
     }
 
-    public Optional<LoginResponseDto> login(String username, String password) {
+    /**
+     * Verifies the credentials. The user lookup runs on the calling thread; the BCrypt check runs on
+     * the {@link PasswordVerifier} pool, so the returned future completes off the servlet thread.
+     * Throws 429 when the username or client IP is out of login attempts, and 503 when the verifier
+     * queue is full. A hash made with a lower work factor than configured is replaced on success.
+     * The response carries a signed session token (see {@link SessionTokenService}).
+     */
+    public CompletableFuture<Optional<LoginResponseDto>> login(String username, String password, String clientIp) {
+        if (!loginThrottle.tryAcquire(username, clientIp)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many login attempts, please try again later.");
+        }
+
         Optional<CatalogUser> userOpt = catalogUserRepository.findByUsername(username);
         if (userOpt.isEmpty()) {
-            return Optional.empty();
+            return CompletableFuture.completedFuture(Optional.empty());
         }
 
+        // Resolve the principal here, where the organization can still be lazily loaded; the
+        // verifier thread has no persistence context.
         CatalogUser user = userOpt.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            return Optional.empty();
-        }
+        String storedHash = user.getPassword();
+        SessionPrincipal principal = SessionPrincipal.of(user);
 
-        Organization org = user.getOrganization();
-        return Optional.of(new LoginResponseDto(
-                user.getUsername(),
-                user.getRole(),
-                org != null ? org.getId() : null,
-                org != null ? org.getName() : null
-        ));
+        return passwordVerifier.matches(password, storedHash).thenApply(matches -> {
+            if (!matches) {
+                return Optional.empty();
+            }
+            if (passwordVerifier.needsRehash(storedHash)) {
+                rehash(username, storedHash, password);
+            }
+            return Optional.of(new LoginResponseDto(
+                    principal.username(),
+                    principal.role(),
+                    principal.organizationId(),
+                    principal.organizationName(),
+                    sessionTokenService.issue(principal)
+            ));
+        });
+    }
+
+    private void rehash(String username, String storedHash, String password) {
+        try {
+            if (catalogUserRepository.replacePasswordHash(username, storedHash, passwordVerifier.encode(password)) > 0) {
+                log.info("Re-hashed password of user {} with the configured work factor", username);
+            }
+        } catch (RuntimeException e) {
+            // The login itself succeeded; the old hash stays valid and is retried on the next login.
+            log.warn("Failed to re-hash password of user {}: {}", username, e.getMessage());
+        }
     }
 
     public List<String> getAllMaintainers() {
@@ -87,14 +130,11 @@ public class AuthService {
      * granted access (except a superuser).
      */
     public boolean canEdit(String username, String author, String maintainer) {
-        if (username == null || username.isBlank()) {
-            return false;
-        }
-        CatalogUser caller = catalogUserRepository.findByUsername(username).orElse(null);
+        SessionPrincipal caller = resolveCaller(username).orElse(null);
         if (caller == null) {
             return false;
         }
-        if ("Superuser".equals(caller.getRole())) {
+        if (caller.isSuperuser()) {
             return true;
         }
         // Maintainer designates ownership: match by the caller's username or by their org name.
@@ -102,20 +142,19 @@ public class AuthService {
             if (maintainer.equalsIgnoreCase(username)) {
                 return true;
             }
-            if (caller.getOrganization() != null && caller.getOrganization().getName() != null
-                    && maintainer.equalsIgnoreCase(caller.getOrganization().getName())) {
+            if (caller.organizationName() != null && maintainer.equalsIgnoreCase(caller.organizationName())) {
                 return true;
             }
         }
         // An organization acts as a team: an item maintained by an org contributor is editable
         // by every member of that organization. A maintainer without an org stays personal, as
         // does an IndividualContributor who belongs to an org — they act as themselves.
-        if ("OrganizationContributor".equals(caller.getRole())
-                && caller.getOrganization() != null && maintainer != null && !maintainer.isBlank()) {
+        if (caller.isOrganizationContributor()
+                && caller.organizationId() != null && maintainer != null && !maintainer.isBlank()) {
             CatalogUser maintainerUser = catalogUserRepository.findByUsername(maintainer).orElse(null);
             if (maintainerUser != null && "OrganizationContributor".equals(maintainerUser.getRole())
                     && maintainerUser.getOrganization() != null
-                    && caller.getOrganization().getId().equals(maintainerUser.getOrganization().getId())) {
+                    && caller.organizationId().equals(maintainerUser.getOrganization().getId())) {
                 return true;
             }
         }
@@ -123,12 +162,11 @@ public class AuthService {
         if (author != null && author.equalsIgnoreCase(username)) {
             return true;
         }
-        if ("OrganizationContributor".equals(caller.getRole())
-                && caller.getOrganization() != null && author != null) {
+        if (caller.isOrganizationContributor() && caller.organizationId() != null && author != null) {
             CatalogUser owner = catalogUserRepository.findByUsername(author).orElse(null);
             if (owner != null && "OrganizationContributor".equals(owner.getRole())
                     && owner.getOrganization() != null
-                    && caller.getOrganization().getId().equals(owner.getOrganization().getId())) {
+                    && caller.organizationId().equals(owner.getOrganization().getId())) {
                 return true;
             }
         }
@@ -137,12 +175,26 @@ public class AuthService {
 
     /** Whether {@code username} resolves to a Superuser. Used to gate approval actions. */
     public boolean isSuperuser(String username) {
+        return resolveCaller(username)
+                .map(SessionPrincipal::isSuperuser)
+                .orElse(false);
+    }
+
+    /**
+     * The caller's role and organization. Taken from the current request's verified session token
+     * when it names {@code username}, so the access checks need no database round-trip; otherwise
+     * (clients not sending a token, calls outside a request) read from catalog_users.
+     */
+    private Optional<SessionPrincipal> resolveCaller(String username) {
         if (username == null || username.isBlank()) {
-            return false;
+            return Optional.empty();
         }
-        return catalogUserRepository.findByUsername(username)
-                .map(u -> "Superuser".equals(u.getRole()))
-                .orElse(false);
+        Optional<SessionPrincipal> fromToken = SessionPrincipal.current()
+                .filter(principal -> username.equals(principal.username()));
+        if (fromToken.isPresent()) {
+            return fromToken;
+        }
+        return catalogUserRepository.findByUsername(username).map(SessionPrincipal::of);
     }
 
     public List<String> getOrganizationMembers(String username) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Inbox of Jenkins build callbacks ({@code build_callback}), keyed by the build ID and callback type.
+ * <p>
+ * A callback is claimed by inserting its row in the transaction that processes it: a duplicate that
+ * arrives later finds the row and is dropped, one that arrives concurrently waits on the primary key
+ * until the first commits (and is dropped) or rolls back (and takes over). Either way a duplicate costs
+ * one index lookup and never touches the connector graph.
+ */
+@Component
+@RequiredArgsConstructor
+public class BuildCallbackInbox {
+
+    public enum CallbackType {
+        SUCCESS, FAIL, VERIFY
+    }
+
+    public static final String OUTCOME_PROCESSED = "PROCESSED";
+
+    public record Outcome(String outcome, String message) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records the callback in the caller's transaction.
+     *
+     * @return false when this callback of the build was already processed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String buildId, CallbackType type) {
+        return jdbcTemplate.update("""
+                insert into build_callback (build_id, callback_type, outcome)
+                values (?, ?, ?)
+                on conflict (build_id, callback_type) do nothing
+                """, buildId, type.name(), OUTCOME_PROCESSED) == 1;
+    }
+
+    public Optional<Outcome> findOutcome(String buildId, CallbackType type) {
+        return jdbcTemplate.query("""
+                        select outcome, message from build_callback
+                        where build_id = ? and callback_type = ?
+                        """,
+                (rs, rowNum) -> new Outcome(rs.getString("outcome"), rs.getString("message")),
+                buildId, type.name()).stream().findFirst();
+    }
+
+    /**
+     * Records the outcome of a callback that does not change any data (verify) in its own
+     * transaction, so that rejections are remembered although the caller's transaction rolls back.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordOutcome(String buildId, CallbackType type, String outcome, String message) {
+        jdbcTemplate.update("""
+                insert into build_callback (build_id, callback_type, outcome, message)
+                values (?, ?, ?, ?)
+                on conflict (build_id, callback_type) do nothing
+                """, buildId, type.name(), outcome, message);
+    }
+}
@@ -13,7 +13,7 @@ import com.evolveum.midpoint.integration.catalog.form.FailForm;
 import com.evolveum.midpoint.integration.catalog.object.*;
 import com.evolveum.midpoint.integration.catalog.repository.*;
 
-import com.evolveum.midpoint.integration.catalog.util.RepositoryUtil;
+import com.evolveum.midpoint.integration.catalog.service.BuildCallbackInbox.CallbackType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -23,22 +23,37 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Handles Jenkins build callbacks — updates IntegrationMethod lifecycle and capabilities.
+ * <p>
+ * Callbacks carrying a build ID go through the {@link BuildCallbackInbox}: a retried or duplicated
+ * callback is detected before the connector graph is loaded. Callbacks without one (older pipelines)
+ * are processed every time.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BuildCallbackService {
 
+    private static final String GLOBAL_OBJECT_CLASS = "Global";
+
+    /** Recorded outcomes of verify callbacks, replayed to a repeated verify of the same build. */
+    private static final String VERIFY_OK = "OK";
+    private static final String VERIFY_INVALID = "INVALID";
+    private static final String VERIFY_CONFLICT = "CONFLICT";
+
     private final IntegrationMethodRepository integrationMethodRepository;
     private final ConnectorBundleRepository connectorBundleRepository;
     private final ConnectorVersionRepository connectorVersionRepository;
     private final ApplicationRepository applicationRepository;
-    private final CapabilityRepository capabilityRepository;
+    private final CapabilityRegistry capabilityRegistry;
     private final ConnVersionCapabilityRepository connVersionCapabilityRepository;
+    private final BuildCallbackInbox buildCallbackInbox;
+    private final RevisionAllocator revisionAllocator;
 
     /**
      * Successful build: activate the integration method and persist capabilities.
@@ -46,6 +61,10 @@ public class BuildCallbackService {
      */
     @Transactional
     public void successBuild(UUID oid, ContinueForm continueForm) {
+        validateCapabilities(continueForm.getCapability());
+        if (isDuplicate(continueForm.getBuildId(), CallbackType.SUCCESS)) {
+            return;
+        }
         IntegrationMethod method = findIntegrationMethod(oid, continueForm.getIntegrationMethodRevision());
         ConnectorVersion connectorVersion = findConnectorVersion(continueForm.getConnectorVersionId(), continueForm.getConnectorVersionRevision());
 
@@ -64,7 +83,7 @@ public class BuildCallbackService {
         if (existingBundle.isPresent() && sourceBundle != null) {
             ConnectorBundle targetBundle = existingBundle.get();
             sourceBundle.setBundleName(newBundleName);
-            sourceBundle.setRevision(RepositoryUtil.uniqueBundleRevision(targetBundle.getBundleName(), targetBundle.getRevision(), connectorBundleRepository));
+            sourceBundle.setRevision(revisionAllocator.uniqueBundleRevision(targetBundle.getBundleName(), targetBundle.getRevision()));
         } else if (sourceBundle != null) {
             sourceBundle.setBundleName(newBundleName);
         }
@@ -100,6 +119,9 @@ public class BuildCallbackService {
      */
     @Transactional
     public void failBuild(UUID oid, FailForm failForm) {
+        if (isDuplicate(failForm.getBuildId(), CallbackType.FAIL)) {
+            return;
+        }
         IntegrationMethod method = findIntegrationMethod(oid, failForm.getIntegrationMethodRevision());
         ConnectorVersion connectorVersion = findConnectorVersion(failForm.getConnectorVersionId(), failForm.getConnectorVersionRevision());
 
@@ -113,6 +135,32 @@ public class BuildCallbackService {
 
     @Transactional
     public void verify(UUID oid, VerifyBundleInformationForm verifyPayload) {
+        String buildId = verifyPayload.getBuildId();
+        if (buildId == null || buildId.isBlank()) {
+            verifyBundleInformation(verifyPayload);
+            return;
+        }
+
+        Optional<BuildCallbackInbox.Outcome> previous = buildCallbackInbox.findOutcome(buildId, CallbackType.VERIFY);
+        if (previous.isPresent()) {
+            log.debug("Replaying verify outcome of build {}", buildId);
+            replayVerifyOutcome(previous.get());
+            return;
+        }
+
+        try {
+            verifyBundleInformation(verifyPayload);
+            buildCallbackInbox.recordOutcome(buildId, CallbackType.VERIFY, VERIFY_OK, null);
+        } catch (IllegalArgumentException e) {
+            buildCallbackInbox.recordOutcome(buildId, CallbackType.VERIFY, VERIFY_INVALID, e.getMessage());
+            throw e;
+        } catch (ObjectAlreadyExist e) {
+            buildCallbackInbox.recordOutcome(buildId, CallbackType.VERIFY, VERIFY_CONFLICT, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void verifyBundleInformation(VerifyBundleInformationForm verifyPayload) {
         ConnectorVersion connectorVersion = findConnectorVersion(verifyPayload.getConnectorVersionId(), verifyPayload.getConnectorVersionRevision());
 
         String bundleName = verifyPayload.getBundleName();
@@ -192,6 +240,27 @@ public class BuildCallbackService {
 
     // ── Helpers ──────────────────────────────────────────────────────────────
 
+    /** Claims the callback in the current transaction; true when the build's callback was already processed. */
+    private boolean isDuplicate(String buildId, CallbackType type) {
+        if (buildId == null || buildId.isBlank()) {
+            return false;
+        }
+        if (buildCallbackInbox.claim(buildId, type)) {
+            return false;
+        }
+        log.info("Ignoring duplicate {} callback of build {}", type, buildId);
+        return true;
+    }
+
+    private void replayVerifyOutcome(BuildCallbackInbox.Outcome outcome) {
+        switch (outcome.outcome()) {
+            case VERIFY_INVALID -> throw new IllegalArgumentException(outcome.message());
+            case VERIFY_CONFLICT -> throw new ObjectAlreadyExist(outcome.message());
+            default -> {
+            }
+        }
+    }
+
     private IntegrationMethod findIntegrationMethod(UUID id, String revision) {
         return integrationMethodRepository.findById(new IntegrationMethodId(id, revision))
                 .orElseThrow(() -> new RuntimeException("Integration method not found, UUID: " + id + ", revision: " + revision));
@@ -245,23 +314,35 @@ public class BuildCallbackService {
         }
     }
 
+    /**
+     * Adds the global capabilities to the connector version's "Global" group, creating the group only
+     * when the version has none and skipping capabilities already in it, so a repeated callback does not
+     * add rows.
+     */
     private void persistCapabilitiesOnConnectorVersions(ConnectorVersion connectorVersion,
                                                         List<CapabilityType> capabilityTypes) {
-        ConnVersionCapability group = new ConnVersionCapability();
-        group.setObjectClass("Global");
-        group.setConnectorVersion(connectorVersion);
+        ConnVersionCapability group = connectorVersion.getCapabilities().stream()
+                .filter(c -> GLOBAL_OBJECT_CLASS.equals(c.getObjectClass()))
+                .findFirst()
+                .orElseGet(() -> {
+                    ConnVersionCapability g = new ConnVersionCapability();
+                    g.setObjectClass(GLOBAL_OBJECT_CLASS);
+                    g.setConnectorVersion(connectorVersion);
+                    // the items' key includes the group id, so the group needs its id before they are built
+                    ConnVersionCapability saved = connVersionCapabilityRepository.save(g);
+                    connectorVersion.getCapabilities().add(saved);
+                    return saved;
+                });
+        Set<String> present = group.getItems().stream()
+                .map(item -> item.getCapability().getName())
+                .collect(Collectors.toSet());
 
         for (CapabilityType capType : capabilityTypes) {
-            if (!capType.isGlobal()){
+            if (!capType.isGlobal() || !present.add(capType.name())) {
                 continue;
             }
 
-            Capability cap = capabilityRepository.findByName(capType.name())
-                    .orElseGet(() -> {
-                        Capability c = new Capability();
-                        c.setName(capType.name());
-                        return capabilityRepository.save(c);
-                    });
+            Capability cap = capabilityRegistry.get(capType);
 
             ConnVersionCapabilityItem item = new ConnVersionCapabilityItem();
             item.setConnVersionCapabilityId(group.getId());
@@ -280,6 +361,16 @@ public class BuildCallbackService {
                 .findFirst();
     }
 
+    /**
+     * Rejects a payload with a capability that has no {@link CapabilityType} constant (read as null, see
+     * {@link ContinueForm}), before the callback is claimed or anything is changed.
+     */
+    private void validateCapabilities(List<CapabilityType> capabilityTypes) {
+        if (capabilityTypes != null && capabilityTypes.contains(null)) {
+            throw new IllegalArgumentException("Request payload contains an unknown capability.");
+        }
+    }
+
     private void validateVerifyPayload(String version, String className) {
         if (version == null || version.isEmpty()) {
             throw new IllegalArgumentException("Request payload lacks connector bundle version.");
@@ -6,6 +6,9 @@
 
 package com.evolveum.midpoint.integration.catalog.service;
 
+import com.evolveum.midpoint.integration.catalog.configuration.BundleStorageProperties;
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+import com.evolveum.midpoint.integration.catalog.integration.OutboundHttpClient;
 import com.evolveum.midpoint.integration.catalog.object.Application;
 import com.evolveum.midpoint.integration.catalog.object.Connector;
 import com.evolveum.midpoint.integration.catalog.object.ConnectorBundle;
@@ -17,32 +20,46 @@ import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodCapabil
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodConnector;
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodId;
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodType;
+import com.evolveum.midpoint.integration.catalog.repository.BundleArtifactRepository;
 import com.evolveum.midpoint.integration.catalog.repository.IntegrationMethodRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -51,13 +68,16 @@ import java.util.zip.ZipOutputStream;
  * <ul>
  *     <li>the tutorial text (integration_method.tutorial), converted from Markdown to AsciiDoc, as
  *         {@code tutorial.adoc};</li>
- *     <li>every uploaded tutorial file from the method's file_path folder, under {@code files/};</li>
+ *     <li>every uploaded tutorial file of the method revision, under {@code files/};</li>
  *     <li>JSON metadata for the application, integration method, and connectors, under {@code metadata/};</li>
  *     <li>the connector build JARs, each resolved from the method's linked connector and fetched from its
  *         {@code artifact_url}, placed under {@code connectors/}. If the method has no connector artifact (or
  *         the fetch fails), the JAR is omitted, an {@code ERROR.txt} explaining why is added at the ZIP root,
  *         and the bundle carries a warning.</li>
  * </ul>
+ * Fetched artifacts are reference counted ({@link RefCountedBlobs}) in {@code bundle_artifact}, by the
+ * connector bundle versions with that artifact URL; artifacts no longer referenced are deleted from the
+ * store every {@code bundle.storage.gc-interval}.
  */
 @Slf4j
 @Service
@@ -66,19 +86,63 @@ public class BundleService {
     private final IntegrationMethodRepository integrationMethodRepository;
     private final TutorialStorageService tutorialStorageService;
     private final ObjectWriter jsonWriter;
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL) // Nexus may redirect to a storage host
-            .connectTimeout(Duration.ofSeconds(15))
-            .build();
-    /** Cache of fetched artifact bytes, keyed by artifact URL — release URLs are immutable. */
-    private final Map<String, byte[]> artifactCache = new ConcurrentHashMap<>();
+    private final OutboundHttpClient httpClient;
+    /**
+     * Fetched artifacts, keyed by a hash of the artifact URL — release URLs are immutable, so an
+     * artifact is downloaded once for all replicas sharing the store.
+     */
+    private final BlobStore artifactStore;
+    private final RefCountedBlobs artifacts;
+    private final BundleStorageProperties properties;
+    /** Own transaction for registering artifacts; bundles are built read-only. */
+    private final TransactionTemplate artifactTransaction;
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> collection;
 
     public BundleService(IntegrationMethodRepository integrationMethodRepository,
                          TutorialStorageService tutorialStorageService,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         OutboundHttpClient httpClient,
+                         @Qualifier("bundleBlobStore") BlobStore artifactStore,
+                         BundleArtifactRepository bundleArtifactRepository,
+                         BundleStorageProperties properties,
+                         PlatformTransactionManager transactionManager,
+                         TaskScheduler taskScheduler) {
         this.integrationMethodRepository = integrationMethodRepository;
+        this.httpClient = httpClient;
+        this.artifactStore = artifactStore;
+        this.artifacts = new RefCountedBlobs("connector artifact", artifactStore, new RefCountedBlobs.ReferenceTable() {
+            @Override
+            public void register(String urlHash, long size) {
+                bundleArtifactRepository.register(urlHash);
+            }
+
+            @Override
+            public List<String> findUnreferenced() {
+                return bundleArtifactRepository.findUnreferencedHashes();
+            }
+
+            @Override
+            public int deleteIfUnreferenced(String urlHash) {
+                return bundleArtifactRepository.deleteIfUnreferenced(urlHash);
+            }
+        }, BundleService::artifactKeyOfHash, transactionManager);
+        this.properties = properties;
         this.tutorialStorageService = tutorialStorageService;
         this.jsonWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        this.artifactTransaction = new TransactionTemplate(transactionManager);
+        this.artifactTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void start() {
+        collection = taskScheduler.scheduleWithFixedDelay(this::collectGarbage, Instant.now(), properties.gcInterval());
+    }
+
+    @PreDestroy
+    void stop() {
+        collection.cancel(false);
     }
 
     /**
@@ -146,15 +210,16 @@ public class BundleService {
     }
 
     private void addTutorialFiles(ZipOutputStream zip, UUID methodId, String revision, List<String> warnings) throws IOException {
-        List<String> files = tutorialStorageService.listTutorialFiles(methodId, revision);
+        List<TutorialStorageService.StoredTutorialFile> files = tutorialStorageService.listTutorialFileEntries(methodId, revision);
         if (files.isEmpty()) {
             warnings.add("No additional tutorial/sample files were included (the files/ folder is empty).");
             return;
         }
-        for (String name : files) {
-            Path file = tutorialStorageService.resolveTutorialFile(methodId, revision, name);
-            zip.putNextEntry(new ZipEntry("files/" + name));
-            Files.copy(file, zip);
+        for (TutorialStorageService.StoredTutorialFile file : files) {
+            zip.putNextEntry(new ZipEntry("files/" + file.name()));
+            try (InputStream in = tutorialStorageService.openTutorialFile(file)) {
+                in.transferTo(zip);
+            }
             zip.closeEntry();
         }
     }
@@ -186,11 +251,12 @@ public class BundleService {
                 continue;
             }
             try {
-                byte[] jar = artifactBytes(artifactUrl);
-                String entryName = "connectors/" + uniqueEntryName(artifactEntryName(artifactUrl), usedEntryNames);
-                zip.putNextEntry(new ZipEntry(entryName));
-                zip.write(jar);
-                zip.closeEntry();
+                try (InputStream jar = openArtifact(artifactUrl)) {
+                    String entryName = "connectors/" + uniqueEntryName(artifactEntryName(artifactUrl), usedEntryNames);
+                    zip.putNextEntry(new ZipEntry(entryName));
+                    jar.transferTo(zip);
+                    zip.closeEntry();
+                }
             } catch (IOException e) {
                 log.warn("Failed to fetch connector artifact {} for {}/{}: {}",
                         artifactUrl, method.getId(), method.getRevision(), e.getMessage());
@@ -281,31 +347,71 @@ public class BundleService {
         return name.isBlank() ? "connector.jar" : name;
     }
 
-    private byte[] artifactBytes(String artifactUrl) throws IOException {
-        byte[] cached = artifactCache.get(artifactUrl);
-        if (cached != null) {
-            return cached;
+    /** Opens the artifact from the store, downloading it into the store first if it is not there yet. */
+    private InputStream openArtifact(String artifactUrl) throws IOException {
+        String key = artifactKey(artifactUrl);
+        try {
+            return artifactStore.open(key);
+        } catch (NoSuchFileException e) {
+            downloadArtifact(artifactUrl);
+            return artifactStore.open(key);
         }
-        byte[] fetched = downloadArtifact(artifactUrl);
-        artifactCache.put(artifactUrl, fetched);
-        return fetched;
     }
 
-    private byte[] downloadArtifact(String artifactUrl) throws IOException {
+    private void downloadArtifact(String artifactUrl) throws IOException {
         HttpRequest request = HttpRequest.newBuilder(URI.create(artifactUrl))
                 .timeout(Duration.ofSeconds(60))
                 .GET()
                 .build();
+        Path staging = artifactStore.newStagingFile();
         try {
-            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<Path> response = httpClient.send(request,
+                    HttpResponse.BodyHandlers.ofFile(staging));
             if (response.statusCode() != 200) {
                 throw new IOException("HTTP " + response.statusCode());
             }
-            log.info("Fetched connector artifact ({} bytes) from {}", response.body().length, artifactUrl);
-            return response.body();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Interrupted while downloading connector artifact", e);
+            log.info("Fetched connector artifact ({} bytes) from {}", Files.size(staging), artifactUrl);
+            storeArtifact(urlHash(artifactUrl), staging);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /** Registers the artifact and puts it into the store; see {@link RefCountedBlobs#store}. */
+    private void storeArtifact(String urlHash, Path staging) throws IOException {
+        try {
+            artifactTransaction.executeWithoutResult(status -> {
+                try {
+                    artifacts.store(urlHash, staging, "application/java-archive");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Deletes cached artifacts that no connector bundle version refers to. */
+    void collectGarbage() {
+        artifacts.collectGarbage();
+    }
+
+    private static String artifactKey(String artifactUrl) {
+        return artifactKeyOfHash(urlHash(artifactUrl));
+    }
+
+    private static String artifactKeyOfHash(String urlHash) {
+        return "artifacts/" + urlHash + ".jar";
+    }
+
+    /** SHA-256 of the artifact URL, as computed by the bundle_artifact trigger. */
+    private static String urlHash(String artifactUrl) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(artifactUrl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.object.Capability;
+import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
+import com.evolveum.midpoint.integration.catalog.repository.CapabilityRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of the {@code capability} dictionary, indexed by {@link CapabilityType}.
+ * <p>
+ * Loaded at startup; a capability type without a row is inserted first (insert-if-absent, so replicas
+ * starting together do not collide). Lookups then need no database access. The returned entities are
+ * detached and shared: use them for ids and names only.
+ * <p>
+ * The maps are replaced as a whole (copy on write), so readers never lock. A type whose row was
+ * removed while running is put back on its first lookup without blocking other lookups.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CapabilityRegistry {
+
+    private record Snapshot(Map<CapabilityType, Capability> byType, Map<String, Capability> byName,
+                            List<Capability> all) {
+
+        /** Indexes the rows in one pass; rows without a name are listed but not indexed. */
+        static Snapshot of(List<Capability> capabilities) {
+            List<Capability> all = capabilities.stream()
+                    .sorted(Comparator.comparingInt(c -> c.getDisplayOrder() != null ? c.getDisplayOrder() : 0))
+                    .toList();
+            Map<CapabilityType, Capability> byType = new EnumMap<>(CapabilityType.class);
+            Map<String, Capability> byName = new HashMap<>();
+            for (Capability capability : all) {
+                if (capability.getName() == null) {
+                    continue;
+                }
+                byName.put(capability.getName(), capability);
+                CapabilityType type = CapabilityType.fromName(capability.getName());
+                if (type != null) {
+                    byType.put(type, capability);
+                }
+            }
+            return new Snapshot(Collections.unmodifiableMap(byType), Map.copyOf(byName), all);
+        }
+
+        /** This snapshot with {@code capability} added, replacing a row of the same name. */
+        Snapshot with(Capability capability) {
+            List<Capability> capabilities = new ArrayList<>(all.size() + 1);
+            for (Capability existing : all) {
+                if (!Objects.equals(existing.getName(), capability.getName())) {
+                    capabilities.add(existing);
+                }
+            }
+            capabilities.add(capability);
+            return of(capabilities);
+        }
+    }
+
+    private final CapabilityRepository capabilityRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(List.of()));
+
+    @PostConstruct
+    void load() {
+        reload();
+        int inserted = 0;
+        for (CapabilityType type : CapabilityType.values()) {
+            if (!snapshot.get().byType().containsKey(type)) {
+                inserted += capabilityRepository.insertIfAbsent(type.name(), globality(type));
+            }
+        }
+        if (inserted > 0) {
+            log.info("Inserted {} missing capabilities", inserted);
+        }
+        if (snapshot.get().byType().size() < CapabilityType.values().length) {
+            reload();
+        }
+    }
+
+    public Capability get(CapabilityType type) {
+        Capability capability = snapshot.get().byType().get(type);
+        return capability != null ? capability : restore(type);
+    }
+
+    /** Capability by name; also finds rows that have no {@link CapabilityType} constant. */
+    public Optional<Capability> findByName(String name) {
+        return Optional.ofNullable(snapshot.get().byName().get(name));
+    }
+
+    /** All capabilities ordered by display order. */
+    public List<Capability> all() {
+        return snapshot.get().all();
+    }
+
+    private void reload() {
+        snapshot.set(Snapshot.of(capabilityRepository.findAll()));
+    }
+
+    /**
+     * Puts back the row of a type that was removed behind our back and adds it to the snapshot. No lock
+     * is held: the insert is idempotent, so concurrent misses of one type only repeat two cheap statements,
+     * and misses of other types are not held up.
+     */
+    private Capability restore(CapabilityType type) {
+        capabilityRepository.insertIfAbsent(type.name(), globality(type));
+        Capability capability = capabilityRepository.findByName(type.name())
+                .orElseThrow(() -> new IllegalStateException("Capability " + type + " could not be inserted"));
+        snapshot.updateAndGet(current -> current.with(capability));
+        log.info("Restored missing capability {}", type);
+        return capability;
+    }
+
+    private static String globality(CapabilityType type) {
+        return type.isGlobal() ? "GLOBAL" : "SPECIFIC";
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.object.ConnectorVersion;
+import com.evolveum.midpoint.integration.catalog.object.IntegrationMethod;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Copies connector and integration-method graphs with set-based {@code insert ... select} statements,
+ * so a copy costs a constant number of statements however many versions and capabilities it carries.
+ * <p>
+ * New ids are drawn up front into materialized mapping CTEs (old id -> new id): the source rows are
+ * numbered and joined to the same number of ids from {@code allocate_pooled_ids}, which reserves whole
+ * blocks of the sequence the way the pooled JPA generators do (one {@code nextval} per 50 rows), so
+ * these ids do not collide with entities persisted through Hibernate. Every child row is inserted by
+ * joining its source row to the mapping of its parent. The foreign keys are deferred, so the parent and
+ * child inserts of one statement may reference each other.
+ * <p>
+ * The persistence context is flushed before each copy so the statements see pending changes of the
+ * source. Rows written here are not in the persistence context; load them afresh to work with them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectorGraphCloner {
+
+    private static final String CLONE_CONNECTOR_SQL = """
+            with src as (
+                select * from connector where id = ?
+            ),
+            new_bundle as (
+                insert into connector_bundle (revision, author, maintainer, created_at, updated, lifecycle_state,
+                        bundle_name, display_name, description, framework, license, ticketing_link,
+                        project_homepage, git_clone_ulr, path_to_project, build_framework)
+                select ?, b.author, b.maintainer, localtimestamp, localtimestamp, cast('IN_REVIEW' as LifecycleType),
+                       b.bundle_name, b.display_name, b.description, b.framework, b.license, b.ticketing_link,
+                       b.project_homepage, b.git_clone_ulr, b.path_to_project, b.build_framework
+                from connector_bundle b join src on b.id = src.connector_bundle_id
+                returning id
+            ),
+            new_connector as (
+                insert into connector (revision, author, maintainer, created_at, updated, display_name,
+                        fully_qualified_class_name, connector_bundle_id, description, cloned_from)
+                select src.revision, src.author, src.maintainer, localtimestamp, localtimestamp, src.display_name,
+                       src.fully_qualified_class_name, new_bundle.id, src.description,
+                       coalesce(src.cloned_from, src.id)
+                from src cross join new_bundle
+                returning id
+            ),
+            cv_src as materialized (
+                select cv.id as old_id, cv.revision, row_number() over (order by cv.id, cv.revision) as n
+                from connector_version cv join src on cv.connector_id = src.id
+            ),
+            cv_map as materialized (
+                select s.old_id, s.revision, a.new_id
+                from cv_src s
+                join allocate_pooled_ids('connector_version_id_seq', (select count(*)::int from cv_src))
+                        with ordinality a(new_id, n) on a.n = s.n
+            ),
+            cbv_src as materialized (
+                select d.old_id, d.revision, row_number() over (order by d.old_id, d.revision) as n
+                from (select distinct cv.connector_bundle_version_id as old_id,
+                                      cv.connector_bundle_version_revision as revision
+                      from connector_version cv join src on cv.connector_id = src.id
+                      where cv.connector_bundle_version_id is not null) d
+            ),
+            cbv_map as materialized (
+                select s.old_id, s.revision, a.new_id
+                from cbv_src s
+                join allocate_pooled_ids('connector_bundle_version_id_seq', (select count(*)::int from cbv_src))
+                        with ordinality a(new_id, n) on a.n = s.n
+            ),
+            new_bundle_versions as (
+                insert into connector_bundle_version (id, revision, author, maintainer, created_at, updated,
+                        lifecycle_state, connector_bundle_id, bundle_version, browse_link, git_clone_ulr,
+                        path_to_project, build_framework, commit_tag, artifact_url, error_message)
+                select m.new_id, v.revision, v.author, v.maintainer, localtimestamp, localtimestamp,
+                       cast('IN_REVIEW' as LifecycleType), new_bundle.id, v.bundle_version, v.browse_link,
+                       v.git_clone_ulr, v.path_to_project, v.build_framework, v.commit_tag, v.artifact_url,
+                       v.error_message
+                from cbv_map m
+                join connector_bundle_version v on v.id = m.old_id and v.revision = m.revision
+                cross join new_bundle
+            ),
+            new_versions as (
+                insert into connector_version (id, revision, author, maintainer, created_at, updated,
+                        lifecycle_state, connector_bundle_version_id, connector_bundle_version_revision,
+                        connector_id, fully_qualified_class_name, error_message)
+                select m.new_id, cv.revision, cv.author, cv.maintainer, localtimestamp, localtimestamp,
+                       cast('IN_REVIEW' as LifecycleType), bm.new_id, bm.revision, new_connector.id,
+                       cv.fully_qualified_class_name, cv.error_message
+                from cv_map m
+                join connector_version cv on cv.id = m.old_id and cv.revision = m.revision
+                left join cbv_map bm on bm.old_id = cv.connector_bundle_version_id
+                                    and bm.revision = cv.connector_bundle_version_revision
+                cross join new_connector
+            ),
+            cap_src as materialized (
+                select c.id as old_id, m.new_id as version_id, m.revision, row_number() over (order by c.id) as n
+                from conn_version_capability c
+                join cv_map m on c.conn_version_id = m.old_id and c.conn_version_revision = m.revision
+            ),
+            cap_map as materialized (
+                select s.old_id, a.new_id, s.version_id, s.revision
+                from cap_src s
+                join allocate_pooled_ids('conn_version_capability_id_seq', (select count(*)::int from cap_src))
+                        with ordinality a(new_id, n) on a.n = s.n
+            ),
+            new_capabilities as (
+                insert into conn_version_capability (id, object_class, conn_version_id, conn_version_revision)
+                select cm.new_id, c.object_class, cm.version_id, cm.revision
+                from cap_map cm join conn_version_capability c on c.id = cm.old_id
+            ),
+            new_capability_items as (
+                insert into conn_version_capability_item (conn_version_capability_id, capability_id)
+                select cm.new_id, i.capability_id
+                from cap_map cm join conn_version_capability_item i on i.conn_version_capability_id = cm.old_id
+            )
+            select id from new_connector
+            """;
+
+    private static final String DELETE_VERSION_CAPABILITIES_SQL = """
+            delete from conn_version_capability where conn_version_id = ? and conn_version_revision = ?
+            """;
+
+    private static final String COPY_VERSION_CAPABILITIES_SQL = """
+            with cap_src as materialized (
+                select c.id as old_id, row_number() over (order by c.id) as n
+                from conn_version_capability c
+                where c.conn_version_id = ? and c.conn_version_revision = ?
+            ),
+            cap_map as materialized (
+                select s.old_id, a.new_id
+                from cap_src s
+                join allocate_pooled_ids('conn_version_capability_id_seq', (select count(*)::int from cap_src))
+                        with ordinality a(new_id, n) on a.n = s.n
+            ),
+            new_capabilities as (
+                insert into conn_version_capability (id, object_class, conn_version_id, conn_version_revision)
+                select m.new_id, c.object_class, ?, ?
+                from cap_map m join conn_version_capability c on c.id = m.old_id
+            )
+            insert into conn_version_capability_item (conn_version_capability_id, capability_id)
+            select m.new_id, i.capability_id
+            from cap_map m join conn_version_capability_item i on i.conn_version_capability_id = m.old_id
+            """;
+
+    private static final String COPY_METHOD_CONNECTORS_SQL = """
+            insert into integration_method_connector (integ_method_id, integ_method_revision, connector_id,
+                    connector_minversion, connector_maxversion)
+            select ?, ?, l.connector_id, l.connector_minversion, l.connector_maxversion
+            from integration_method_connector l
+            where l.integ_method_id = ? and l.integ_method_revision = ?
+            """;
+
+    private static final String COPY_METHOD_CAPABILITIES_SQL = """
+            with cap_src as materialized (
+                select c.id as old_id, row_number() over (order by c.id) as n
+                from integration_method_capability c
+                where c.integ_method_id = ? and c.integ_method_revision = ?
+            ),
+            cap_map as materialized (
+                select s.old_id, a.new_id
+                from cap_src s
+                join allocate_pooled_ids('integration_method_capability_id_seq', (select count(*)::int from cap_src))
+                        with ordinality a(new_id, n) on a.n = s.n
+            ),
+            new_capabilities as (
+                insert into integration_method_capability (id, object_class, integ_method_id, integ_method_revision)
+                select m.new_id, c.object_class, ?, ?
+                from cap_map m join integration_method_capability c on c.id = m.old_id
+            )
+            insert into integration_method_capability_item (integration_method_capability_id, capability_id)
+            select m.new_id, i.capability_id
+            from cap_map m
+            join integration_method_capability_item i on i.integration_method_capability_id = m.old_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Copies a connector with its bundle, the bundle versions its versions use, its versions and their
+     * capabilities. The copies start IN_REVIEW, the bundle takes {@code bundleRevision} and the
+     * connector records the root of its copy chain in {@code cloned_from}.
+     *
+     * @return id of the new connector
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Integer cloneConnector(Integer connectorId, String bundleRevision) {
+        entityManager.flush();
+        return jdbcTemplate.queryForObject(CLONE_CONNECTOR_SQL, Integer.class, connectorId, bundleRevision);
+    }
+
+    /**
+     * Replaces the capabilities of {@code to} with a copy of those of {@code from}. The deleted rows
+     * take their items along (ON DELETE CASCADE). A capabilities collection of {@code to} that was
+     * loaded before the call still shows the old set.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replaceVersionCapabilities(ConnectorVersion from, ConnectorVersion to) {
+        entityManager.flush();
+        jdbcTemplate.update(DELETE_VERSION_CAPABILITIES_SQL, to.getId(), to.getRevision());
+        jdbcTemplate.update(COPY_VERSION_CAPABILITIES_SQL, from.getId(), from.getRevision(),
+                to.getId(), to.getRevision());
+    }
+
+    /**
+     * Copies the connector links and the capabilities (with their items) of one method revision onto
+     * another, already persisted revision, and refreshes {@code to} so its collections show the copies.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void copyMethodContent(IntegrationMethod from, IntegrationMethod to) {
+        entityManager.flush();
+        jdbcTemplate.update(COPY_METHOD_CONNECTORS_SQL, to.getId(), to.getRevision(),
+                from.getId(), from.getRevision());
+        jdbcTemplate.update(COPY_METHOD_CAPABILITIES_SQL, from.getId(), from.getRevision(),
+                to.getId(), to.getRevision());
+        entityManager.refresh(to);
+    }
+}
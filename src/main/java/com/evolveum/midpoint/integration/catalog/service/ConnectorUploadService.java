@@ -7,8 +7,6 @@
 package com.evolveum.midpoint.integration.catalog.service;
 
 import com.evolveum.midpoint.integration.catalog.common.ItemFile;
-import com.evolveum.midpoint.integration.catalog.configuration.GithubProperties;
-import com.evolveum.midpoint.integration.catalog.configuration.JenkinsProperties;
 import com.evolveum.midpoint.integration.catalog.dto.AddConnectorDto;
 import com.evolveum.midpoint.integration.catalog.dto.ApplicationTagDto;
 import com.evolveum.midpoint.integration.catalog.dto.EditConnectorDto;
@@ -17,28 +15,27 @@ import com.evolveum.midpoint.integration.catalog.dto.IntegrationMethodCapability
 import com.evolveum.midpoint.integration.catalog.dto.UploadConnectorDto;
 import com.evolveum.midpoint.integration.catalog.dto.UploadImplementationDto;
 import com.evolveum.midpoint.integration.catalog.dto.UploadIntegrationMethodDto;
-import com.evolveum.midpoint.integration.catalog.integration.GithubClient;
-import com.evolveum.midpoint.integration.catalog.integration.JenkinsClient;
+import com.evolveum.midpoint.integration.catalog.integration.GitlabClient;
 import com.evolveum.midpoint.integration.catalog.object.*;
 import com.evolveum.midpoint.integration.catalog.repository.*;
 import com.evolveum.midpoint.integration.catalog.object.ConnVersionCapability;
 import com.evolveum.midpoint.integration.catalog.object.ConnVersionCapabilityItem;
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodType;
 
-import com.evolveum.midpoint.integration.catalog.util.RepositoryUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.HttpException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -52,17 +49,17 @@ public class ConnectorUploadService {
     private final ConnectorVersionRepository connectorVersionRepository;
     private final ConnectorBundleRepository connectorBundleRepository;
     private final ConnectorBundleVersionRepository connectorBundleVersionRepository;
-    private final GithubProperties githubProperties;
-    private final JenkinsProperties jenkinsProperties;
     private final ApplicationTagService applicationTagService;
-    private final CapabilityRepository capabilityRepository;
+    private final CapabilityRegistry capabilityRegistry;
     private final IntegrationMethodCapabilityRepository integrationMethodCapabilityRepository;
-    private final IntegrationMethodCapabilityItemRepository integrationMethodCapabilityItemRepository;
     private final ConnVersionCapabilityRepository connVersionCapabilityRepository;
-    private final ConnVersionCapabilityItemRepository connVersionCapabilityItemRepository;
     private final IntegrationMethodTypeRepository integrationMethodTypeRepository;
     private final IntegrationMethodConnectorRepository integrationMethodConnectorRepository;
     private final TutorialStorageService tutorialStorageService;
+    private final OutboxService outboxService;
+    private final GitlabClient gitlabClient;
+    private final ConnectorGraphCloner connectorGraphCloner;
+    private final RevisionAllocator revisionAllocator;
 
     private record ApplicationResolution(Application application, boolean isNew,
                                          List<String> originNames, List<ApplicationTagDto> tagDtos) {
@@ -92,9 +89,9 @@ public class ConnectorUploadService {
         setUpRelationships(uploadRes, bundleVersion);
         setDefaults(appRes.application(), uploadRes.bundle(), bundleVersion, connectorVersion);
         copyFromLatestVersionIfNeeded(uploadRes, bundleVersion, connectorVersion);
-        createGitHubRepositoryIfNeeded(uploadRes, bundleVersion, connectorVersion, dto.files());
 
         persistEntities(appRes, uploadRes, bundleVersion, connectorVersion);
+        scheduleRepositoryIfNeeded(uploadRes, bundleVersion, connectorVersion, dto.files());
         saveIntegrationMethodCapabilities(dto, uploadRes.integrationMethod());
         saveConnectorVersionCapabilities(dto, connectorVersion);
 
@@ -352,67 +349,84 @@ public class ConnectorUploadService {
         }
     }
 
-    private void createGitHubRepositoryIfNeeded(UploadResolution res, ConnectorBundleVersion bundleVersion,
-                                                ConnectorVersion connectorVersion, List<ItemFile> files) {
+    /**
+     * Enqueues creation of the low-code connector's repository: a GitLab project when
+     * {@code gitlab.url} is set, a GitHub repository otherwise. The repository is created by
+     * {@link GitlabProjectProvisioner} or {@link GithubRepositoryProvisioner} after this upload
+     * commits, which then fills in the bundle version's clone URL and browse link (or its error message).
+     */
+    private void scheduleRepositoryIfNeeded(UploadResolution res, ConnectorBundleVersion bundleVersion,
+                                            ConnectorVersion connectorVersion, List<ItemFile> files) {
         if (res.isNewVersion()) return;
 
         if (ConnectorBundle.FrameworkType.LOW_CODE.equals(res.bundle().getFramework())) {
             boolean hasLinks = (bundleVersion.getBrowseLink() != null && !bundleVersion.getBrowseLink().isEmpty())
                     || (bundleVersion.getGitCloneUrl() != null && !bundleVersion.getGitCloneUrl().isEmpty());
             if (!hasLinks) {
-                try {
-                    GithubClient githubClient = new GithubClient(githubProperties);
-                    GHRepository repo = githubClient.createProjectForConnectorVersion(
-                            res.integrationMethod().getDisplayName(), connectorVersion, files);
-                    bundleVersion.setGitCloneUrl(repo.getHttpTransportUrl());
-                    bundleVersion.setBrowseLink(repo.getHtmlUrl().toString() + "/tree/main");
-                } catch (Exception e) {
-                    String msg = (e instanceof HttpException httpEx && httpEx.getResponseCode() == 401)
-                            ? "Unable to create GitHub repository - bad credentials."
-                            : "Unable to create GitHub repository: " + e.getMessage();
-                    log.error(msg);
-                    bundleVersion.setErrorMessage(msg);
+                String projectName = res.integrationMethod().getDisplayName();
+                String description = connectorVersion.getFullyQualifiedClassName() != null
+                        ? connectorVersion.getFullyQualifiedClassName() : projectName;
+                String version = bundleVersion.getBundleVersion() != null ? bundleVersion.getBundleVersion() : "1.0.0";
+                if (gitlabClient.isConfigured()) {
+                    GitlabProjectProvisioner.Job job = new GitlabProjectProvisioner.Job(
+                            bundleVersion.getId(), bundleVersion.getRevision(), projectName, version,
+                            files != null ? files : List.of());
+                    outboxService.enqueue(GitlabProjectProvisioner.JOB_TYPE, job.dedupeKey(), job);
+                    return;
                 }
+                GithubRepositoryProvisioner.Job job = new GithubRepositoryProvisioner.Job(
+                        bundleVersion.getId(), bundleVersion.getRevision(), projectName, description, version,
+                        files != null ? files : List.of());
+                outboxService.enqueue(GithubRepositoryProvisioner.JOB_TYPE, job.dedupeKey(), job);
             }
         }
     }
 
+    /**
+     * Queues a Jenkins build of the connector version. The build parameters are captured now, except
+     * for the repository links, which {@link JenkinsBuildTrigger} reads from the bundle version when
+     * it sends the build after the calling transaction commits (a low-code repository may still be
+     * being created). A trigger for a version whose build is still queued is dropped as a duplicate.
+     *
+     * @return a short status message for the caller
+     */
     public String triggerJenkinsPipeline(ConnectorVersion connectorVersion, IntegrationMethod method) {
-        try {
-            ConnectorBundle bundle = connectorVersion.getConnector().getConnectorBundle();
-            ConnectorBundleVersion cbv = connectorVersion.getConnectorBundleVersion();
-            String browseLink = cbv != null ? cbv.getBrowseLink() : "";
-            String gitCloneUrl = cbv != null ? cbv.getGitCloneUrl() : "";
-            String framework = bundle != null ? bundle.getFramework().name() : "";
-            String buildFramework = bundle != null ? bundle.getBuildFramework().name() : "";
-            String className = connectorVersion.getFullyQualifiedClassName() != null ? connectorVersion.getFullyQualifiedClassName() : "";
-            String pathToProject = bundle != null && bundle.getPathToProject() != null ? bundle.getPathToProject() : "";
-
-            JenkinsClient jenkinsClient = new JenkinsClient(jenkinsProperties);
-            HttpResponse<String> response = jenkinsClient.triggerJob(
-                    Map.ofEntries(
-                            Map.entry("REPOSITORY_URL", gitCloneUrl),
-                            Map.entry("BRANCH_URL", browseLink),
-                            Map.entry("INTEGRATION_METHOD_UUID", method.getId().toString()),
-                            Map.entry("INTEGRATION_METHOD_REVISION", method.getRevision()),
-                            Map.entry("INTEGRATION_METHOD_TITLE", method.getDisplayName() != null ? method.getDisplayName() : ""),
-                            Map.entry("CONNECTOR_VERSION_ID", connectorVersion.getId().toString()),
-                            Map.entry("CONNECTOR_VERSION_REVISION", connectorVersion.getRevision()),
-                            Map.entry("BUNDLE_FRAMEWORK", framework),
-                            Map.entry("BUILD_FRAMEWORK", buildFramework),
-                            Map.entry("SKIP_DEPLOY", "false"),
-                            Map.entry("CONNECTOR_CLASS", className),
-                            Map.entry("PATH_TO_PROJECT", pathToProject)));
-            log.info("Jenkins job triggered: {}", response.body());
-            return response.body();
-        } catch (Exception e) {
-            log.error("Failed to trigger Jenkins pipeline: {}", e.getMessage());
-            return e.getMessage();
+        ConnectorBundle bundle = connectorVersion.getConnector().getConnectorBundle();
+        ConnectorBundleVersion cbv = connectorVersion.getConnectorBundleVersion();
+        boolean lowCode = bundle != null && ConnectorBundle.FrameworkType.LOW_CODE.equals(bundle.getFramework());
+        String framework = bundle != null && bundle.getFramework() != null ? bundle.getFramework().name() : "";
+        String buildFramework = bundle != null && bundle.getBuildFramework() != null ? bundle.getBuildFramework().name() : "";
+        String className = connectorVersion.getFullyQualifiedClassName() != null ? connectorVersion.getFullyQualifiedClassName() : "";
+        String pathToProject = bundle != null && bundle.getPathToProject() != null ? bundle.getPathToProject() : "";
+
+        JenkinsBuildTrigger.Job job = new JenkinsBuildTrigger.Job(
+                connectorVersion.getId(), connectorVersion.getRevision(),
+                cbv != null ? cbv.getId() : null, cbv != null ? cbv.getRevision() : null, lowCode,
+                UUID.randomUUID().toString(),
+                Map.ofEntries(
+                        Map.entry("INTEGRATION_METHOD_UUID", method.getId().toString()),
+                        Map.entry("INTEGRATION_METHOD_REVISION", method.getRevision()),
+                        Map.entry("INTEGRATION_METHOD_TITLE", method.getDisplayName() != null ? method.getDisplayName() : ""),
+                        Map.entry("CONNECTOR_VERSION_ID", connectorVersion.getId().toString()),
+                        Map.entry("CONNECTOR_VERSION_REVISION", connectorVersion.getRevision()),
+                        Map.entry("BUNDLE_FRAMEWORK", framework),
+                        Map.entry("BUILD_FRAMEWORK", buildFramework),
+                        Map.entry("SKIP_DEPLOY", "false"),
+                        Map.entry("CONNECTOR_CLASS", className),
+                        Map.entry("PATH_TO_PROJECT", pathToProject)));
+
+        if (!outboxService.enqueue(JenkinsBuildTrigger.JOB_TYPE, job.dedupeKey(), job)) {
+            log.info("Jenkins build of connector version {} is already queued", job.dedupeKey());
+            return "Build already queued.";
         }
+        log.info("Jenkins build of connector version {} queued", job.dedupeKey());
+        return "Build queued.";
     }
 
     @Transactional
     public String editIntegrationMethod(UUID methodId, String currentRevision, EditIntegrationMethodDto dto) {
+        // Concurrent edits of the same method would derive the same new revision; take them in turn.
+        revisionAllocator.lockMethodRevisions(methodId);
         IntegrationMethod existing = integrationMethodRepository.findById(new IntegrationMethodId(methodId, currentRevision))
                 .orElseThrow(() -> new RuntimeException("Integration method not found: " + methodId + "/" + currentRevision));
 
@@ -438,7 +452,7 @@ public class ConnectorUploadService {
         //     so "Save as new version" from 1.0 while 2.0 already exists creates 3.0, not a 2.0 clash.
         String newRevision = dto.minorBump()
                 ? bumpMinorRevision(currentRevision)
-                : nextMajorRevision(methodId, existing.getApplication().getId());
+                : revisionAllocator.nextMajorRevision(methodId);
         IntegrationMethod clash = integrationMethodRepository
                 .findById(new IntegrationMethodId(methodId, newRevision))
                 .orElse(null);
@@ -621,13 +635,11 @@ public class ConnectorUploadService {
         }
 
         int major = parseMajor(revision);
-        UUID applicationId = draft.getApplication().getId();
-        // All revisions of this method live under the same application; filter that set down to the
-        // method's own revisions (the method id is stable across revisions).
-        List<IntegrationMethod> superseded = integrationMethodRepository.findByApplicationId(applicationId).stream()
-                .filter(m -> m.getId().equals(methodId))
+        // Only the method's own ACTIVE revisions are candidates (the method id is stable across
+        // revisions and leads the primary key, so this is an index range scan).
+        List<IntegrationMethod> superseded = integrationMethodRepository
+                .findByIdAndLifecycleState(methodId, LifecycleType.ACTIVE).stream()
                 .filter(m -> !m.getRevision().equals(revision))
-                .filter(m -> m.getLifecycleState() == LifecycleType.ACTIVE)
                 .filter(m -> parseMajor(m.getRevision()) == major)
                 .toList();
 
@@ -672,35 +684,16 @@ public class ConnectorUploadService {
      * as they are.
      */
     private void promoteConnectorsToActive(IntegrationMethod method) {
+        // A copy-on-write clone holding a same-version metadata edit is folded back into the shared
+        // original first, so the approved correction shows on EVERY method linking that connector;
+        // a changed-version clone stays a separate connector and is promoted with the rest.
         for (IntegrationMethodConnector link : method.getConnectors()) {
             Connector connector = link.getConnector();
-            if (connector == null) continue;
-
-            // A copy-on-write clone holding a same-version metadata edit is folded back into the
-            // shared original here, so the approved correction shows on EVERY method linking that
-            // connector; a changed-version clone stays a separate connector and is promoted below.
-            connector = mergeMetadataCloneIntoOriginal(method, link, connector);
-
-            ConnectorBundle bundle = connector.getConnectorBundle();
-            if (bundle != null) {
-                if (bundle.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                    bundle.setLifecycleState(LifecycleType.ACTIVE);
-                    connectorBundleRepository.save(bundle);
-                }
-                for (ConnectorBundleVersion cbv : bundle.getBundleVersions()) {
-                    if (cbv.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                        cbv.setLifecycleState(LifecycleType.ACTIVE);
-                        connectorBundleVersionRepository.save(cbv);
-                    }
-                }
-            }
-            for (ConnectorVersion cv : connector.getConnectorVersions()) {
-                if (cv.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                    cv.setLifecycleState(LifecycleType.ACTIVE);
-                    connectorVersionRepository.save(cv);
-                }
+            if (connector != null) {
+                mergeMetadataCloneIntoOriginal(method, link, connector);
             }
         }
+        transitionConnectorsOfMethod(method, LifecycleType.IN_REVIEW, LifecycleType.ACTIVE);
     }
 
     /**
@@ -709,30 +702,7 @@ public class ConnectorUploadService {
      * rejected; existing ACTIVE catalog connectors reused by the method are left untouched.
      */
     private void rejectConnectorsOfMethod(IntegrationMethod method) {
-        for (IntegrationMethodConnector link : method.getConnectors()) {
-            Connector connector = link.getConnector();
-            if (connector == null) continue;
-
-            ConnectorBundle bundle = connector.getConnectorBundle();
-            if (bundle != null) {
-                if (bundle.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                    bundle.setLifecycleState(LifecycleType.REJECTED);
-                    connectorBundleRepository.save(bundle);
-                }
-                for (ConnectorBundleVersion cbv : bundle.getBundleVersions()) {
-                    if (cbv.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                        cbv.setLifecycleState(LifecycleType.REJECTED);
-                        connectorBundleVersionRepository.save(cbv);
-                    }
-                }
-            }
-            for (ConnectorVersion cv : connector.getConnectorVersions()) {
-                if (cv.getLifecycleState() == LifecycleType.IN_REVIEW) {
-                    cv.setLifecycleState(LifecycleType.REJECTED);
-                    connectorVersionRepository.save(cv);
-                }
-            }
-        }
+        transitionConnectorsOfMethod(method, LifecycleType.IN_REVIEW, LifecycleType.REJECTED);
     }
 
     /**
@@ -741,30 +711,40 @@ public class ConnectorUploadService {
      * again. ACTIVE connectors reused by the method are left untouched.
      */
     private void resetRejectedConnectorsToInReview(IntegrationMethod method) {
-        for (IntegrationMethodConnector link : method.getConnectors()) {
-            Connector connector = link.getConnector();
-            if (connector == null) continue;
+        transitionConnectorsOfMethod(method, LifecycleType.REJECTED, LifecycleType.IN_REVIEW);
+    }
 
-            ConnectorBundle bundle = connector.getConnectorBundle();
-            if (bundle != null) {
-                if (bundle.getLifecycleState() == LifecycleType.REJECTED) {
-                    bundle.setLifecycleState(LifecycleType.IN_REVIEW);
-                    connectorBundleRepository.save(bundle);
-                }
-                for (ConnectorBundleVersion cbv : bundle.getBundleVersions()) {
-                    if (cbv.getLifecycleState() == LifecycleType.REJECTED) {
-                        cbv.setLifecycleState(LifecycleType.IN_REVIEW);
-                        connectorBundleVersionRepository.save(cbv);
-                    }
-                }
-            }
-            for (ConnectorVersion cv : connector.getConnectorVersions()) {
-                if (cv.getLifecycleState() == LifecycleType.REJECTED) {
-                    cv.setLifecycleState(LifecycleType.IN_REVIEW);
-                    connectorVersionRepository.save(cv);
-                }
+    /**
+     * Moves the bundles, bundle versions and connector versions linked to a method revision from
+     * one lifecycle state to another. The linked connector/bundle ids are read with a single
+     * projection query and each table is then changed by one bulk UPDATE guarded by the source
+     * state, instead of loading and saving every entity of the graph. The bulk updates bypass the
+     * persistence context, so lifecycle fields of already loaded entities are stale afterwards;
+     * callers must not re-save those entities within the same transaction.
+     */
+    private void transitionConnectorsOfMethod(IntegrationMethod method, LifecycleType from, LifecycleType to) {
+        List<IntegrationMethodConnectorRepository.LinkedConnector> linked =
+                integrationMethodConnectorRepository.findLinkedConnectors(method.getId(), method.getRevision());
+        if (linked.isEmpty()) return;
+
+        Set<Integer> connectorIds = new HashSet<>();
+        Set<Integer> bundleIds = new HashSet<>();
+        for (IntegrationMethodConnectorRepository.LinkedConnector lc : linked) {
+            connectorIds.add(lc.getConnectorId());
+            if (lc.getBundleId() != null) {
+                bundleIds.add(lc.getBundleId());
             }
         }
+
+        int bundles = 0;
+        int bundleVersions = 0;
+        if (!bundleIds.isEmpty()) {
+            bundles = connectorBundleRepository.transitionLifecycle(bundleIds, from, to);
+            bundleVersions = connectorBundleVersionRepository.transitionLifecycleOfBundles(bundleIds, from, to);
+        }
+        int connectorVersions = connectorVersionRepository.transitionLifecycleOfConnectors(connectorIds, from, to);
+        log.debug("Moved connectors of {}/{} from {} to {}: {} bundle(s), {} bundle version(s), {} connector version(s)",
+                method.getId(), method.getRevision(), from, to, bundles, bundleVersions, connectorVersions);
     }
 
     /**
@@ -787,9 +767,15 @@ public class ConnectorUploadService {
         log.info("Rejected integration method {}/{} by {}", methodId, revision, username);
     }
 
+    /**
+     * Persists the capability groups of a method. Ids come from a pooled sequence and items are
+     * cascaded from their group, so everything is written as JDBC batches on flush; capability
+     * names are resolved through the {@link CapabilityRegistry}.
+     */
     private void saveIntegrationMethodCapabilities(List<IntegrationMethodCapabilityGroupDto> groups,
                                                    IntegrationMethod target) {
         if (groups == null) return;
+        Map<String, Integer> capabilityIds = capabilityIdsByName(groups);
         for (IntegrationMethodCapabilityGroupDto group : groups) {
             if (group.objectClass() == null || group.capabilityNames() == null || group.capabilityNames().isEmpty())
                 continue;
@@ -797,16 +783,33 @@ public class ConnectorUploadService {
             cap.setObjectClass(group.objectClass());
             cap.setIntegrationMethod(target);
             cap = integrationMethodCapabilityRepository.save(cap);
-            final Integer capId = cap.getId();
-            for (String capabilityName : group.capabilityNames()) {
-                capabilityRepository.findByName(capabilityName).ifPresent(capability -> {
-                    IntegrationMethodCapabilityItem item = new IntegrationMethodCapabilityItem();
-                    item.setIntegrationMethodCapabilityId(capId);
-                    item.setCapabilityId(capability.getId());
-                    integrationMethodCapabilityItemRepository.save(item);
-                });
+            // A name repeated in the request would add a second transient item with the same id.
+            for (String capabilityName : new LinkedHashSet<>(group.capabilityNames())) {
+                Integer capabilityId = capabilityIds.get(capabilityName);
+                if (capabilityId == null) continue;
+                IntegrationMethodCapabilityItem item = new IntegrationMethodCapabilityItem();
+                item.setIntegrationMethodCapabilityId(cap.getId());
+                item.setCapabilityId(capabilityId);
+                // Persisted via the items collection's cascade on flush; an explicit save() of an
+                // entity with an assigned composite id would merge, i.e. SELECT it first.
+                cap.getItems().add(item);
+            }
+        }
+    }
+
+    /**
+     * Capability ids for every capability name used in the groups, from the in-memory registry.
+     * Unknown names are absent from the map.
+     */
+    private Map<String, Integer> capabilityIdsByName(List<IntegrationMethodCapabilityGroupDto> groups) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (IntegrationMethodCapabilityGroupDto group : groups) {
+            if (group.capabilityNames() == null) continue;
+            for (String name : group.capabilityNames()) {
+                capabilityRegistry.findByName(name).ifPresent(capability -> ids.put(name, capability.getId()));
             }
         }
+        return ids;
     }
 
     @Transactional
@@ -882,7 +885,7 @@ public class ConnectorUploadService {
      * The published source revision is left untouched so it stays immutable.
      */
     private IntegrationMethod clonePublishedAsDraft(IntegrationMethod source, UUID methodId) {
-        String newRevision = nextMajorRevision(methodId, source.getApplication().getId());
+        String newRevision = revisionAllocator.nextMajorRevision(methodId);
         IntegrationMethod draft = new IntegrationMethod();
         draft.setId(methodId);
         draft.setRevision(newRevision);
@@ -901,30 +904,12 @@ public class ConnectorUploadService {
         draft.setIntegMethodTypes(new ArrayList<>(source.getIntegMethodTypes()));
         draft.setFilePath(tutorialStorageService.copyTutorialFolder(methodId, source.getRevision(), newRevision));
 
-        copyConnectorLinks(source, draft);
         integrationMethodRepository.save(draft);
-        copyCapabilities(source, draft);
+        // Connector links and capabilities are copied in bulk; the draft is refreshed to show them.
+        connectorGraphCloner.copyMethodContent(source, draft);
         return draft;
     }
 
-    /**
-     * Deep-copies a method's object-class capabilities (and their capability items) onto another revision.
-     */
-    private void copyCapabilities(IntegrationMethod from, IntegrationMethod to) {
-        for (IntegrationMethodCapability oldCap : from.getCapabilities()) {
-            IntegrationMethodCapability newCap = new IntegrationMethodCapability();
-            newCap.setObjectClass(oldCap.getObjectClass());
-            newCap.setIntegrationMethod(to);
-            IntegrationMethodCapability saved = integrationMethodCapabilityRepository.save(newCap);
-            for (IntegrationMethodCapabilityItem oldItem : oldCap.getItems()) {
-                IntegrationMethodCapabilityItem item = new IntegrationMethodCapabilityItem();
-                item.setIntegrationMethodCapabilityId(saved.getId());
-                item.setCapabilityId(oldItem.getCapabilityId());
-                integrationMethodCapabilityItemRepository.save(item);
-            }
-        }
-    }
-
     /**
      * Removes a connector from an integration method revision by deleting only the link between them.
      * The connector itself may be shared with other methods, so it is left intact; orphanRemoval on the
@@ -977,100 +962,21 @@ public class ConnectorUploadService {
      * connector version (with their capabilities) — into brand-new rows. Used for copy-on-write when a
      * connector is shared across revisions and one revision edits it: the edit then lands on the copy and
      * leaves the shared original (e.g. a published revision) untouched. The cloned bundle keeps its name
-     * but takes a fresh revision so the (bundle_name, revision) uniqueness constraint still holds.
+     * but takes a fresh revision so the (bundle_name, revision) uniqueness constraint still holds. The
+     * copy is a single set-based statement (see {@link ConnectorGraphCloner}); the clone is loaded afresh.
      */
     private Connector cloneConnectorGraph(Connector src) {
         ConnectorBundle srcBundle = src.getConnectorBundle();
-        ConnectorBundle bundle = new ConnectorBundle();
-        bundle.setRevision(RepositoryUtil.uniqueBundleRevision(srcBundle.getBundleName(), srcBundle.getRevision(), connectorBundleRepository));
-        bundle.setAuthor(srcBundle.getAuthor());
-        bundle.setMaintainer(srcBundle.getMaintainer());
+        String bundleRevision = revisionAllocator.uniqueBundleRevision(srcBundle.getBundleName(), srcBundle.getRevision());
         // The copy belongs to the in-review revision being edited, so it starts IN_REVIEW regardless of
         // the source's state — publishIntegrationMethod promotes it to ACTIVE (and reject marks it
         // REJECTED). This keeps the edited connector out of the catalog until the revision is approved,
-        // while the shared original (e.g. the still-published connector) is untouched.
-        bundle.setLifecycleState(LifecycleType.IN_REVIEW);
-        bundle.setBundleName(srcBundle.getBundleName());
-        bundle.setDisplayName(srcBundle.getDisplayName());
-        bundle.setDescription(srcBundle.getDescription());
-        bundle.setFramework(srcBundle.getFramework());
-        bundle.setLicense(srcBundle.getLicense());
-        bundle.setTicketingLink(srcBundle.getTicketingLink());
-        bundle.setProjectHomepage(srcBundle.getProjectHomepage());
-        bundle.setGitCloneUrl(srcBundle.getGitCloneUrl());
-        bundle.setPathToProject(srcBundle.getPathToProject());
-        bundle.setBuildFramework(srcBundle.getBuildFramework());
-        connectorBundleRepository.save(bundle);
-
-        Connector clone = new Connector();
-        clone.setRevision(src.getRevision());
-        clone.setAuthor(src.getAuthor());
-        clone.setMaintainer(src.getMaintainer());
-        clone.setDisplayName(src.getDisplayName());
-        clone.setFullyQualifiedClassName(src.getFullyQualifiedClassName());
-        clone.setDescription(src.getDescription());
-        clone.setConnectorBundle(bundle);
-        // Remember the ultimate original (a clone of a clone keeps pointing at the root), so the
+        // while the shared original (e.g. the still-published connector) is untouched. The clone also
+        // remembers the ultimate original (a clone of a clone keeps pointing at the root), so the
         // approve step can fold a same-version metadata edit back into the shared original.
-        clone.setClonedFrom(src.getClonedFrom() != null ? src.getClonedFrom() : src.getId());
-        connectorRepository.save(clone);
-
-        for (ConnectorVersion srcCv : src.getConnectorVersions()) {
-            ConnectorBundleVersion srcCbv = srcCv.getConnectorBundleVersion();
-            ConnectorBundleVersion cbv = null;
-            if (srcCbv != null) {
-                cbv = new ConnectorBundleVersion();
-                cbv.setRevision(srcCbv.getRevision());
-                cbv.setAuthor(srcCbv.getAuthor());
-                cbv.setMaintainer(srcCbv.getMaintainer());
-                cbv.setLifecycleState(LifecycleType.IN_REVIEW);
-                cbv.setConnectorBundle(bundle);
-                cbv.setBundleVersion(srcCbv.getBundleVersion());
-                cbv.setBrowseLink(srcCbv.getBrowseLink());
-                cbv.setGitCloneUrl(srcCbv.getGitCloneUrl());
-                cbv.setPathToProject(srcCbv.getPathToProject());
-                cbv.setBuildFramework(srcCbv.getBuildFramework());
-                cbv.setCommitTag(srcCbv.getCommitTag());
-                cbv.setArtifactUrl(srcCbv.getArtifactUrl());
-                cbv.setErrorMessage(srcCbv.getErrorMessage());
-                connectorBundleVersionRepository.save(cbv);
-            }
-
-            ConnectorVersion cv = new ConnectorVersion();
-            cv.setConnector(clone);
-            cv.setConnectorBundleVersion(cbv);
-            cv.setRevision(srcCv.getRevision());
-            cv.setAuthor(srcCv.getAuthor());
-            cv.setMaintainer(srcCv.getMaintainer());
-            cv.setLifecycleState(LifecycleType.IN_REVIEW);
-            cv.setFullyQualifiedClassName(srcCv.getFullyQualifiedClassName());
-            cv.setErrorMessage(srcCv.getErrorMessage());
-            connectorVersionRepository.save(cv);
-
-            for (ConnVersionCapability srcCap : srcCv.getCapabilities()) {
-                ConnVersionCapability cap = new ConnVersionCapability();
-                cap.setObjectClass(srcCap.getObjectClass());
-                cap.setConnectorVersion(cv);
-                ConnVersionCapability savedCap = connVersionCapabilityRepository.save(cap);
-                for (ConnVersionCapabilityItem srcItem : srcCap.getItems()) {
-                    ConnVersionCapabilityItem item = new ConnVersionCapabilityItem();
-                    item.setConnVersionCapabilityId(savedCap.getId());
-                    item.setCapabilityId(srcItem.getCapabilityId());
-                    // Persisted via the items collection's cascade on flush. An explicit
-                    // repository.save() here would merge a MANAGED COPY into the session while this
-                    // detached instance sits in the cascading collection — two instances with the
-                    // same composite id, failing the flush with "A different object with the same
-                    // identifier value was already associated with the session".
-                    savedCap.getItems().add(item);
-                }
-                // Keep the in-memory collection in sync with what was persisted, so later reads of
-                // this version's capabilities see the cloned set without a refetch.
-                cv.getCapabilities().add(savedCap);
-            }
-
-            clone.getConnectorVersions().add(cv);
-        }
-        return clone;
+        Integer cloneId = connectorGraphCloner.cloneConnector(src.getId(), bundleRevision);
+        return connectorRepository.findById(cloneId)
+                .orElseThrow(() -> new IllegalStateException("Cloned connector not found: " + cloneId));
     }
 
     /**
@@ -1313,8 +1219,8 @@ public class ConnectorUploadService {
                 origCbv.setBuildFramework(cloneCbv.getBuildFramework());
                 connectorBundleVersionRepository.save(origCbv);
             }
-            copyVersionCapabilities(cloneCv, origCv);
             connectorVersionRepository.save(origCv);
+            connectorGraphCloner.replaceVersionCapabilities(cloneCv, origCv);
         }
         connectorRepository.save(original);
 
@@ -1331,31 +1237,6 @@ public class ConnectorUploadService {
         return original;
     }
 
-    /**
-     * Replaces {@code to}'s capabilities with a copy of {@code from}'s.
-     */
-    private void copyVersionCapabilities(ConnectorVersion from, ConnectorVersion to) {
-        if (to.getCapabilities() != null && !to.getCapabilities().isEmpty()) {
-            connVersionCapabilityRepository.deleteAll(to.getCapabilities());
-            to.getCapabilities().clear();
-        }
-        for (ConnVersionCapability srcCap : from.getCapabilities()) {
-            ConnVersionCapability cap = new ConnVersionCapability();
-            cap.setObjectClass(srcCap.getObjectClass());
-            cap.setConnectorVersion(to);
-            ConnVersionCapability saved = connVersionCapabilityRepository.save(cap);
-            for (ConnVersionCapabilityItem srcItem : srcCap.getItems()) {
-                ConnVersionCapabilityItem item = new ConnVersionCapabilityItem();
-                item.setConnVersionCapabilityId(saved.getId());
-                item.setCapabilityId(srcItem.getCapabilityId());
-                // Persisted via the items collection's cascade on flush (an explicit save would put
-                // a second instance with the same composite id into the session).
-                saved.getItems().add(item);
-            }
-            to.getCapabilities().add(saved);
-        }
-    }
-
     /**
      * Rewrites an existing connector version (+ its bundle version) with the edited values.
      */
@@ -1403,20 +1284,6 @@ public class ConnectorUploadService {
         return (value == null || value.isBlank()) ? null : value;
     }
 
-    /**
-     * Next available major version for a method: one higher than the largest major across ALL of the
-     * method's existing revisions, with the minor reset to 0. Creating a new version from any base
-     * revision therefore never collides with an existing major (1.0 + 2.0 present -> 3.0).
-     */
-    private String nextMajorRevision(UUID methodId, UUID applicationId) {
-        int maxMajor = integrationMethodRepository.findByApplicationId(applicationId).stream()
-                .filter(m -> m.getId().equals(methodId))
-                .mapToInt(m -> parseMajor(m.getRevision()))
-                .max()
-                .orElse(0);
-        return (maxMajor + 1) + ".0";
-    }
-
     /**
      * Minor bump: keeps the major segment and increments the minor (1.1 -> 1.2, "1" -> "1.1").
      */
@@ -1455,6 +1322,7 @@ public class ConnectorUploadService {
     private void saveConnectorVersionCapabilities(List<IntegrationMethodCapabilityGroupDto> groups, ConnectorVersion connectorVersion) {
         if (groups == null || groups.isEmpty()) return;
 
+        Map<String, Integer> capabilityIds = capabilityIdsByName(groups);
         for (IntegrationMethodCapabilityGroupDto group : groups) {
             if (group.objectClass() == null || group.capabilityNames() == null || group.capabilityNames().isEmpty())
                 continue;
@@ -1464,14 +1332,14 @@ public class ConnectorUploadService {
             cap.setConnectorVersion(connectorVersion);
             cap = connVersionCapabilityRepository.save(cap);
 
-            final Integer capId = cap.getId();
-            for (String capabilityName : group.capabilityNames()) {
-                capabilityRepository.findByName(capabilityName).ifPresent(capability -> {
-                    ConnVersionCapabilityItem item = new ConnVersionCapabilityItem();
-                    item.setConnVersionCapabilityId(capId);
-                    item.setCapabilityId(capability.getId());
-                    connVersionCapabilityItemRepository.save(item);
-                });
+            for (String capabilityName : new LinkedHashSet<>(group.capabilityNames())) {
+                Integer capabilityId = capabilityIds.get(capabilityName);
+                if (capabilityId == null) continue;
+                ConnVersionCapabilityItem item = new ConnVersionCapabilityItem();
+                item.setConnVersionCapabilityId(cap.getId());
+                item.setCapabilityId(capabilityId);
+                // Persisted via the items collection's cascade on flush (see saveIntegrationMethodCapabilities).
+                cap.getItems().add(item);
             }
         }
     }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.common.ItemFile;
+import com.evolveum.midpoint.integration.catalog.integration.GithubClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.HttpException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the GitHub repository of a low-code connector upload as an outbox job and writes the
+ * clone URL and browse link back to the bundle version when done.
+ * <p>
+ * Every step can be repeated: {@link GithubClient#createProject} reuses an existing repository and
+ * skips a version whose tag exists, so a retry after a partial success (repository created, links
+ * not yet written) completes the job instead of failing on "already exists". Client errors
+ * other than 429 are permanent and give the job up at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GithubRepositoryProvisioner implements OutboxJobHandler<GithubRepositoryProvisioner.Job> {
+
+    public static final String JOB_TYPE = "GITHUB_REPOSITORY";
+
+    /**
+     * Everything the job needs, captured at upload time so the worker does not load the
+     * connector graph.
+     */
+    public record Job(
+            Integer bundleVersionId,
+            String bundleVersionRevision,
+            String projectName,
+            String description,
+            String bundleVersion,
+            List<ItemFile> files
+    ) {
+        public String dedupeKey() {
+            return bundleVersionId + ":" + bundleVersionRevision;
+        }
+    }
+
+    private final GithubClient githubClient;
+    private final ConnectorBundleVersionRepository connectorBundleVersionRepository;
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Class<Job> payloadType() {
+        return Job.class;
+    }
+
+    @Override
+    public void handle(Job job) throws Exception {
+        GHRepository repo = githubClient.createProject(job.projectName(), job.description(), job.bundleVersion(),
+                job.files());
+        connectorBundleVersionRepository.updateRepositoryLinks(job.bundleVersionId(), job.bundleVersionRevision(),
+                repo.getHttpTransportUrl(), repo.getHtmlUrl().toString() + "/tree/main");
+        log.info("Created GitHub repository {} for bundle version {}", repo.getFullName(), job.dedupeKey());
+    }
+
+    /** 4xx responses other than 429 (rate limit) mean the request itself is refused; repeating it won't help. */
+    @Override
+    public boolean isPermanent(Exception error) {
+        return error instanceof HttpException httpEx
+                && httpEx.getResponseCode() >= 400 && httpEx.getResponseCode() < 500
+                && httpEx.getResponseCode() != 429;
+    }
+
+    @Override
+    public void giveUp(Job job, Exception lastError) {
+        String msg = (lastError instanceof HttpException httpEx && httpEx.getResponseCode() == 401)
+                ? "Unable to create GitHub repository - bad credentials."
+                : "Unable to create GitHub repository: " + lastError.getMessage();
+        connectorBundleVersionRepository.updateErrorMessage(job.bundleVersionId(), job.bundleVersionRevision(), msg);
+    }
+}
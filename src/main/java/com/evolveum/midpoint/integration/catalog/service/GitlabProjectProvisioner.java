@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.common.ItemFile;
+import com.evolveum.midpoint.integration.catalog.integration.GitlabClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Project;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The GitLab counterpart of {@link GithubRepositoryProvisioner}, used when {@code gitlab.url} is set:
+ * creates the low-code connector's GitLab project as an outbox job and writes the clone URL and
+ * browse link back to the bundle version when done. {@link GitlabClient#createProject} can be
+ * repeated, so a retry after a partial success completes the job.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GitlabProjectProvisioner implements OutboxJobHandler<GitlabProjectProvisioner.Job> {
+
+    public static final String JOB_TYPE = "GITLAB_PROJECT";
+
+    /**
+     * Everything the job needs, captured at upload time so the worker does not load the
+     * connector graph.
+     */
+    public record Job(
+            Integer bundleVersionId,
+            String bundleVersionRevision,
+            String projectName,
+            String bundleVersion,
+            List<ItemFile> files
+    ) {
+        public String dedupeKey() {
+            return bundleVersionId + ":" + bundleVersionRevision;
+        }
+    }
+
+    private final GitlabClient gitlabClient;
+    private final ConnectorBundleVersionRepository connectorBundleVersionRepository;
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Class<Job> payloadType() {
+        return Job.class;
+    }
+
+    @Override
+    public void handle(Job job) throws Exception {
+        Project project = gitlabClient.createProject(job.projectName(), job.bundleVersion(), job.files());
+        connectorBundleVersionRepository.updateRepositoryLinks(job.bundleVersionId(), job.bundleVersionRevision(),
+                project.getHttpUrlToRepo(), project.getWebUrl() + "/-/tree/main");
+        log.info("Created GitLab project {} for bundle version {}", project.getPathWithNamespace(), job.dedupeKey());
+    }
+
+    /** 4xx responses other than 429 (rate limit) mean the request itself is refused; repeating it won't help. */
+    @Override
+    public boolean isPermanent(Exception error) {
+        return error instanceof GitLabApiException gitlabEx
+                && gitlabEx.getHttpStatus() >= 400 && gitlabEx.getHttpStatus() < 500
+                && gitlabEx.getHttpStatus() != 429;
+    }
+
+    @Override
+    public void giveUp(Job job, Exception lastError) {
+        String msg = (lastError instanceof GitLabApiException gitlabEx && gitlabEx.getHttpStatus() == 401)
+                ? "Unable to create GitLab project - bad credentials."
+                : "Unable to create GitLab project: " + lastError.getMessage();
+        connectorBundleVersionRepository.updateErrorMessage(job.bundleVersionId(), job.bundleVersionRevision(), msg);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.integration.JenkinsClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends a queued build request to Jenkins ({@code buildWithParameters}) as an outbox job.
+ * <p>
+ * The repository parameters ({@code REPOSITORY_URL}, {@code BRANCH_URL}) are read from the bundle
+ * version when the job runs, not when it is queued: the repository of a low-code upload is created
+ * by {@link GithubRepositoryProvisioner} in the background, so the build waits (retries with backoff)
+ * until the links are there, and is given up when the repository could not be created.
+ * <p>
+ * Every attempt of one request carries the same {@code BUILD_REQUEST_ID} parameter, so the builds
+ * started by it can be told apart from those of other requests. A retry after a lost response may
+ * still start a second build; its callbacks are processed idempotently by {@link BuildCallbackInbox}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JenkinsBuildTrigger implements OutboxJobHandler<JenkinsBuildTrigger.Job> {
+
+    public static final String JOB_TYPE = "JENKINS_BUILD";
+
+    /**
+     * @param bundleVersionId   bundle version whose repository links are sent; {@code null} sends
+     *                          {@code parameters} as they are
+     * @param awaitRepository   whether the build needs the repository links, i.e. must wait for them
+     */
+    public record Job(
+            Integer connectorVersionId,
+            String connectorVersionRevision,
+            Integer bundleVersionId,
+            String bundleVersionRevision,
+            boolean awaitRepository,
+            String idempotencyKey,
+            Map<String, String> parameters
+    ) {
+        /** One queued build per connector version; further triggers are dropped until it is sent. */
+        public String dedupeKey() {
+            return connectorVersionId + ":" + connectorVersionRevision;
+        }
+    }
+
+    /** The build cannot be started, and retrying will not change that. */
+    static final class BuildNotPossibleException extends Exception {
+
+        BuildNotPossibleException(String message) {
+            super(message);
+        }
+    }
+
+    private final JenkinsClient jenkinsClient;
+    private final ConnectorVersionRepository connectorVersionRepository;
+    private final ConnectorBundleVersionRepository connectorBundleVersionRepository;
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Class<Job> payloadType() {
+        return Job.class;
+    }
+
+    @Override
+    public void handle(Job job) throws Exception {
+        Map<String, String> parameters = new HashMap<>(job.parameters());
+        if (job.bundleVersionId() != null) {
+            parameters.putAll(repositoryParameters(job));
+        } else {
+            parameters.putIfAbsent("REPOSITORY_URL", "");
+            parameters.putIfAbsent("BRANCH_URL", "");
+        }
+        parameters.put("BUILD_REQUEST_ID", job.idempotencyKey());
+
+        HttpResponse<String> response = jenkinsClient.triggerJob(parameters);
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            String message = "Jenkins answered " + status + ": " + response.body();
+            // 4xx other than 429 (bad credentials, unknown job, ...) will not go away by retrying
+            if (status / 100 == 4 && status != 429) {
+                throw new BuildNotPossibleException(message);
+            }
+            throw new IOException(message);
+        }
+        log.info("Jenkins build of connector version {} triggered (request {})", job.dedupeKey(), job.idempotencyKey());
+    }
+
+    @Override
+    public boolean isPermanent(Exception error) {
+        return error instanceof BuildNotPossibleException;
+    }
+
+    @Override
+    public void giveUp(Job job, Exception lastError) {
+        connectorVersionRepository.updateErrorMessage(job.connectorVersionId(), job.connectorVersionRevision(),
+                "Unable to trigger Jenkins build: " + lastError.getMessage());
+    }
+
+    private Map<String, String> repositoryParameters(Job job) throws BuildNotPossibleException {
+        String bundleVersion = job.bundleVersionId() + ":" + job.bundleVersionRevision();
+        ConnectorBundleVersionRepository.RepositoryLinks links = connectorBundleVersionRepository
+                .findRepositoryLinks(job.bundleVersionId(), job.bundleVersionRevision())
+                .orElseThrow(() -> new BuildNotPossibleException("Bundle version " + bundleVersion + " no longer exists"));
+        boolean hasRepository = links.getGitCloneUrl() != null && !links.getGitCloneUrl().isEmpty();
+        if (!hasRepository && job.awaitRepository()) {
+            if (links.getErrorMessage() != null) {
+                throw new BuildNotPossibleException(links.getErrorMessage());
+            }
+            throw new IllegalStateException("Repository of bundle version " + bundleVersion + " is not created yet");
+        }
+        return Map.of(
+                "REPOSITORY_URL", hasRepository ? links.getGitCloneUrl() : "",
+                "BRANCH_URL", links.getBrowseLink() != null ? links.getBrowseLink() : "");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.LoginProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-username and per-client-IP token buckets for login attempts.
+ * <p>
+ * Each key starts with {@code attemptsBurst} tokens and refills at {@code attemptsPerMinute}.
+ * An attempt needs a token from both its username and its IP bucket, so a credential-stuffing
+ * run is slowed down whether it rotates usernames from one address or addresses for one username.
+ * Buckets that have been idle long enough to be full again are dropped, keeping the map bounded
+ * by the number of recently active keys.
+ * <p>
+ * The client IP is {@link jakarta.servlet.ServletRequest#getRemoteAddr()}; behind a reverse proxy
+ * this relies on {@code server.forward-headers-strategy} resolving it from {@code X-Forwarded-For},
+ * otherwise every client would share the proxy's bucket.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final int cleanupThreshold;
+
+    public LoginThrottle(LoginProperties properties) {
+        this(properties, System::nanoTime, CLEANUP_THRESHOLD);
+    }
+
+    LoginThrottle(LoginProperties properties, LongSupplier nanoClock, int cleanupThreshold) {
+        this.capacity = properties.attemptsBurst();
+        this.tokensPerNano = properties.attemptsPerMinute() / (double) TimeUnit.MINUTES.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.cleanupThreshold = cleanupThreshold;
+    }
+
+    /** Takes one token for the username and one for the IP; false when either bucket is empty. */
+    public boolean tryAcquire(String username, String clientIp) {
+        long now = nanoClock.getAsLong();
+        if (buckets.size() > cleanupThreshold) {
+            evictIdle(now);
+        }
+        boolean userAllowed = username == null
+                || bucket("user:" + username.toLowerCase(Locale.ROOT), now).tryConsume(now);
+        boolean ipAllowed = clientIp == null
+                || bucket("ip:" + clientIp, now).tryConsume(now);
+        return userAllowed && ipAllowed;
+    }
+
+    /** Number of usernames and IPs currently tracked. */
+    int trackedKeys() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(String key, long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, now));
+    }
+
+    private void evictIdle(long now) {
+        long fullRefillNanos = (long) (capacity / tokensPerNano);
+        buckets.values().removeIf(bucket -> bucket.idleFor(now) > fullRefillNanos);
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized long idleFor(long now) {
+            return now - lastRefill;
+        }
+    }
+}
@@ -7,18 +7,33 @@
 package com.evolveum.midpoint.integration.catalog.service;
 
 import com.evolveum.midpoint.integration.catalog.configuration.LogoStorageProperties;
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
 import com.evolveum.midpoint.integration.catalog.object.Application;
 import com.evolveum.midpoint.integration.catalog.repository.ApplicationRepository;
+import com.evolveum.midpoint.integration.catalog.util.SizeLimitedInputStream;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -34,49 +49,52 @@ public class LogoStorageService {
             ".png", ".jpg", ".jpeg", ".gif", ".svg", ".webp"
     );
 
+    /** Extension given to logos uploaded as a raw body without a file name. */
+    private static final Map<String, String> EXTENSIONS_BY_CONTENT_TYPE = Map.of(
+            "image/png", ".png",
+            "image/jpeg", ".jpg",
+            "image/jpg", ".jpg",
+            "image/gif", ".gif",
+            "image/svg+xml", ".svg",
+            "image/webp", ".webp"
+    );
+
     private final LogoStorageProperties logoStorageProperties;
     private final ApplicationRepository applicationRepository;
-    private final Path basePath;
+    private final BlobStore blobStore;
 
     public LogoStorageService(LogoStorageProperties logoStorageProperties,
-                              ApplicationRepository applicationRepository) {
+                              ApplicationRepository applicationRepository,
+                              @Qualifier("logoBlobStore") BlobStore blobStore) {
         this.logoStorageProperties = logoStorageProperties;
         this.applicationRepository = applicationRepository;
-        this.basePath = Paths.get(logoStorageProperties.basePath()).toAbsolutePath().normalize();
-        log.info("Logo storage base path resolved to: {}", this.basePath);
-        validateAndInitializeStorageDirectory();
+        this.blobStore = blobStore;
     }
 
-    private void validateAndInitializeStorageDirectory() {
-        try {
-            if (!Files.exists(basePath)) {
-                Files.createDirectories(basePath);
-                log.info("Created logo storage directory: {}", basePath);
-            }
-            if (!Files.isDirectory(basePath)) {
-                throw new IllegalStateException("Logo storage path is not a directory: " + basePath);
-            }
-            if (!Files.isWritable(basePath)) {
-                throw new IllegalStateException("Logo storage directory is not writable: " + basePath);
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to create logo storage directory: " + basePath, e);
-        }
+    @PostConstruct
+    void start() {
+        hashLegacyLogos();
     }
 
     public void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Logo file is required");
         }
-        if (file.getSize() > logoStorageProperties.maxSizeBytes()) {
+        validateUpload(file.getOriginalFilename(), file.getContentType(), file.getSize());
+    }
+
+    /**
+     * Checks what is known about an upload before its content is read. {@code declaredSize} is the
+     * announced length, or -1 when unknown (the limit is then enforced while streaming).
+     */
+    private void validateUpload(String originalFilename, String contentType, long declaredSize) {
+        if (declaredSize > logoStorageProperties.maxSizeBytes()) {
             throw new IllegalArgumentException(
                     "Logo file size exceeds maximum allowed size of " + logoStorageProperties.maxSizeBytes() + " bytes");
         }
-        String contentType = file.getContentType();
         if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
             throw new IllegalArgumentException("Invalid content type '" + contentType + "'");
         }
-        String originalFilename = file.getOriginalFilename();
         if (originalFilename != null) {
             String extension = getFileExtension(originalFilename).toLowerCase();
             if (!ALLOWED_EXTENSIONS.contains(extension)) {
@@ -92,61 +110,136 @@ public class LogoStorageService {
     @Transactional
     public Application saveLogo(Application application, MultipartFile file) throws IOException {
         validateFile(file);
-        deleteLogoFile(application.getLogoPath());
+        try (InputStream in = file.getInputStream()) {
+            return saveLogo(application, file.getOriginalFilename(), file.getContentType(), file.getSize(), in);
+        }
+    }
 
-        String safeFileName = generateSafeFileName(file.getOriginalFilename());
-        Path targetPath = getLogoPath(safeFileName);
-        Files.createDirectories(targetPath.getParent());
-        Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Streams a logo into a staging file of the store (its final place for the local store), enforcing
+     * the size limit and hashing it while copying; the hash is kept as the logo's ETag. Without a file
+     * name the extension follows the content type;
+     * {@code declaredSize} is -1 when unknown. The previous logo file is deleted once the new path is
+     * committed; if the transaction rolls back, the new file is deleted instead.
+     */
+    @Transactional
+    public Application saveLogo(Application application, String originalFilename, String contentType,
+                                long declaredSize, InputStream content) throws IOException {
+        validateUpload(originalFilename, contentType, declaredSize);
+
+        String safeFileName = originalFilename != null
+                ? generateSafeFileName(originalFilename)
+                : UUID.randomUUID() + EXTENSIONS_BY_CONTENT_TYPE.get(contentType.toLowerCase());
+        MessageDigest digest = sha256();
+        Path staging = blobStore.newStagingFile();
+        try {
+            long size;
+            try (InputStream in = new DigestInputStream(
+                    new SizeLimitedInputStream(content, logoStorageProperties.maxSizeBytes(), "Logo file"), digest)) {
+                size = Files.copy(in, staging, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Logo file is required");
+            }
+            blobStore.putFile(safeFileName, staging, contentType);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        deleteLogoFileOnCompletion(application.getLogoPath(), safeFileName);
 
         application.setLogoPath(safeFileName);
+        application.setLogoHash(HexFormat.of().formatHex(digest.digest()));
         log.info("Saved logo for application {}: {}", application.getId(), safeFileName);
         return applicationRepository.save(application);
     }
 
     @Transactional
     public Application deleteLogo(Application application) {
-        if (application.getLogoPath() != null) {
-            deleteLogoFile(application.getLogoPath());
-        }
+        deleteLogoFileOnCompletion(application.getLogoPath(), null);
         application.setLogoPath(null);
+        application.setLogoHash(null);
         log.info("Deleted logo for application {}", application.getId());
         return applicationRepository.save(application);
     }
 
-    public byte[] loadLogoBytes(String logoPath) {
+    /**
+     * The application's logo, streamed from the store when the response body is written; null when it
+     * has none or its file is missing.
+     */
+    public Resource loadLogo(Application application) {
+        String logoPath = application.getLogoPath();
         if (logoPath == null || logoPath.isBlank()) {
             return null;
         }
-        Path filePath = getLogoPath(logoPath);
-        if (!Files.exists(filePath)) {
-            log.warn("Logo file not found: {}", filePath);
-            return null;
-        }
         try {
-            return Files.readAllBytes(filePath);
+            Optional<BlobStore.BlobInfo> info = blobStore.stat(logoPath);
+            if (info.isEmpty()) {
+                log.warn("Logo file not found: {}", logoPath);
+                return null;
+            }
+            return blobStore.resource(logoPath, info.get());
         } catch (IOException e) {
-            log.error("Failed to read logo file: {}", filePath, e);
+            log.error("Failed to read logo file: {}", logoPath, e);
             return null;
         }
     }
 
-    public Path getLogoPath(String fileName) {
-        return basePath.resolve(fileName);
+    /** Hashes the logos stored before their hashes were kept, so every logo gets its ETag. */
+    private void hashLegacyLogos() {
+        for (Application application : applicationRepository.findByLogoPathIsNotNullAndLogoHashIsNull()) {
+            String logoPath = application.getLogoPath();
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(blobStore.open(logoPath), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+                applicationRepository.updateLogoHash(application.getId(), logoPath,
+                        HexFormat.of().formatHex(digest.digest()));
+            } catch (NoSuchFileException e) {
+                log.warn("Logo file not found: {}", logoPath);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to hash logo file {}: {}", logoPath, e.getMessage());
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Deletes {@code replacedPath} after the transaction commits, or {@code storedPath} (the file written
+     * in it, may be null) after it rolls back, so the logo path stored in the database always names an
+     * existing file. Without a transaction the replaced file is deleted right away.
+     */
+    private void deleteLogoFileOnCompletion(String replacedPath, String storedPath) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteLogoFile(replacedPath);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    deleteLogoFile(replacedPath);
+                } else if (status == STATUS_ROLLED_BACK) {
+                    deleteLogoFile(storedPath);
+                }
+            }
+        });
     }
 
     private void deleteLogoFile(String logoPath) {
         if (logoPath == null || logoPath.isBlank()) {
             return;
         }
-        Path filePath = getLogoPath(logoPath);
         try {
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                log.info("Deleted logo file: {}", filePath);
-            }
+            blobStore.delete(logoPath);
+            log.info("Deleted logo file: {}", logoPath);
         } catch (IOException e) {
-            log.error("Failed to delete logo file: {}", filePath, e);
+            log.error("Failed to delete logo file: {}", logoPath, e);
         }
     }
 
@@ -158,7 +251,12 @@ public class LogoStorageService {
 
     public boolean logoExists(String logoPath) {
         if (logoPath == null || logoPath.isBlank()) return false;
-        return Files.exists(getLogoPath(logoPath));
+        try {
+            return blobStore.stat(logoPath).isPresent();
+        } catch (IOException e) {
+            log.error("Failed to check logo file: {}", logoPath, e);
+            return false;
+        }
     }
 
     public String getBasePath() {
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.OutboxProperties;
+import com.evolveum.midpoint.integration.catalog.object.OutboxJob;
+import com.evolveum.midpoint.integration.catalog.repository.OutboxJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs outbox jobs on a fixed worker pool.
+ * <p>
+ * A poll claims due jobs (as many as there are idle workers) and hands them to the pool; it runs on
+ * the shared task scheduler every {@code outbox.poll-interval} and right after a transaction that
+ * enqueued a job commits, never two at a time. A failed job is retried with exponential backoff and jitter until
+ * {@code outbox.max-attempts}, then marked FAILED and passed to the handler's {@code giveUp}; a failure
+ * the handler classifies as permanent skips the retries. A job runs under a lease of
+ * {@code outbox.lease}; a worker that overruns it and finds the job claimed again records nothing.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxProperties properties;
+    private final OutboxJobRepository outboxJobRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, OutboxJobHandler<?>> handlers;
+    private final TaskScheduler taskScheduler;
+    private final ExecutorService workers;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private volatile ScheduledFuture<?> polling;
+
+    public OutboxDispatcher(OutboxProperties properties, OutboxJobRepository outboxJobRepository,
+                            ObjectMapper objectMapper, List<OutboxJobHandler<?>> handlers,
+                            TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.outboxJobRepository = outboxJobRepository;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(OutboxJobHandler::jobType, Function.identity()));
+        this.taskScheduler = taskScheduler;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.workerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        Duration interval = properties.pollInterval();
+        polling = taskScheduler.scheduleWithFixedDelay(this::poll, Instant.now().plus(interval), interval);
+    }
+
+    @PreDestroy
+    void stop() {
+        polling.cancel(false);
+        workers.shutdown();
+    }
+
+    /** Checks for due jobs now instead of at the next poll. */
+    public void wakeUp() {
+        ScheduledFuture<?> current = polling;
+        if (current != null && !current.isCancelled()) {
+            taskScheduler.schedule(this::poll, Instant.now());
+        }
+    }
+
+    private synchronized void poll() {
+        try {
+            int idle = properties.workerThreads() - busyWorkers.get();
+            if (idle <= 0) {
+                return;
+            }
+            List<OutboxJob> jobs = outboxJobRepository.claimDue(idle, properties.lease().toSeconds());
+            for (OutboxJob job : jobs) {
+                busyWorkers.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        busyWorkers.decrementAndGet();
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll the outbox: {}", e.getMessage());
+        }
+    }
+
+    private void run(OutboxJob job) {
+        OutboxJobHandler<?> handler = handlers.get(job.getJobType());
+        if (handler == null) {
+            log.error("No handler for outbox job {} of type {}", job.getId(), job.getJobType());
+            if (outboxJobRepository.markFailed(job.getId(), job.getAttempts(),
+                    "No handler for job type " + job.getJobType()) == 0) {
+                logLostLease(job);
+            }
+            return;
+        }
+        execute(job, handler);
+    }
+
+    private <P> void execute(OutboxJob job, OutboxJobHandler<P> handler) {
+        P payload;
+        try {
+            payload = objectMapper.readValue(job.getPayload(), handler.payloadType());
+        } catch (Exception e) {
+            log.error("Unreadable payload of outbox job {} ({}): {}", job.getId(), job.getJobType(), e.getMessage());
+            if (outboxJobRepository.markFailed(job.getId(), job.getAttempts(),
+                    truncate("Unreadable payload: " + e.getMessage())) == 0) {
+                logLostLease(job);
+            }
+            return;
+        }
+
+        try {
+            handler.handle(payload);
+            if (outboxJobRepository.markDone(job.getId(), job.getAttempts()) == 0) {
+                logLostLease(job);
+                return;
+            }
+            log.debug("Outbox job {} ({}) done after {} attempt(s)", job.getId(), job.getJobType(), job.getAttempts());
+        } catch (Exception e) {
+            String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            if (job.getAttempts() >= properties.maxAttempts() || handler.isPermanent(e)) {
+                log.error("Outbox job {} ({}) failed permanently after {} attempt(s): {}",
+                        job.getId(), job.getJobType(), job.getAttempts(), error);
+                if (outboxJobRepository.markFailed(job.getId(), job.getAttempts(), error) == 0) {
+                    // the job is running again elsewhere; that run decides whether to give up
+                    logLostLease(job);
+                    return;
+                }
+                handler.giveUp(payload, e);
+            } else {
+                Duration delay = backoff(job.getAttempts());
+                log.warn("Outbox job {} ({}) attempt {} failed, retrying in {}s: {}",
+                        job.getId(), job.getJobType(), job.getAttempts(), delay.toSeconds(), error);
+                if (outboxJobRepository.reschedule(job.getId(), job.getAttempts(),
+                        OffsetDateTime.now().plus(delay), error) == 0) {
+                    logLostLease(job);
+                }
+            }
+        }
+    }
+
+    /**
+     * The lease expired while the job ran and another dispatcher claimed it again; its outcome is
+     * the one that counts, so this run's result is dropped.
+     */
+    private static void logLostLease(OutboxJob job) {
+        log.warn("Outbox job {} ({}) attempt {} lost its lease before finishing; the result is dropped",
+                job.getId(), job.getJobType(), job.getAttempts());
+    }
+
+    /** initialBackoff * 2^(attempt - 1), capped at maxBackoff, minus up to 20 % jitter. */
+    private Duration backoff(int attempt) {
+        long initial = properties.initialBackoff().toMillis();
+        long max = properties.maxBackoff().toMillis();
+        long delay = attempt >= 31 ? max : Math.min(max, initial << Math.max(0, attempt - 1));
+        long jitter = (long) (delay * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(delay - jitter);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
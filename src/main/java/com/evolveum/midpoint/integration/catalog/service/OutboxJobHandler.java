@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+/**
+ * Executes one type of outbox job. Implementations are Spring beans picked up by
+ * {@link OutboxDispatcher}; the payload is the JSON form of {@code payloadType()} written by
+ * {@link OutboxService#enqueue}.
+ * <p>
+ * {@link #handle} may run more than once for the same job (retries, or a worker dying after the
+ * side effect), so it should tolerate repeats.
+ */
+public interface OutboxJobHandler<P> {
+
+    String jobType();
+
+    Class<P> payloadType();
+
+    /** Performs the job; an exception schedules a retry unless {@link #isPermanent} says otherwise. */
+    void handle(P payload) throws Exception;
+
+    /**
+     * Whether the failure cannot go away by retrying (bad credentials, a rejected request), so the job
+     * is given up at once instead of using up {@code outbox.max-attempts} with backoff.
+     */
+    default boolean isPermanent(Exception error) {
+        return false;
+    }
+
+    /**
+     * Called once when the job will not be retried: it has failed {@code outbox.max-attempts} times or
+     * with a permanent error.
+     */
+    default void giveUp(P payload, Exception lastError) {
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.repository.OutboxJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes outbox jobs. Call from inside the transaction whose commit should trigger the job: the
+ * job row commits (or rolls back) together with it, and the dispatcher is woken after commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxJobRepository outboxJobRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Enqueues a job unless one with the same type and dedupe key is still pending or running.
+     *
+     * @return true when a new job was enqueued
+     */
+    public boolean enqueue(String jobType, String dedupeKey, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise " + jobType + " job payload", e);
+        }
+
+        boolean inserted = outboxJobRepository.enqueue(jobType, dedupeKey, json) > 0;
+        if (!inserted) {
+            log.debug("Outbox job {} for {} is already pending, not enqueued again", jobType, dedupeKey);
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.wakeUp();
+                }
+            });
+        } else {
+            outboxDispatcher.wakeUp();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.LoginProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt password checks on a small dedicated thread pool instead of the servlet thread.
+ * <p>
+ * BCrypt is deliberately slow; a burst of logins hashed on request threads would starve catalog
+ * reads. The pool has a bounded queue: when it is full, new logins are refused with 503 straight
+ * away instead of piling up behind the ones already waiting.
+ */
+@Slf4j
+@Component
+public class PasswordVerifier {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordVerifier(LoginProperties properties) {
+        this(new BCryptPasswordEncoder(properties.bcryptStrength()), newExecutor(properties));
+    }
+
+    PasswordVerifier(BCryptPasswordEncoder passwordEncoder, ThreadPoolExecutor executor) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor newExecutor(LoginProperties properties) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                properties.verifierThreads(), properties.verifierThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.verifierQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** Checks {@code rawPassword} against {@code storedHash} on the verifier pool. */
+    public CompletableFuture<Boolean> matches(String rawPassword, String storedHash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(rawPassword, storedHash), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password verification queue is full ({} waiting), refusing login", executor.getQueue().size());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent logins, please try again shortly.");
+        }
+    }
+
+    /** Whether {@code storedHash} was made with a lower work factor than the configured one. */
+    public boolean needsRehash(String storedHash) {
+        return passwordEncoder.upgradeEncoding(storedHash);
+    }
+
+    /** Hashes with the configured work factor. Call from the verifier pool (see {@link #matches}). */
+    public String encode(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.RecentlyUsedProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recently used applications, kept in recently_used_applications and cached in memory.
+ * <p>
+ * The table is the source of truth, shared by all catalog replicas. Recording a click costs no
+ * database round trip: the use goes into this node's cached lists (one global, one per user) and
+ * a queue that is upserted in JDBC batches every {@code flushInterval}. A user's list is read
+ * from the table on first access and again once it is older than {@code flushInterval}, with the
+ * uses still queued on this node laid over it; the global list is re-read after every flush. Uses
+ * made on other replicas therefore show up within about two flush intervals. The table is pruned
+ * to {@code retainPerUser} rows per user and {@code retainTotal} rows overall.
+ */
+@Slf4j
+@Component
+public class RecentlyUsedTracker {
+
+    private static final String UPSERT_SQL = """
+            insert into recently_used_applications (user_id, application_id, used_at)
+            values (?, ?, ?)
+            on conflict (user_id, application_id)
+            do update set used_at = greatest(recently_used_applications.used_at, excluded.used_at)
+            """;
+
+    private static final String PRUNE_SQL = """
+            delete from recently_used_applications where id in (
+                select id from (
+                    select id,
+                           row_number() over (partition by user_id order by used_at desc, id desc) as user_rank,
+                           row_number() over (order by used_at desc, id desc) as total_rank
+                    from recently_used_applications
+                ) ranked
+                where user_rank > ? or total_rank > ?
+            )
+            """;
+
+    private static final String USER_RECENT_SQL = """
+            select application_id from recently_used_applications
+            where user_id = ?
+            order by used_at desc, id desc
+            limit ?
+            """;
+
+    /** The newest rows (from idx_rua_used_at) collapsed to distinct applications. */
+    private static final String GLOBAL_RECENT_SQL = """
+            select application_id from (
+                select application_id, used_at from recently_used_applications
+                order by used_at desc
+                limit ?
+            ) newest
+            group by application_id
+            order by max(used_at) desc
+            limit ?
+            """;
+
+    /** Rows read for the global list; enough for its capacity unless a few applications dominate. */
+    private static final int GLOBAL_SCAN_FACTOR = 16;
+
+    private final RecentlyUsedProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Ring global;
+    private final ConcurrentMap<String, Ring> perUser = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Use> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final TaskScheduler taskScheduler;
+    private final List<ScheduledFuture<?>> scheduled = new ArrayList<>();
+    private final long userTtlNanos;
+
+    public RecentlyUsedTracker(RecentlyUsedProperties properties, JdbcTemplate jdbcTemplate,
+                               TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.global = new Ring(properties.globalCapacity());
+        this.userTtlNanos = properties.flushInterval().toNanos();
+    }
+
+    @PostConstruct
+    void start() {
+        refreshGlobalQuietly();
+        Duration flushInterval = properties.flushInterval();
+        Duration pruneInterval = properties.pruneInterval();
+        scheduled.add(taskScheduler.scheduleWithFixedDelay(this::syncQuietly,
+                Instant.now().plus(flushInterval), flushInterval));
+        scheduled.add(taskScheduler.scheduleWithFixedDelay(this::pruneQuietly,
+                Instant.now().plus(pruneInterval), pruneInterval));
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduled.forEach(task -> task.cancel(false));
+        flushQuietly();
+    }
+
+    /** Records a use of the application; persisted with the next flush. */
+    public void record(UUID applicationId, String userId) {
+        long now = System.nanoTime();
+        global.push(applicationId, now);
+        userRing(userId).push(applicationId, now);
+
+        if (pendingCount.incrementAndGet() > properties.maxPending()) {
+            pendingCount.decrementAndGet();
+            log.debug("Recently-used flush queue is full, keeping use of {} in memory only", applicationId);
+            return;
+        }
+        pending.add(new Use(userId, applicationId, Instant.now()));
+    }
+
+    /** Distinct application IDs across all users, most recent first. */
+    public List<UUID> recentApplicationIds(int limit) {
+        return global.recent(limit);
+    }
+
+    /** Distinct application IDs used by the user, most recent first. */
+    public List<UUID> recentApplicationIds(String userId, int limit) {
+        Ring ring = perUser.get(userId);
+        if (ring == null || ring.isStale(System.nanoTime(), userTtlNanos)) {
+            ring = loadUser(userId, ring);
+        }
+        return ring.recent(limit);
+    }
+
+    /** Writes pending uses in batches; repeated uses of one application by one user are collapsed. */
+    void flush() {
+        List<Use> batch = new ArrayList<>(properties.flushBatchSize());
+        Use use;
+        while ((use = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(use);
+            if (batch.size() >= properties.flushBatchSize()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    void prune() {
+        int deleted = jdbcTemplate.update(PRUNE_SQL, properties.retainPerUser(), properties.retainTotal());
+        if (deleted > 0) {
+            log.debug("Pruned {} recently used application rows", deleted);
+        }
+    }
+
+    private void write(Collection<Use> uses) {
+        Map<String, Use> latest = new LinkedHashMap<>();
+        for (Use use : uses) {
+            latest.merge(use.userId() + '\u0000' + use.applicationId(), use,
+                    (a, b) -> a.usedAt().isAfter(b.usedAt()) ? a : b);
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, latest.values(), properties.flushBatchSize(), (ps, use) -> {
+            ps.setString(1, use.userId());
+            ps.setObject(2, use.applicationId());
+            ps.setTimestamp(3, Timestamp.from(use.usedAt()));
+        });
+    }
+
+    /** Replaces the global list with the one in the table plus the uses queued on this node. */
+    void refreshGlobal() {
+        int capacity = properties.globalCapacity();
+        List<UUID> stored = jdbcTemplate.queryForList(GLOBAL_RECENT_SQL, UUID.class,
+                capacity * GLOBAL_SCAN_FACTOR, capacity);
+        Ring ring = Ring.loaded(capacity, stored, System.nanoTime());
+        for (Use use : pending) {
+            ring.push(use.applicationId(), ring.lastUse());
+        }
+        global = ring;
+    }
+
+    /**
+     * Reads the user's list from the table and lays the uses queued on this node over it. When the
+     * table cannot be read, the cached list (if any) is served as it is.
+     */
+    private Ring loadUser(String userId, Ring cached) {
+        try {
+            List<UUID> stored = jdbcTemplate.queryForList(USER_RECENT_SQL, UUID.class,
+                    userId, properties.perUserCapacity());
+            Ring ring = Ring.loaded(properties.perUserCapacity(), stored, System.nanoTime());
+            for (Use use : pending) {
+                if (use.userId().equals(userId)) {
+                    ring.push(use.applicationId(), ring.lastUse());
+                }
+            }
+            evictIdleUsersIfFull();
+            perUser.put(userId, ring);
+            return ring;
+        } catch (DataAccessException e) {
+            log.warn("Could not load recently used applications of {}: {}", userId, e.getMessage());
+            return cached != null ? cached : new Ring(properties.perUserCapacity());
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist recently used applications: {}", e.getMessage());
+        }
+        refreshGlobalQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist recently used applications: {}", e.getMessage());
+        }
+    }
+
+    private void refreshGlobalQuietly() {
+        try {
+            refreshGlobal();
+        } catch (RuntimeException e) {
+            log.warn("Could not load recently used applications, keeping the cached list: {}", e.getMessage());
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune recently used applications: {}", e.getMessage());
+        }
+    }
+
+    /** The user's cached list; a new one is not loaded yet, so the next read fetches it from the table. */
+    private Ring userRing(String userId) {
+        evictIdleUsersIfFull();
+        return perUser.computeIfAbsent(userId, k -> new Ring(properties.perUserCapacity()));
+    }
+
+    private void evictIdleUsersIfFull() {
+        if (perUser.size() > properties.maxTrackedUsers()) {
+            evictIdleUsers();
+        }
+    }
+
+    /** Drops the least recently active half of the per-user rings. */
+    private void evictIdleUsers() {
+        long[] lastUses = perUser.values().stream().mapToLong(Ring::lastUse).sorted().toArray();
+        if (lastUses.length == 0) {
+            return;
+        }
+        long cutoff = lastUses[lastUses.length / 2];
+        perUser.values().removeIf(ring -> ring.lastUse() < cutoff);
+    }
+
+    private record Use(String userId, UUID applicationId, Instant usedAt) {
+    }
+
+    /**
+     * Distinct application IDs, newest last, holding at most {@code capacity} of them. A repeated
+     * use moves the application to the newest position, so the list never holds duplicates and
+     * {@link #recent} returns up to {@code capacity} different applications. Lists are a few dozen
+     * entries long, so a monitor and linear updates are cheaper than anything cleverer.
+     */
+    static final class Ring {
+
+        private final int capacity;
+        private final LinkedHashSet<UUID> ids = new LinkedHashSet<>();
+        private final long loadedAt;
+        private final boolean loaded;
+        private volatile long lastUse;
+
+        Ring(int capacity) {
+            this(capacity, false, 0);
+        }
+
+        private Ring(int capacity, boolean loaded, long loadedAt) {
+            this.capacity = capacity;
+            this.loaded = loaded;
+            this.loadedAt = loadedAt;
+            this.lastUse = loadedAt;
+        }
+
+        /** A list read from the table at {@code now}; {@code newestFirst} as the queries return it. */
+        static Ring loaded(int capacity, List<UUID> newestFirst, long now) {
+            Ring ring = new Ring(capacity, true, now);
+            for (UUID id : newestFirst.reversed()) {
+                ring.push(id, now);
+            }
+            return ring;
+        }
+
+        synchronized void push(UUID applicationId, long now) {
+            lastUse = now;
+            ids.remove(applicationId);
+            ids.addLast(applicationId);
+            if (ids.size() > capacity) {
+                ids.removeFirst();
+            }
+        }
+
+        synchronized List<UUID> recent(int limit) {
+            return ids.reversed().stream().limit(limit).toList();
+        }
+
+        /** Whether the list was never read from the table or was read more than {@code ttlNanos} ago. */
+        boolean isStale(long now, long ttlNanos) {
+            return !loaded || now - loadedAt > ttlNanos;
+        }
+
+        long lastUse() {
+            return lastUse;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Objects of a {@link BlobStore} whose references are counted in a database table: one row per
+ * object, with a {@code ref_count} that a trigger keeps equal to the number of rows referring to it
+ * (tutorial manifests, connector bundle versions).
+ * <p>
+ * Storing an object first registers its row, which inserts it or locks the existing one, and only
+ * then writes the object. Garbage collection deletes the row of an unreferenced object, re-checking the
+ * count under the row lock, before the object, in one transaction per object. So a collection racing
+ * with a store either finishes first (and the object is written again) or waits and sees the new
+ * reference.
+ */
+@Slf4j
+public class RefCountedBlobs {
+
+    /** The reference-count table of one kind of object, keyed by an id the object key is derived from. */
+    public interface ReferenceTable {
+
+        /** Inserts the row of {@code id}, or locks it when it exists. */
+        void register(String id, long size);
+
+        /** Ids whose reference count has dropped to zero. */
+        List<String> findUnreferenced();
+
+        /** @return 1 when the row was removed, 0 when it is referenced again (or already gone) */
+        int deleteIfUnreferenced(String id);
+    }
+
+    private final String kind;
+    private final BlobStore store;
+    private final ReferenceTable table;
+    private final UnaryOperator<String> keyOf;
+    private final TransactionTemplate collectTransaction;
+
+    /**
+     * @param kind  what the objects are, for log messages
+     * @param keyOf the store key of the object with a given id
+     */
+    public RefCountedBlobs(String kind, BlobStore store, ReferenceTable table, UnaryOperator<String> keyOf,
+                           PlatformTransactionManager transactionManager) {
+        this.kind = kind;
+        this.store = store;
+        this.table = table;
+        this.keyOf = keyOf;
+        // collections also run after the commit of a transaction that released references
+        this.collectTransaction = new TransactionTemplate(transactionManager);
+        this.collectTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Registers {@code id} and hands the staging file to the store under its key, dropping it when the
+     * object is already stored. Must run in a transaction, which holds the row lock until it ends.
+     */
+    public void store(String id, Path stagingFile, String contentType) throws IOException {
+        try {
+            table.register(id, Files.size(stagingFile));
+            String key = keyOf.apply(id);
+            if (store.stat(key).isEmpty()) {
+                store.putFile(key, stagingFile, contentType);
+            }
+        } finally {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+
+    /** Deletes the objects nothing refers to any more; failures are logged and retried by the next run. */
+    public void collectGarbage() {
+        List<String> unreferenced;
+        try {
+            unreferenced = table.findUnreferenced();
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up unreferenced {}s: {}", kind, e.getMessage());
+            return;
+        }
+        for (String id : unreferenced) {
+            try {
+                collectTransaction.executeWithoutResult(status -> {
+                    if (table.deleteIfUnreferenced(id) == 1) {
+                        try {
+                            store.delete(keyOf.apply(id));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete unreferenced {} {}: {}", kind, id, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.ReferenceCacheConfig;
+import com.evolveum.midpoint.integration.catalog.configuration.ReferenceCacheProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Hit/miss counts of the reference-entity cache regions (see {@link ReferenceCacheConfig}), taken from
+ * the Hibernate statistics and logged every {@code reference-cache.metrics-log-interval} when
+ * {@code reference-cache.statistics-enabled} is on. The same counts per cache are exposed over JMX as
+ * {@code javax.cache:type=CacheStatistics} either way.
+ */
+@Slf4j
+@Component
+public class ReferenceCacheMetrics {
+
+    /** Counters of one region as of {@link #snapshot()}. */
+    public record RegionStats(String region, long hits, long misses, long puts) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final Statistics statistics;
+    private final ReferenceCacheProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final Map<String, Long> lastLoggedLookups = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> metricsLogging;
+
+    public ReferenceCacheMetrics(EntityManagerFactory entityManagerFactory, ReferenceCacheProperties properties,
+                                 TaskScheduler taskScheduler) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void start() {
+        Duration interval = properties.metricsLogInterval();
+        metricsLogging = taskScheduler.scheduleWithFixedDelay(this::logStats, Instant.now().plus(interval), interval);
+    }
+
+    @PreDestroy
+    void stop() {
+        metricsLogging.cancel(false);
+        logStats();
+    }
+
+    /** Cumulative counters per region since startup; empty when Hibernate statistics are disabled. */
+    public List<RegionStats> snapshot() {
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+        return ReferenceCacheConfig.dataRegionNames().stream()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    return stats == null
+                            ? new RegionStats(region, 0, 0, 0)
+                            : new RegionStats(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount());
+                })
+                .toList();
+    }
+
+    void logStats() {
+        for (RegionStats stats : snapshot()) {
+            long lookups = stats.hits() + stats.misses();
+            Long previous = lastLoggedLookups.put(stats.region(), lookups);
+            if (lookups == 0 || (previous != null && previous == lookups)) {
+                continue;
+            }
+            log.info("Reference cache {}: {} hits, {} misses ({}% hits), {} puts",
+                    stats.region(), stats.hits(), stats.misses(), Math.round(stats.hitRatio() * 100), stats.puts());
+        }
+    }
+}
@@ -7,6 +7,7 @@
 package com.evolveum.midpoint.integration.catalog.service;
 
 import com.evolveum.midpoint.integration.catalog.dto.RequestFormDto;
+import com.evolveum.midpoint.integration.catalog.dto.VoteStatusDto;
 import com.evolveum.midpoint.integration.catalog.object.Application;
 import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
 import com.evolveum.midpoint.integration.catalog.object.ObjectClassCapabilities;
@@ -22,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -101,14 +103,15 @@ public class RequestVotingService {
                     if (caps == null || caps.isEmpty()) {
                         continue;
                     }
-                    CapabilityType[] capArray = caps.stream()
-                            .map(CapabilityType::valueOf)
-                            .toArray(CapabilityType[]::new);
+                    EnumSet<CapabilityType> capSet = EnumSet.noneOf(CapabilityType.class);
+                    for (String cap : caps) {
+                        capSet.add(CapabilityType.valueOf(cap));
+                    }
 
                     ObjectClassCapabilities occ = new ObjectClassCapabilities();
                     occ.setRequest(request);
                     occ.setObjectName(entry.objectName());
-                    occ.setCapabilities(capArray);
+                    occ.setCapabilities(capSet);
                     objectClassCapabilitiesRepository.save(occ);
                 }
             }
@@ -136,27 +139,44 @@ public class RequestVotingService {
         return voteRepository.findAll();
     }
 
+    /**
+     * Records a vote with a single insert-if-absent + counter-increment statement, so two
+     * concurrent votes by the same voter cannot both count. Only a refused vote costs a second
+     * query, to tell a missing request from a repeated vote.
+     */
+    @Transactional
     public Vote submitVote(Long requestId, String voter) {
-        Request request = requestRepository.findById(requestId)
-                .orElseThrow(() -> new IllegalArgumentException("Request not found: " + requestId));
-
-        if (voteRepository.existsByRequestIdAndVoter(requestId, voter)) {
+        if (voteRepository.insertVoteAndIncrementCount(requestId, voter).isEmpty()) {
+            if (!requestRepository.existsById(requestId)) {
+                throw new IllegalArgumentException("Request not found: " + requestId);
+            }
             throw new IllegalArgumentException("User has already voted for this request");
         }
 
         Vote vote = new Vote();
         vote.setRequestId(requestId);
         vote.setVoter(voter);
-        vote.setRequest(request);
-
-        return voteRepository.save(vote);
+        return vote;
     }
 
     public long getVoteCount(Long requestId) {
-        return voteRepository.countByRequestId(requestId);
+        return requestRepository.findVoteCountById(requestId).orElse(0L);
     }
 
     public boolean hasUserVoted(Long requestId, String voter) {
         return voteRepository.existsByRequestIdAndVoter(requestId, voter);
     }
+
+    /**
+     * Vote counts and has-voted flags for the given requests, or for every open (REQUESTED)
+     * request when no IDs are given, in one grouped query. Unknown IDs are left out; a blank
+     * voter yields {@code hasVoted = false} everywhere.
+     */
+    public List<VoteStatusDto> getVoteStatuses(List<Long> requestIds, String voter) {
+        String effectiveVoter = voter == null || voter.isBlank() ? null : voter;
+        if (requestIds == null || requestIds.isEmpty()) {
+            return requestRepository.findVoteStatusOfOpenRequests(effectiveVoter);
+        }
+        return requestRepository.findVoteStatusByIdIn(requestIds, effectiveVoter);
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Allocates integration-method and connector-bundle revisions.
+ * <p>
+ * Each allocation takes a transaction-scoped PostgreSQL advisory lock on the method (or bundle name)
+ * before reading the revisions already taken, so concurrent edits of the same method queue up instead
+ * of picking the same number; the lock is held until the caller's transaction has written the new
+ * revision and commits. The reads are single indexed queries: the major number of a method revision
+ * is the stored {@code integration_method.revision_major} column.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevisionAllocator {
+
+    private static final String METHOD_LOCK_SPACE = "integration_method_revision";
+    private static final String BUNDLE_LOCK_SPACE = "connector_bundle_revision";
+
+    private static final String LOCK_SQL = "select 1 from pg_advisory_xact_lock(hashtext(?), hashtext(?))";
+
+    private static final String MAX_MAJOR_SQL = """
+            select coalesce(max(revision_major), 0) from integration_method where id = ?
+            """;
+
+    /** Whether the base revision is taken, and the highest numeric "-N" suffix used on it. */
+    private static final String BUNDLE_REVISIONS_SQL = """
+            with p as (select cast(? as text) as name, cast(? as text) as base)
+            select coalesce(bool_or(b.revision = p.base), false) as base_taken,
+                   coalesce(max(case when b.revision <> p.base
+                                     then cast(substring(b.revision from char_length(p.base) + 2) as integer)
+                                end), 0) as max_suffix
+            from p join connector_bundle b on b.bundle_name = p.name
+             and (b.revision = p.base
+                  or (starts_with(b.revision, p.base || '-')
+                      and substring(b.revision from char_length(p.base) + 2) ~ '^[0-9]{1,9}$'))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Serializes revision changes of one integration method until the end of the current transaction.
+     * Callers that derive a new revision from an existing one (a minor bump) take it before reading.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockMethodRevisions(UUID methodId) {
+        jdbcTemplate.queryForObject(LOCK_SQL, Integer.class, METHOD_LOCK_SPACE, methodId.toString());
+    }
+
+    /**
+     * Next available major version for a method: one higher than the largest major across ALL of the
+     * method's existing revisions, with the minor reset to 0. Creating a new version from any base
+     * revision therefore never collides with an existing major (1.0 + 2.0 present -> 3.0).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String nextMajorRevision(UUID methodId) {
+        lockMethodRevisions(methodId);
+        Integer maxMajor = jdbcTemplate.queryForObject(MAX_MAJOR_SQL, Integer.class, methodId);
+        return (maxMajor + 1) + ".0";
+    }
+
+    /**
+     * Picks a bundle revision that keeps (bundle_name, revision) unique for a freshly cloned or renamed
+     * bundle: the base revision when it is free, otherwise the base with the next unused "-N" suffix.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String uniqueBundleRevision(String bundleName, String baseRevision) {
+        String base = baseRevision != null ? baseRevision : "1.0.0";
+        if (bundleName == null) {
+            return base;
+        }
+        jdbcTemplate.queryForObject(LOCK_SQL, Integer.class, BUNDLE_LOCK_SPACE, bundleName);
+        return jdbcTemplate.queryForObject(BUNDLE_REVISIONS_SQL,
+                (rs, rowNum) -> rs.getBoolean("base_taken") ? base + "-" + (rs.getInt("max_suffix") + 1) : base,
+                bundleName, base);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.common.SessionPrincipal;
+import com.evolveum.midpoint.integration.catalog.configuration.SessionTokenProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed session tokens.
+ * <p>
+ * A token is {@code base64url(claims JSON) + "." + base64url(signature)}; the claims hold the
+ * username, role, organization and expiry. Verification needs only the shared key, so any replica
+ * can authenticate a request without a database round-trip or sticky sessions.
+ */
+@Slf4j
+@Service
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final SessionTokenProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public SessionTokenService(SessionTokenProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    SessionTokenService(SessionTokenProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.objectMapper = new ObjectMapper();
+        this.key = new SecretKeySpec(loadSecret(properties), ALGORITHM);
+    }
+
+    public String issue(SessionPrincipal principal) {
+        Claims claims = new Claims(principal.username(), principal.role(), principal.organizationId(),
+                principal.organizationName(), clock.instant().plus(properties.ttl()).getEpochSecond());
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return payload + "." + ENCODER.encodeToString(sign(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialise session token claims", e);
+        }
+    }
+
+    /** The principal of a well-formed, correctly signed, unexpired token; empty otherwise. */
+    public Optional<SessionPrincipal> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            Claims claims = objectMapper.readValue(DECODER.decode(payload), Claims.class);
+            if (claims.sub() == null || Instant.ofEpochSecond(claims.exp()).isBefore(clock.instant())) {
+                return Optional.empty();
+            }
+            return Optional.of(new SessionPrincipal(claims.sub(), claims.role(), claims.org(), claims.orgName()));
+        } catch (IllegalArgumentException | IOException e) {
+            log.debug("Rejecting malformed session token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public boolean isTokenRequired() {
+        return properties.required();
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static byte[] loadSecret(SessionTokenProperties properties) {
+        if (properties.secret() != null && !properties.secret().isBlank()) {
+            return Base64.getDecoder().decode(properties.secret().trim());
+        }
+        log.warn("auth.token.secret is not set; using a random key. Session tokens will not survive a restart "
+                + "and will not be accepted by other replicas.");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    private record Claims(String sub, String role, Integer org, String orgName, long exp) {
+    }
+}
@@ -7,28 +7,63 @@
 package com.evolveum.midpoint.integration.catalog.service;
 
 import com.evolveum.midpoint.integration.catalog.configuration.TutorialStorageProperties;
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+import com.evolveum.midpoint.integration.catalog.integration.LocalBlobStore;
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethod;
 import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodId;
+import com.evolveum.midpoint.integration.catalog.object.TutorialFile;
 import com.evolveum.midpoint.integration.catalog.repository.IntegrationMethodRepository;
+import com.evolveum.midpoint.integration.catalog.repository.TutorialBlobRepository;
+import com.evolveum.midpoint.integration.catalog.repository.TutorialFileRepository;
+import com.evolveum.midpoint.integration.catalog.util.SizeLimitedInputStream;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.Comparator;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+/**
+ * Tutorial files of integration method revisions, stored content-addressed.
+ * <p>
+ * Every distinct file content is stored once in the tutorial {@link BlobStore} under
+ * {@code blobs/<aa>/<sha-256>} and registered in {@code tutorial_blob}; a revision's files are its
+ * manifest rows in {@code tutorial_file} (name to blob). Creating, renaming and dropping a revision
+ * only touches manifest rows, so forking a revision with large PDFs costs one INSERT ... SELECT.
+ * Blobs are reference counted ({@link RefCountedBlobs}); those no longer referenced are deleted after
+ * the change that released them commits.
+ * <p>
+ * {@code integration_method.file_path} still holds the revision's logical folder name
+ * ({@link #folderName}); tutorial folders written before the blob store are imported on startup.
+ */
 @Slf4j
 @Service
 public class TutorialStorageService {
@@ -45,58 +80,100 @@ public class TutorialStorageService {
             ".pdf", ".xml", ".json", ".yaml", ".yml", ".txt"
     );
 
+    /** Content type stored for each allowed extension; downloads serve it as is. */
+    private static final Map<String, String> CONTENT_TYPES_BY_EXTENSION = Map.of(
+            ".pdf", "application/pdf",
+            ".xml", "application/xml",
+            ".json", "application/json",
+            ".yaml", "application/yaml",
+            ".yml", "application/yaml",
+            ".txt", "text/plain"
+    );
+
+    private static final String BLOBS_DIR = "blobs";
+
+    /** A blob written to a staging file of the store, not yet registered. */
+    private record StagedBlob(Path file, String hash, long size) {}
+
+    /**
+     * A tutorial file as recorded in the index: its name, size, content hash (a strong validator),
+     * content type and the time its content was last set.
+     */
+    public record StoredTutorialFile(String name, long size, String hash, String contentType, Instant lastModified) {}
+
     private final TutorialStorageProperties properties;
     private final IntegrationMethodRepository integrationMethodRepository;
+    private final TutorialFileRepository tutorialFileRepository;
+    private final BlobStore blobStore;
+    private final RefCountedBlobs blobs;
+    private final TransactionTemplate transactionTemplate;
     private final Path basePath;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public TutorialStorageService(TutorialStorageProperties properties,
-                                   IntegrationMethodRepository integrationMethodRepository) {
+                                   IntegrationMethodRepository integrationMethodRepository,
+                                   TutorialFileRepository tutorialFileRepository,
+                                   TutorialBlobRepository tutorialBlobRepository,
+                                   @Qualifier("tutorialBlobStore") BlobStore blobStore,
+                                   PlatformTransactionManager transactionManager) {
         this.properties = properties;
         this.integrationMethodRepository = integrationMethodRepository;
-        this.basePath = Paths.get(properties.basePath()).toAbsolutePath().normalize();
-        log.info("Tutorial storage base path resolved to: {}", this.basePath);
-        initStorageDirectory();
-    }
-
-    private void initStorageDirectory() {
-        try {
-            if (!Files.exists(basePath)) {
-                Files.createDirectories(basePath);
-                log.info("Created tutorial storage directory: {}", basePath);
+        this.tutorialFileRepository = tutorialFileRepository;
+        this.blobStore = blobStore;
+        this.blobs = new RefCountedBlobs("tutorial blob", blobStore, new RefCountedBlobs.ReferenceTable() {
+            @Override
+            public void register(String hash, long size) {
+                tutorialBlobRepository.upsert(hash, size);
             }
-            if (!Files.isDirectory(basePath)) {
-                throw new IllegalStateException("Tutorial storage path is not a directory: " + basePath);
+
+            @Override
+            public List<String> findUnreferenced() {
+                return tutorialBlobRepository.findUnreferencedHashes();
             }
-            if (!Files.isWritable(basePath)) {
-                throw new IllegalStateException("Tutorial storage directory is not writable: " + basePath);
+
+            @Override
+            public int deleteIfUnreferenced(String hash) {
+                return tutorialBlobRepository.deleteIfUnreferenced(hash);
             }
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to create tutorial storage directory: " + basePath, e);
-        }
+        }, TutorialStorageService::blobKey, transactionManager);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.basePath = Paths.get(properties.basePath()).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    void start() {
+        importLegacyFolders();
+        collectGarbage();
     }
 
     public void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Tutorial file is required");
         }
-        if (file.getSize() > properties.maxSizeBytes()) {
+        validateUpload(file.getOriginalFilename(), file.getSize());
+        String contentType = file.getContentType();
+        if (contentType != null && !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase().split(";")[0].trim())) {
+            log.warn("Unexpected content type '{}' for tutorial file — accepted based on extension", contentType);
+        }
+    }
+
+    /**
+     * Checks what is known about an upload before its content is read. {@code declaredSize} is the
+     * announced length, or -1 when unknown (the limit is then enforced while streaming).
+     */
+    private void validateUpload(String originalFilename, long declaredSize) {
+        if (declaredSize > properties.maxSizeBytes()) {
             throw new IllegalArgumentException(
                     "Tutorial file size exceeds maximum allowed size of " + properties.maxSizeBytes() + " bytes");
         }
-        String originalFilename = file.getOriginalFilename();
         if (originalFilename != null) {
             String ext = getFileExtension(originalFilename).toLowerCase();
             if (!ALLOWED_EXTENSIONS.contains(ext)) {
                 throw new IllegalArgumentException("Invalid file extension '" + ext + "'. Allowed: pdf, xml, json, yaml, txt");
             }
         }
-        String contentType = file.getContentType();
-        if (contentType != null && !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase().split(";")[0].trim())) {
-            log.warn("Unexpected content type '{}' for tutorial file — accepted based on extension", contentType);
-        }
     }
 
     /** Folder name (and the value stored in integration_method.file_path) for a given method revision. */
@@ -106,148 +183,247 @@ public class TutorialStorageService {
 
     @Transactional
     public void saveTutorial(UUID integrationMethodId, MultipartFile file) throws IOException {
-        IntegrationMethod method = integrationMethodRepository.findFirstByIdOrderByCreatedAtDesc(integrationMethodId)
-                .orElseThrow(() -> new RuntimeException("Integration method not found: " + integrationMethodId));
-        saveTutorialForRevision(integrationMethodId, method.getRevision(), file);
+        saveTutorialForRevision(integrationMethodId, latestRevision(integrationMethodId), file);
+    }
+
+    /** Streaming variant of {@link #saveTutorial(UUID, MultipartFile)}. */
+    @Transactional
+    public void saveTutorial(UUID integrationMethodId, String originalFilename, long declaredSize,
+                             InputStream content) throws IOException {
+        saveTutorialForRevision(integrationMethodId, latestRevision(integrationMethodId), originalFilename,
+                declaredSize, content);
     }
 
     @Transactional
     public void saveTutorialForRevision(UUID integrationMethodId, String revision, MultipartFile file) throws IOException {
         validateFile(file);
+        try (InputStream in = file.getInputStream()) {
+            saveTutorialForRevision(integrationMethodId, revision, file.getOriginalFilename(), file.getSize(), in);
+        }
+    }
+
+    /**
+     * Stores an upload read straight from {@code content}: it is hashed and size-checked while being
+     * written to the storage area, then moved into place, so the body is written to disk once.
+     * {@code declaredSize} is the announced length, or -1 when unknown.
+     */
+    @Transactional
+    public void saveTutorialForRevision(UUID integrationMethodId, String revision, String originalFilename,
+                                        long declaredSize, InputStream content) throws IOException {
+        validateUpload(originalFilename, declaredSize);
 
         if (!integrationMethodRepository.existsById(new IntegrationMethodId(integrationMethodId, revision))) {
-            throw new RuntimeException("Integration method not found: " + integrationMethodId + "/" + revision);
+            throw new NoSuchElementException("Integration method not found: " + integrationMethodId + "/" + revision);
+        }
+
+        StagedBlob staged = stage(new SizeLimitedInputStream(content, properties.maxSizeBytes(), "Tutorial file"));
+        if (staged.size() == 0) {
+            Files.deleteIfExists(staged.file());
+            throw new IllegalArgumentException("Tutorial file is required");
         }
+        String hash = commitBlob(staged);
 
-        String folder = folderName(integrationMethodId, revision);
-        Path folderPath = basePath.resolve(folder);
-        Files.createDirectories(folderPath);
+        String fileName = uniqueFileName(new HashSet<>(tutorialFileRepository.findFileNames(integrationMethodId, revision)),
+                sanitizeFileName(originalFilename));
+        tutorialFileRepository.put(integrationMethodId, revision, fileName, hash, contentTypeOf(fileName));
 
-        String fileName = uniqueFileName(folderPath, sanitizeFileName(file.getOriginalFilename()));
-        Path target = folderPath.resolve(fileName);
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+        updateFilePath(integrationMethodId, revision, folderName(integrationMethodId, revision));
+        log.info("Saved tutorial file for integration method {}/{}: {} ({})", integrationMethodId, revision, fileName, hash);
+    }
 
-        updateFilePath(integrationMethodId, revision, folder);
-        log.info("Saved tutorial file for integration method {}/{}: {}", integrationMethodId, revision, fileName);
+    private String latestRevision(UUID integrationMethodId) {
+        IntegrationMethod method = integrationMethodRepository.findFirstByIdOrderByCreatedAtDesc(integrationMethodId)
+                .orElseThrow(() -> new NoSuchElementException("Integration method not found: " + integrationMethodId));
+        return method.getRevision();
     }
 
     /** Lists the tutorial file names stored for a given method revision. */
     public List<String> listTutorialFiles(UUID integrationMethodId, String revision) {
-        Path folderPath = basePath.resolve(folderName(integrationMethodId, revision));
-        if (!Files.isDirectory(folderPath)) {
-            return List.of();
-        }
-        try (Stream<Path> entries = Files.list(folderPath)) {
-            return entries
-                    .filter(Files::isRegularFile)
-                    .map(p -> p.getFileName().toString())
-                    .sorted(String.CASE_INSENSITIVE_ORDER)
-                    .toList();
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to list tutorial files for " + integrationMethodId + "/" + revision, e);
-        }
+        return tutorialFileRepository.findFileNames(integrationMethodId, revision);
     }
 
-    /** Resolves a single tutorial file to an absolute path, guarding against path traversal. */
-    public Path resolveTutorialFile(UUID integrationMethodId, String revision, String fileName) {
-        Path folderPath = basePath.resolve(folderName(integrationMethodId, revision)).normalize();
-        Path target = folderPath.resolve(Paths.get(fileName).getFileName().toString()).normalize();
-        if (!target.startsWith(folderPath)) {
-            throw new IllegalArgumentException("Invalid tutorial file name: " + fileName);
-        }
-        if (!Files.isRegularFile(target)) {
-            throw new RuntimeException("Tutorial file not found: " + fileName);
-        }
-        return target;
+    /** Lists the index entries of a method revision's tutorial files, in the order of {@link #listTutorialFiles}. */
+    public List<StoredTutorialFile> listTutorialFileEntries(UUID integrationMethodId, String revision) {
+        return tutorialFileRepository.findFiles(integrationMethodId, revision).stream()
+                .map(this::toStoredFile)
+                .toList();
+    }
+
+    /** Looks up the index entry of a single tutorial file. */
+    public StoredTutorialFile findTutorialFile(UUID integrationMethodId, String revision, String fileName) {
+        return tutorialFileRepository
+                .findByIntegMethodIdAndIntegMethodRevisionAndFileName(integrationMethodId, revision, baseName(fileName))
+                .map(this::toStoredFile)
+                .orElseThrow(() -> new NoSuchElementException("Tutorial file not found: " + fileName));
+    }
+
+    /** The content of an indexed file as a streaming {@link Resource}, built from the index entry alone. */
+    public Resource tutorialFileContent(StoredTutorialFile file) {
+        return blobStore.resource(blobKey(file.hash()), new BlobStore.BlobInfo(file.size(), file.lastModified()));
+    }
+
+    /** Opens an indexed file for reading. */
+    public InputStream openTutorialFile(StoredTutorialFile file) throws IOException {
+        return blobStore.open(blobKey(file.hash()));
+    }
+
+    private StoredTutorialFile toStoredFile(TutorialFile entry) {
+        String contentType = entry.getContentType() != null ? entry.getContentType() : contentTypeOf(entry.getFileName());
+        return new StoredTutorialFile(entry.getFileName(), entry.getSizeBytes(), entry.getBlobHash(), contentType,
+                entry.getCreatedAt().toInstant());
     }
 
     @Transactional
     public void deleteTutorialFile(UUID integrationMethodId, String revision, String fileName) throws IOException {
-        Path folderPath = basePath.resolve(folderName(integrationMethodId, revision)).normalize();
-        Path target = folderPath.resolve(Paths.get(fileName).getFileName().toString()).normalize();
-        if (!target.startsWith(folderPath)) {
-            throw new IllegalArgumentException("Invalid tutorial file name: " + fileName);
-        }
-        boolean deleted = Files.deleteIfExists(target);
-        log.info("Delete tutorial file {} for {}/{}: {}", fileName, integrationMethodId, revision, deleted ? "removed" : "not found");
+        int deleted = tutorialFileRepository.deleteFile(integrationMethodId, revision, baseName(fileName));
+        collectGarbageAfterCommit();
+        log.info("Delete tutorial file {} for {}/{}: {}", fileName, integrationMethodId, revision, deleted > 0 ? "removed" : "not found");
     }
 
     /**
-     * Copies all tutorial files from one revision folder to another (used when a new revision is created).
-     * Returns the destination folder name.
+     * Gives a new revision the same tutorial files as another one (used when a new revision is created).
+     * Only the manifest is copied; the files themselves are shared. Returns the destination folder name.
      */
+    @Transactional
     public String copyTutorialFolder(UUID integrationMethodId, String fromRevision, String toRevision) {
         String destFolder = folderName(integrationMethodId, toRevision);
-        Path from = basePath.resolve(folderName(integrationMethodId, fromRevision));
-        Path to = basePath.resolve(destFolder);
-        if (from.equals(to) || !Files.isDirectory(from)) {
-            return destFolder;
-        }
-        try {
-            Files.createDirectories(to);
-            try (Stream<Path> entries = Files.list(from)) {
-                entries.filter(Files::isRegularFile).forEach(src -> {
-                    try {
-                        Files.copy(src, to.resolve(src.getFileName()), StandardCopyOption.REPLACE_EXISTING);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                });
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to copy tutorial folder for " + integrationMethodId
-                    + " from " + fromRevision + " to " + toRevision, e);
+        if (!fromRevision.equals(toRevision)) {
+            tutorialFileRepository.copyRevision(integrationMethodId, fromRevision, toRevision);
         }
         return destFolder;
     }
 
     /**
-     * Moves a revision's tutorial folder to the target revision (used when a revision is rewritten in
-     * place with a bump). Returns the destination folder name; a no-op if the source folder is absent.
+     * Moves a revision's tutorial files to the target revision (used when a revision is rewritten in
+     * place with a bump). Returns the destination folder name; a no-op if the source has no files.
      */
+    @Transactional
     public String renameTutorialFolder(UUID integrationMethodId, String fromRevision, String toRevision) {
         String destFolder = folderName(integrationMethodId, toRevision);
-        Path from = basePath.resolve(folderName(integrationMethodId, fromRevision));
-        Path to = basePath.resolve(destFolder);
-        if (from.equals(to) || !Files.isDirectory(from)) {
+        if (fromRevision.equals(toRevision)) {
             return destFolder;
         }
-        try {
-            if (Files.exists(to)) {
-                deleteDirectoryRecursively(to);
-            }
-            Files.move(from, to);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to rename tutorial folder for " + integrationMethodId
-                    + " from " + fromRevision + " to " + toRevision, e);
+        if (tutorialFileRepository.deleteRevision(integrationMethodId, toRevision) > 0) {
+            collectGarbageAfterCommit();
         }
+        tutorialFileRepository.moveRevision(integrationMethodId, fromRevision, toRevision);
         return destFolder;
     }
 
-    /** Removes a revision's tutorial folder entirely (used when a superseded revision is dropped). */
+    /** Removes a revision's tutorial files entirely (used when a superseded revision is dropped). */
+    @Transactional
     public void deleteTutorialFolder(UUID integrationMethodId, String revision) {
-        Path folder = basePath.resolve(folderName(integrationMethodId, revision));
-        try {
-            deleteDirectoryRecursively(folder);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to delete tutorial folder for "
-                    + integrationMethodId + "/" + revision, e);
+        if (tutorialFileRepository.deleteRevision(integrationMethodId, revision) > 0) {
+            collectGarbageAfterCommit();
         }
     }
 
-    private void deleteDirectoryRecursively(Path dir) throws IOException {
-        if (!Files.exists(dir)) return;
-        try (Stream<Path> walk = Files.walk(dir)) {
-            walk.sorted(Comparator.reverseOrder()).forEach(p -> {
-                try {
-                    Files.delete(p);
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
+    // ── Blob store ───────────────────────────────────────────────────────────
+
+    /** Streams the content into a staging file of the store, hashing it on the way. */
+    private StagedBlob stage(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = blobStore.newStagingFile();
+        try (DigestInputStream in = new DigestInputStream(content, digest);
+             OutputStream out = Files.newOutputStream(tmp)) {
+            long size = in.transferTo(out);
+            return new StagedBlob(tmp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /** Registers a staged blob and hands it to the store; see {@link RefCountedBlobs#store}. */
+    private String commitBlob(StagedBlob staged) throws IOException {
+        blobs.store(staged.hash(), staged.file(), null);
+        return staged.hash();
+    }
+
+    private static String blobKey(String hash) {
+        return BLOBS_DIR + "/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private void collectGarbageAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            collectGarbage();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                collectGarbage();
+            }
+        });
+    }
+
+    /** Deletes blobs that no manifest references any more. */
+    void collectGarbage() {
+        blobs.collectGarbage();
+    }
+
+    /**
+     * Moves tutorial folders written before the blob store ({@code <method id>_<revision>} in
+     * {@code tutorial.storage.base-path}, named by integration_method.file_path) into it, whichever
+     * store is configured. Folders that no method points to are left alone.
+     */
+    private void importLegacyFolders() {
+        if (!Files.isDirectory(basePath)) {
+            return;
+        }
+        List<Path> folders;
+        try (Stream<Path> entries = Files.list(basePath)) {
+            folders = entries.filter(Files::isDirectory)
+                    .filter(p -> !p.getFileName().toString().equals(BLOBS_DIR)
+                            && !p.getFileName().toString().equals(LocalBlobStore.STAGING_DIR))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list tutorial storage directory " + basePath, e);
+        }
+        for (Path folder : folders) {
+            List<IntegrationMethod> methods = integrationMethodRepository.findByFilePath(folder.getFileName().toString());
+            if (methods.isEmpty()) {
+                log.warn("Tutorial folder {} does not belong to any integration method, leaving it in place", folder);
+                continue;
+            }
+            try (Stream<Path> entries = Files.list(folder)) {
+                for (Path file : entries.filter(Files::isRegularFile).toList()) {
+                    StagedBlob staged;
+                    try (InputStream in = Files.newInputStream(file)) {
+                        staged = stage(in);
+                    }
+                    transactionTemplate.executeWithoutResult(status -> {
+                        try {
+                            String hash = commitBlob(staged);
+                            for (IntegrationMethod method : methods) {
+                                String fileName = file.getFileName().toString();
+                                tutorialFileRepository.put(method.getId(), method.getRevision(),
+                                        fileName, hash, contentTypeOf(fileName));
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    Files.delete(file);
                 }
-            });
+                Files.delete(folder);
+                log.info("Imported tutorial folder {} into the blob store", folder.getFileName());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to import tutorial folder {}: {}", folder, e.getMessage());
+            }
         }
     }
 
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
     private void updateFilePath(UUID id, String revision, String filePath) {
         entityManager.createQuery(
                 "UPDATE IntegrationMethod m SET m.filePath = :filePath WHERE m.id = :id AND m.revision = :revision")
@@ -257,12 +433,26 @@ public class TutorialStorageService {
                 .executeUpdate();
     }
 
+    private String contentTypeOf(String fileName) {
+        return CONTENT_TYPES_BY_EXTENSION.getOrDefault(getFileExtension(fileName).toLowerCase(),
+                MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
     private String getFileExtension(String filename) {
         if (filename == null) return "";
         int lastDot = filename.lastIndexOf('.');
         return lastDot == -1 ? "" : filename.substring(lastDot);
     }
 
+    /** The last path segment of a requested file name (names never contain separators). */
+    private String baseName(String fileName) {
+        Path name = Paths.get(fileName).getFileName();
+        if (name == null) {
+            throw new IllegalArgumentException("Invalid tutorial file name: " + fileName);
+        }
+        return name.toString();
+    }
+
     /** Reduces an uploaded name to a safe base file name (no path separators, restricted character set). */
     private String sanitizeFileName(String original) {
         String base = original == null ? "" : Paths.get(original).getFileName().toString();
@@ -274,17 +464,16 @@ public class TutorialStorageService {
         return segment == null ? "" : segment.replaceAll("[^A-Za-z0-9._-]", "_");
     }
 
-    /** Appends " (n)" before the extension until the name is free within the folder. */
-    private String uniqueFileName(Path folder, String fileName) {
-        Path candidate = folder.resolve(fileName);
-        if (!Files.exists(candidate)) {
+    /** Appends " (n)" before the extension until the name is free within the revision. */
+    private String uniqueFileName(Set<String> existing, String fileName) {
+        if (!existing.contains(fileName)) {
             return fileName;
         }
         String ext = getFileExtension(fileName);
         String stem = ext.isEmpty() ? fileName : fileName.substring(0, fileName.length() - ext.length());
         for (int i = 1; ; i++) {
             String next = stem + " (" + i + ")" + ext;
-            if (!Files.exists(folder.resolve(next))) {
+            if (!existing.contains(next)) {
                 return next;
             }
         }
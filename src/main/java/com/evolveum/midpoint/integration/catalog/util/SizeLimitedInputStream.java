@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from an upload and fails with {@link IllegalArgumentException} as soon as
+ * they exceed the limit, so oversized bodies are rejected while streaming rather than after.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final String description;
+    private long count;
+
+    /**
+     * @param description what is being uploaded, used in the error message (e.g. "Logo file")
+     */
+    public SizeLimitedInputStream(InputStream in, long maxBytes, String description) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.description = description;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /** Number of bytes read so far. */
+    public long getCount() {
+        return count;
+    }
+
+    private void count(long n) {
+        count += n;
+        if (count > maxBytes) {
+            throw new IllegalArgumentException(
+                    description + " size exceeds maximum allowed size of " + maxBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+
+/**
+ * PostgreSQL in a container, created from {@code config/sql/postgres.sql} the same way as the
+ * docker-compose database, for tests that depend on real row locks, triggers and sequences.
+ * Started on first use and shared by all tests of the JVM; register it from a
+ * {@code @DynamicPropertySource} method with {@link #register}.
+ */
+public final class TestDatabase {
+
+    private static final String DATABASE = "integration_catalog";
+    private static final String USER = "integration_catalog";
+    private static final String PASSWORD = "integration_catalog";
+    private static final int PORT = 5432;
+
+    private static final GenericContainer<?> POSTGRES = new GenericContainer<>(DockerImageName.parse("postgres:16-alpine"))
+            .withEnv("POSTGRES_DB", DATABASE)
+            .withEnv("POSTGRES_USER", USER)
+            .withEnv("POSTGRES_PASSWORD", PASSWORD)
+            .withCopyFileToContainer(MountableFile.forHostPath("config/sql/postgres.sql"),
+                    "/docker-entrypoint-initdb.d/postgres.sql")
+            .withExposedPorts(PORT)
+            // the server is restarted once after the init scripts ran
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*\\s", 2)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    private TestDatabase() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        start();
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PORT) + "/" + DATABASE);
+        registry.add("spring.datasource.username", () -> USER);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+    }
+
+    private static synchronized void start() {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+    }
+}
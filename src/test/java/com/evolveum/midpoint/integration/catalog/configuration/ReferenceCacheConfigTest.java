@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.configuration;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+import com.evolveum.midpoint.integration.catalog.object.MidpointVersion;
+import com.evolveum.midpoint.integration.catalog.repository.MidpointVersionRepository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the reference-entity cache ({@link ReferenceCacheConfig}) against a real database: an edit
+ * through the application replaces the cached entity and invalidates cached finder results at once, and
+ * a row changed behind the cache's back (by another replica) is read again once the time to live has passed.
+ */
+@SpringBootTest
+class ReferenceCacheConfigTest {
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+        registry.add("reference-cache.time-to-live", () -> "1s");
+    }
+
+    @Autowired
+    private MidpointVersionRepository midpointVersionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer versionId;
+
+    @BeforeEach
+    void createVersion() {
+        versionId = jdbcTemplate.queryForObject("""
+                insert into midpoint_version (version, version_name) values ('4.9', 'Original') returning id
+                """, Integer.class);
+    }
+
+    @Test
+    void editReplacesTheCachedEntity() {
+        assertThat(versionName()).isEqualTo("Original");
+        assertThat(cache().contains(MidpointVersion.class, versionId)).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                midpointVersionRepository.findById(versionId).orElseThrow().setVersionName("Edited"));
+
+        assertThat(versionName()).isEqualTo("Edited");
+    }
+
+    @Test
+    void rowChangedElsewhereIsReadAgainAfterTheTimeToLive() throws Exception {
+        assertThat(versionName()).isEqualTo("Original");
+        jdbcTemplate.update("update midpoint_version set version_name = 'Elsewhere' where id = ?", versionId);
+        assertThat(versionName()).isEqualTo("Original"); // still served from the cache
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!"Elsewhere".equals(versionName()) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(versionName()).isEqualTo("Elsewhere");
+    }
+
+    @Test
+    void cachedFinderSeesRowsAddedThroughTheApplicationAtOnceAndElsewhereAfterTheTimeToLive() throws Exception {
+        assertThat(versionIds()).contains(versionId);
+
+        Integer savedId = midpointVersionRepository.save(new MidpointVersion().setVersion("4.10")).getId();
+        assertThat(versionIds()).contains(savedId);
+
+        Integer insertedId = jdbcTemplate.queryForObject("""
+                insert into midpoint_version (version, version_name) values ('4.11', 'Elsewhere') returning id
+                """, Integer.class);
+        assertThat(versionIds()).doesNotContain(insertedId); // the cached result is still served
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!versionIds().contains(insertedId) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(versionIds()).contains(insertedId);
+    }
+
+    private List<Integer> versionIds() {
+        return midpointVersionRepository.findAll().stream().map(MidpointVersion::getId).toList();
+    }
+
+    private String versionName() {
+        return midpointVersionRepository.findById(versionId).orElseThrow().getVersionName();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+}
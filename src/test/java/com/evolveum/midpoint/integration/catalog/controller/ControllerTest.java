@@ -18,20 +18,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.Assert.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -232,6 +238,21 @@ class ControllerTest {
         verify(applicationService).successBuild(eq(testVersionId), any(ContinueForm.class));
     }
 
+    @Test
+    void completeBuildSuccessfullyShouldReturnBadRequestForUnknownCapability() throws Exception {
+        doThrow(new IllegalArgumentException("Request payload contains an unknown capability."))
+                .when(applicationService).successBuild(eq(testVersionId), any(ContinueForm.class));
+
+        mockMvc.perform(post("/api/upload/continue/{oid}", testVersionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"connectorBundle\": \"test-bundle\", \"capability\": [\"TEST\", \"NOT_A_CAPABILITY\"]}"))
+                .andExpect(status().isBadRequest());
+
+        ArgumentCaptor<ContinueForm> form = ArgumentCaptor.forClass(ContinueForm.class);
+        verify(applicationService).successBuild(eq(testVersionId), form.capture());
+        assertEquals(Arrays.asList(CapabilityType.TEST, null), form.getValue().getCapability());
+    }
+
     // ===== POST /api/upload/continue/fail/{oid} =====
 
     @Test
@@ -249,6 +270,41 @@ class ControllerTest {
         verify(applicationService).failBuild(eq(testVersionId), any(FailForm.class));
     }
 
+    // ===== POST /api/applications/{id}/logo and /api/integration-methods/{id}/tutorial (raw body) =====
+
+    @Test
+    void uploadLogoStreamShouldReturnNotFoundWhenApplicationMissing() throws Exception {
+        when(applicationService.getApplication(testAppId))
+                .thenThrow(new NoSuchElementException("Application not found with id: " + testAppId));
+
+        mockMvc.perform(post("/api/applications/{id}/logo", testAppId)
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(new byte[] {1, 2, 3}))
+                .andExpect(status().isNotFound());
+
+        verify(logoStorageService, never()).saveLogo(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void uploadTutorialStreamShouldMapMissingMethodAndInvalidFile() throws Exception {
+        UUID missing = UUID.randomUUID();
+        doThrow(new NoSuchElementException("Integration method not found: " + missing))
+                .when(tutorialStorageService).saveTutorial(eq(missing), eq("guide.pdf"), anyLong(), any());
+        doThrow(new IllegalArgumentException("Invalid file extension '.exe'"))
+                .when(tutorialStorageService).saveTutorial(eq(testVersionId), eq("guide.exe"), anyLong(), any());
+
+        mockMvc.perform(post("/api/integration-methods/{id}/tutorial", missing)
+                        .param("name", "guide.pdf")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content(new byte[] {1}))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/integration-methods/{id}/tutorial", testVersionId)
+                        .param("name", "guide.exe")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[] {1}))
+                .andExpect(status().isBadRequest());
+    }
+
     // ===== POST /api/applications/search/{size}/{page} =====
 
     @Test
@@ -432,6 +488,27 @@ class ControllerTest {
         verify(applicationService).hasUserVoted(1L, "voter@example.com");
     }
 
+    // ===== GET /api/requests/votes/status =====
+
+    @Test
+    void getVoteStatusesShouldReturnStatusesForGivenIds() throws Exception {
+        when(applicationService.getVoteStatuses(List.of(1L, 2L), "voter@example.com")).thenReturn(List.of(
+                new VoteStatusDto(1L, 5L, true),
+                new VoteStatusDto(2L, 0L, false)));
+
+        mockMvc.perform(get("/api/requests/votes/status")
+                        .param("ids", "1", "2")
+                        .param("voter", "voter@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].requestId").value(1))
+                .andExpect(jsonPath("$[0].voteCount").value(5))
+                .andExpect(jsonPath("$[0].hasVoted").value(true))
+                .andExpect(jsonPath("$[1].hasVoted").value(false));
+
+        verify(applicationService).getVoteStatuses(List.of(1L, 2L), "voter@example.com");
+    }
+
     // ===== GET /api/categories/counts =====
 
     @Test
@@ -621,6 +698,49 @@ class ControllerTest {
         verify(applicationService).uploadConnector(any(UploadImplementationDto.class), anyString());
     }
 
+    // ===== PUT /api/applications/{appId}/integration-method/{methodId}/{revision} =====
+
+    @Test
+    void editIntegrationMethodShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+        when(applicationService.editIntegrationMethod(eq(testVersionId), eq("1.0"), any(EditIntegrationMethodDto.class),
+                eq(3L), anyString()))
+                .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "changed in the meantime"));
+
+        mockMvc.perform(put("/api/applications/{appId}/integration-method/{methodId}/{revision}",
+                        testAppId, testVersionId, "1.0")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void editIntegrationMethodShouldReturnConflictWhenVersionIsStaleAtCommit() throws Exception {
+        when(applicationService.editIntegrationMethod(eq(testVersionId), eq("1.0"), any(EditIntegrationMethodDto.class),
+                isNull(), anyString()))
+                .thenThrow(new OptimisticLockingFailureException("Row was updated or deleted by another transaction"));
+
+        mockMvc.perform(put("/api/applications/{appId}/integration-method/{methodId}/{revision}",
+                        testAppId, testVersionId, "1.0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Conflict"));
+    }
+
+    @Test
+    void updateConnectorShouldReturnConflictWhenVersionIsStaleAtCommit() throws Exception {
+        doThrow(new OptimisticLockingFailureException("Row was updated or deleted by another transaction"))
+                .when(applicationService).updateConnector(eq(testVersionId), eq("1.0"), eq(7), any(), isNull(), anyString());
+
+        mockMvc.perform(put("/api/applications/{appId}/integration-method/{methodId}/{revision}/connectors/{connectorId}",
+                        testAppId, testVersionId, "1.0", 7)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
     // ===== GET /api/connectors/active =====
 
 //    @Test
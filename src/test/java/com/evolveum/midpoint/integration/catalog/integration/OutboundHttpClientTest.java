@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import com.evolveum.midpoint.integration.catalog.configuration.OutboundHttpProperties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link OutboundHttpClient}: consecutive host failures open the circuit, while
+ * errors the caller's predicate does not count as host failures leave it closed.
+ */
+class OutboundHttpClientTest {
+
+    private static final String HOST = "git.example.com";
+
+    /** Stands in for a client library's API error carrying an HTTP status. */
+    private static final class ApiException extends Exception {
+
+        private final int status;
+
+        ApiException(int status) {
+            super("status " + status);
+            this.status = status;
+        }
+    }
+
+    private static final Predicate<Exception> HOST_FAILURE =
+            error -> !(error instanceof ApiException apiEx && OutboundHttpClient.isClientError(apiEx.status));
+
+    private final OutboundHttpClient client = new OutboundHttpClient(
+            new OutboundHttpProperties(null, null, 0, 2, Duration.ofMinutes(1), null), mock(TaskScheduler.class));
+
+    @Test
+    void consecutiveHostFailuresOpenTheCircuit() {
+        callFailing(new IOException("connection reset"));
+        callFailing(new ApiException(502));
+
+        assertThat(client.snapshot()).singleElement().satisfies(stats -> assertThat(stats.circuitOpen()).isTrue());
+        assertThatThrownBy(() -> client.call(HOST, () -> "ok", HOST_FAILURE))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Circuit open");
+    }
+
+    @Test
+    void refusedRequestsDoNotOpenTheCircuit() throws Exception {
+        callFailing(new ApiException(400));
+        callFailing(new ApiException(404));
+        callFailing(new ApiException(422));
+
+        assertThat(client.snapshot()).singleElement().satisfies(stats -> {
+            assertThat(stats.circuitOpen()).isFalse();
+            assertThat(stats.failures()).isZero();
+        });
+        assertThat(client.call(HOST, () -> "ok", HOST_FAILURE)).isEqualTo("ok");
+    }
+
+    @Test
+    void refusedRequestResetsTheFailureCount() {
+        callFailing(new IOException("connection reset"));
+        callFailing(new ApiException(404));
+        callFailing(new ApiException(429));
+
+        assertThat(client.snapshot()).singleElement().satisfies(stats -> assertThat(stats.circuitOpen()).isFalse());
+    }
+
+    private void callFailing(Exception error) {
+        assertThatThrownBy(() -> client.call(HOST, () -> {
+            throw error;
+        }, HOST_FAILURE)).isSameAs(error);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import com.evolveum.midpoint.integration.catalog.configuration.BlobStoreProperties;
+import com.evolveum.midpoint.integration.catalog.configuration.OutboundHttpProperties;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link S3BlobStore} against MinIO in a container: objects are put, stat'ed, read whole and
+ * from an offset (a ranged GET), copied and deleted with requests MinIO accepts as signed.
+ */
+class S3BlobStoreMinioTest {
+
+    private static final String ACCESS_KEY = "integration-catalog";
+    private static final String SECRET_KEY = "integration-catalog-secret";
+    private static final String REGION = "us-east-1";
+    private static final String BUCKET = "catalog";
+    private static final int PORT = 9000;
+
+    private static final GenericContainer<?> MINIO = new GenericContainer<>(
+            DockerImageName.parse("minio/minio:RELEASE.2023-09-04T19-57-37Z"))
+            .withEnv("MINIO_ROOT_USER", ACCESS_KEY)
+            .withEnv("MINIO_ROOT_PASSWORD", SECRET_KEY)
+            .withCommand("server", "/data")
+            .withExposedPorts(PORT)
+            .waitingFor(Wait.forHttp("/minio/health/live").forPort(PORT));
+
+    private static OutboundHttpClient http;
+    private static S3BlobStore store;
+
+    @TempDir
+    Path staging;
+
+    @BeforeAll
+    static void startMinio() throws Exception {
+        MINIO.start();
+        String endpoint = "http://" + MINIO.getHost() + ":" + MINIO.getMappedPort(PORT);
+        http = new OutboundHttpClient(new OutboundHttpProperties(null, null, 0, 0, null, null),
+                new ThreadPoolTaskScheduler());
+        createBucket(endpoint);
+        store = new S3BlobStore(http, new BlobStoreProperties(BlobStoreProperties.Type.S3, endpoint, REGION, BUCKET,
+                ACCESS_KEY, SECRET_KEY), "test/");
+    }
+
+    @AfterAll
+    static void stopMinio() {
+        MINIO.stop();
+    }
+
+    @Test
+    void objectLifecycle() throws Exception {
+        String key = "tutorials/" + UUID.randomUUID() + "/guide ž.txt";
+        byte[] content = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+        store.putFile(key, stagingFile(content), "text/plain");
+
+        BlobStore.BlobInfo info = store.stat(key).orElseThrow();
+        assertThat(info.size()).isEqualTo(content.length);
+        try (InputStream in = store.open(key)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        Resource resource = store.resource(key, info);
+        assertThat(resource.contentLength()).isEqualTo(content.length);
+        try (InputStream in = resource.getInputStream()) {
+            assertThat(in.skip(10)).isEqualTo(10);
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("abcdefghij");
+        }
+
+        store.delete(key);
+        assertThat(store.stat(key)).isEmpty();
+        assertThatThrownBy(() -> store.open(key)).isInstanceOf(NoSuchFileException.class);
+        store.delete(key); // deleting a missing object is not an error
+    }
+
+    @Test
+    void missingObjectHasNoInfo() throws Exception {
+        assertThat(store.stat("missing/" + UUID.randomUUID())).isEmpty();
+        assertThatThrownBy(() -> store.open("missing/" + UUID.randomUUID()))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    private Path stagingFile(byte[] content) throws Exception {
+        return Files.write(Files.createTempFile(staging, "blob", ".tmp"), content);
+    }
+
+    /** Creates the bucket with a request signed by the same helpers the store uses. */
+    private static void createBucket(String endpoint) throws Exception {
+        URI uri = URI.create(endpoint + "/" + BUCKET);
+        String amzDate = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").format(ZonedDateTime.now(ZoneOffset.UTC));
+        SortedMap<String, String> headers = new TreeMap<>();
+        headers.put("host", uri.getHost() + ":" + uri.getPort());
+        headers.put("x-amz-content-sha256", "UNSIGNED-PAYLOAD");
+        headers.put("x-amz-date", amzDate);
+        String signature = S3BlobStore.signature(SECRET_KEY, REGION, amzDate,
+                S3BlobStore.canonicalRequest("PUT", uri.getPath(), headers, "UNSIGNED-PAYLOAD"));
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("x-amz-content-sha256", "UNSIGNED-PAYLOAD")
+                .header("x-amz-date", amzDate)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + ACCESS_KEY + "/" + amzDate.substring(0, 8)
+                        + "/" + REGION + "/s3/aws4_request, SignedHeaders=" + String.join(";", headers.keySet())
+                        + ", Signature=" + signature)
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+    }
+}
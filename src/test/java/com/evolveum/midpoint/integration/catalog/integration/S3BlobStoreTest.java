@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link S3BlobStore}: the SigV4 canonical request and signature match the examples of
+ * the AWS S3 documentation ("Signature calculations for the Authorization header").
+ */
+class S3BlobStoreTest {
+
+    private static final String SECRET_KEY = "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY";
+    private static final String REGION = "us-east-1";
+    private static final String AMZ_DATE = "20130524T000000Z";
+    private static final String HOST = "examplebucket.s3.amazonaws.com";
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    @Test
+    void getObjectMatchesTheAwsExample() throws Exception {
+        SortedMap<String, String> headers = new TreeMap<>();
+        headers.put("host", HOST);
+        headers.put("range", "bytes=0-9");
+        headers.put("x-amz-content-sha256", EMPTY_SHA256);
+        headers.put("x-amz-date", AMZ_DATE);
+
+        String canonicalRequest = S3BlobStore.canonicalRequest("GET", "/test.txt", headers, EMPTY_SHA256);
+
+        assertThat(canonicalRequest).isEqualTo("""
+                GET
+                /test.txt
+
+                host:examplebucket.s3.amazonaws.com
+                range:bytes=0-9
+                x-amz-content-sha256:e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855
+                x-amz-date:20130524T000000Z
+
+                host;range;x-amz-content-sha256;x-amz-date
+                e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855""");
+        assertThat(sha256(canonicalRequest))
+                .isEqualTo("7344ae5b7ee6c3e7e6b0fe0640412a37625d1fbfff95c48bbb2dc43964946972");
+        assertThat(S3BlobStore.signature(SECRET_KEY, REGION, AMZ_DATE, canonicalRequest))
+                .isEqualTo("f0e8bdb87c964420e857bd35b5d6ed310bd44f0170aba48dd91039c6036bdb41");
+    }
+
+    @Test
+    void putObjectMatchesTheAwsExample() {
+        String payloadHash = "44ce7dd67c959e0d3524ffac1771dfbba87d2b6b4b4e99e42034a8b803f8b072";
+        SortedMap<String, String> headers = new TreeMap<>();
+        headers.put("date", "Fri, 24 May 2013 00:00:00 GMT");
+        headers.put("host", HOST);
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("x-amz-date", AMZ_DATE);
+        headers.put("x-amz-storage-class", "REDUCED_REDUNDANCY");
+
+        String path = "/" + S3BlobStore.encodePath("test$file.text");
+        String canonicalRequest = S3BlobStore.canonicalRequest("PUT", path, headers, payloadHash);
+
+        assertThat(path).isEqualTo("/test%24file.text");
+        assertThat(S3BlobStore.signature(SECRET_KEY, REGION, AMZ_DATE, canonicalRequest))
+                .isEqualTo("98ad721746da40c64f1a55b78f14c238d841ea1380cd77a1b5971af0ece108bd");
+    }
+
+    @Test
+    void encodePathKeepsUnreservedCharactersAndSlashes() {
+        assertThat(S3BlobStore.encodePath("bundles/a b/ž~_-.jar")).isEqualTo("bundles/a%20b/%C5%BE~_-.jar");
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
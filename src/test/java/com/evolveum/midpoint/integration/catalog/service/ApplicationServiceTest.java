@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+import com.evolveum.midpoint.integration.catalog.dto.EditIntegrationMethodDto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of {@link ApplicationService} against a real database: of two concurrent edits of the same
+ * method revision, the second waits for the first and then reads the method as the first left it.
+ */
+@SpringBootTest
+class ApplicationServiceTest {
+
+    private static final String USER = "alice";
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @MockitoBean
+    private AuthService authService;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID methodId;
+
+    @BeforeEach
+    void createDraft() {
+        when(authService.canEdit(anyString(), any(), any())).thenReturn(true);
+        UUID applicationId = jdbcTemplate.queryForObject("""
+                insert into application (name, display_name, lifecycle_state, created_at, updated)
+                values ('edit-test', 'Edit test', 'ACTIVE', now(), now())
+                returning id
+                """, UUID.class);
+        methodId = jdbcTemplate.queryForObject("""
+                insert into integration_method (application_id, display_name, lifecycle_state, revision, author,
+                        created_at, updated)
+                values (?, 'Draft', 'IN_REVIEW', '1.1', ?, now(), now())
+                returning id
+                """, UUID.class, applicationId, USER);
+    }
+
+    @Test
+    void concurrentEditOfTheSameDraftSeesTheFirstEdit() throws Exception {
+        CountDownLatch edited = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    String revision = applicationService.editIntegrationMethod(methodId, "1.1", edit("First"), 0L, USER);
+                    edited.countDown();
+                    await(commit);
+                    return revision;
+                }));
+        assertThat(edited.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // waits for the first edit's lock before it loads revision 1.1
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() ->
+                applicationService.editIntegrationMethod(methodId, "1.1", edit("Second"), 0L, USER));
+        awaitLockWait();
+        commit.countDown();
+
+        assertThat(first.get(30, TimeUnit.SECONDS)).isEqualTo("1.2");
+        // the first edit replaced 1.1 with 1.2, so the second finds nothing to edit
+        assertThatThrownBy(() -> second.get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .hasMessageContaining("Integration method not found");
+        assertThat(jdbcTemplate.queryForList("""
+                select revision || '/' || display_name from integration_method where id = ?
+                """, String.class, methodId)).containsExactly("1.2/First");
+    }
+
+    private static EditIntegrationMethodDto edit(String displayName) {
+        return new EditIntegrationMethodDto(displayName, null, null, List.of(), false, true, null, null);
+    }
+
+    /** Waits until a session of this database is blocked on a lock held by another one. */
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject("""
+                    select count(*) from pg_stat_activity
+                    where datname = current_database() and wait_event_type = 'Lock'
+                    """, Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The second edit did not wait for the first one's lock");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new AssertionError("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
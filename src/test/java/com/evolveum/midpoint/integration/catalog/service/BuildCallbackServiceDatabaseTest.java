@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+import com.evolveum.midpoint.integration.catalog.form.ContinueForm;
+import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link BuildCallbackService} against a real database: the first success callback of a
+ * connector version without a "Global" capability group creates the group with its items, and a
+ * later callback adds to that group instead of creating rows again.
+ */
+@SpringBootTest
+class BuildCallbackServiceDatabaseTest {
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Autowired
+    private BuildCallbackService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private UUID methodId;
+    private Integer connectorVersionId;
+
+    @BeforeEach
+    void createConnectorVersion() {
+        suffix = UUID.randomUUID().toString();
+        Integer bundleId = jdbcTemplate.queryForObject("""
+                insert into connector_bundle (revision, created_at, updated, lifecycle_state, bundle_name,
+                        framework, license, build_framework)
+                values ('1', now(), now(), 'ACTIVE', ?, 'JAVA_BASED', 'APACHE_2', 'MAVEN')
+                returning id
+                """, Integer.class, "callback-test-" + suffix);
+        Integer bundleVersionId = jdbcTemplate.queryForObject("""
+                insert into connector_bundle_version (revision, created_at, updated, lifecycle_state,
+                        connector_bundle_id, bundle_version)
+                values ('1', now(), now(), 'ACTIVE', ?, '1.0')
+                returning id
+                """, Integer.class, bundleId);
+        Integer connectorId = jdbcTemplate.queryForObject("""
+                insert into connector (revision, created_at, updated, display_name, connector_bundle_id)
+                values ('1', now(), now(), 'Callback test', ?)
+                returning id
+                """, Integer.class, bundleId);
+        connectorVersionId = jdbcTemplate.queryForObject("""
+                insert into connector_version (revision, created_at, updated, lifecycle_state,
+                        connector_bundle_version_id, connector_bundle_version_revision, connector_id)
+                values ('1', now(), now(), 'ACTIVE', ?, '1', ?)
+                returning id
+                """, Integer.class, bundleVersionId, connectorId);
+
+        UUID applicationId = jdbcTemplate.queryForObject("""
+                insert into application (name, display_name, lifecycle_state, created_at, updated)
+                values ('callback-test', 'Callback test', 'ACTIVE', now(), now())
+                returning id
+                """, UUID.class);
+        methodId = jdbcTemplate.queryForObject("""
+                insert into integration_method (application_id, lifecycle_state, revision, created_at, updated)
+                values (?, 'IN_REVIEW', '1.0', now(), now())
+                returning id
+                """, UUID.class, applicationId);
+    }
+
+    @Test
+    void firstSuccessCallbackCreatesTheGlobalGroupWithItsItems() {
+        service.successBuild(methodId, continueForm(List.of(CapabilityType.TEST, CapabilityType.CREATE)));
+
+        assertThat(globalGroupIds()).hasSize(1);
+        assertThat(globalCapabilities()).containsExactly("TEST");
+
+        service.successBuild(methodId, continueForm(List.of(CapabilityType.TEST, CapabilityType.SCRIPT_ON_CONNECTOR)));
+
+        assertThat(globalGroupIds()).hasSize(1);
+        assertThat(globalCapabilities()).containsExactly("SCRIPT_ON_CONNECTOR", "TEST");
+    }
+
+    private ContinueForm continueForm(List<CapabilityType> capabilities) {
+        ContinueForm form = new ContinueForm();
+        form.setBuildId("callback-test-" + UUID.randomUUID());
+        form.setConnectorBundle("callback-test-renamed-" + UUID.randomUUID());
+        form.setConnectorVersion("1.0");
+        form.setIntegrationMethodRevision("1.0");
+        form.setDownloadLink("https://example.com/callback-test.jar");
+        form.setCapability(capabilities);
+        form.setConnectorVersionId(connectorVersionId.toString());
+        form.setConnectorVersionRevision("1");
+        return form;
+    }
+
+    private List<Integer> globalGroupIds() {
+        return jdbcTemplate.queryForList("""
+                select id from conn_version_capability
+                where conn_version_id = ? and conn_version_revision = '1' and object_class = 'Global'
+                """, Integer.class, connectorVersionId);
+    }
+
+    private List<String> globalCapabilities() {
+        return jdbcTemplate.queryForList("""
+                select cap.name from conn_version_capability c
+                join conn_version_capability_item i on i.conn_version_capability_id = c.id
+                join capability cap on cap.id = i.capability_id
+                where c.conn_version_id = ? and c.conn_version_revision = '1' and c.object_class = 'Global'
+                order by cap.name
+                """, String.class, connectorVersionId);
+    }
+}
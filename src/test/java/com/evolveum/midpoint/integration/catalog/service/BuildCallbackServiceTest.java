@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.form.ContinueForm;
+import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
+import com.evolveum.midpoint.integration.catalog.repository.ApplicationRepository;
+import com.evolveum.midpoint.integration.catalog.repository.ConnVersionCapabilityRepository;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleRepository;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorVersionRepository;
+import com.evolveum.midpoint.integration.catalog.repository.IntegrationMethodRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for {@link BuildCallbackService}: a success callback with an unknown capability is
+ * rejected before it is claimed in the inbox or the connector graph is loaded.
+ */
+class BuildCallbackServiceTest {
+
+    private IntegrationMethodRepository integrationMethodRepository;
+    private ConnectorVersionRepository connectorVersionRepository;
+    private ConnVersionCapabilityRepository connVersionCapabilityRepository;
+    private BuildCallbackInbox buildCallbackInbox;
+    private BuildCallbackService service;
+
+    @BeforeEach
+    void setUp() {
+        integrationMethodRepository = mock(IntegrationMethodRepository.class);
+        connectorVersionRepository = mock(ConnectorVersionRepository.class);
+        connVersionCapabilityRepository = mock(ConnVersionCapabilityRepository.class);
+        buildCallbackInbox = mock(BuildCallbackInbox.class);
+        service = new BuildCallbackService(integrationMethodRepository, mock(ConnectorBundleRepository.class),
+                connectorVersionRepository, mock(ApplicationRepository.class), mock(CapabilityRegistry.class),
+                connVersionCapabilityRepository, buildCallbackInbox, mock(RevisionAllocator.class));
+    }
+
+    @Test
+    void unknownCapabilityIsRejectedBeforeAnythingIsTouched() {
+        ContinueForm form = new ContinueForm();
+        form.setBuildId("build-1");
+        form.setConnectorBundle("bundle");
+        form.setCapability(Arrays.asList(CapabilityType.TEST, null));
+
+        assertThatThrownBy(() -> service.successBuild(UUID.randomUUID(), form))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown capability");
+
+        verify(buildCallbackInbox, never()).claim(anyString(), any());
+        verifyNoInteractions(integrationMethodRepository, connectorVersionRepository, connVersionCapabilityRepository);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.object.Capability;
+import com.evolveum.midpoint.integration.catalog.object.CapabilityType;
+import com.evolveum.midpoint.integration.catalog.repository.CapabilityRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CapabilityRegistry}: rows are indexed by type and name, and a type whose row
+ * is missing is inserted on first lookup and served from memory afterwards.
+ */
+class CapabilityRegistryTest {
+
+    private CapabilityRepository repository;
+    private CapabilityRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CapabilityRepository.class);
+        registry = new CapabilityRegistry(repository);
+    }
+
+    @Test
+    void loadIndexesRowsByTypeAndName() {
+        List<Capability> rows = new ArrayList<>();
+        int id = 1;
+        for (CapabilityType type : CapabilityType.values()) {
+            rows.add(capability(id++, type.name()));
+        }
+        rows.add(capability(id, "CustomCapability"));
+        when(repository.findAll()).thenReturn(rows);
+
+        registry.load();
+
+        assertThat(registry.get(CapabilityType.SCHEMA).getName()).isEqualTo("SCHEMA");
+        assertThat(registry.findByName("CustomCapability")).isPresent();
+        assertThat(registry.all()).hasSize(CapabilityType.values().length + 1);
+        verify(repository, never()).insertIfAbsent(anyString(), anyString());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void missingTypeIsInsertedOnFirstLookupOnly() {
+        when(repository.findAll()).thenReturn(List.of(capability(1, "TEST")));
+        when(repository.findByName("GET")).thenReturn(Optional.of(capability(2, "GET")));
+        // startup finds only TEST; the inserts of the other types are not visible to it
+        registry.load();
+
+        Capability first = registry.get(CapabilityType.GET);
+        Capability second = registry.get(CapabilityType.GET);
+
+        assertThat(first.getId()).isEqualTo(2);
+        assertThat(second).isSameAs(first);
+        assertThat(registry.findByName("GET")).containsSame(first);
+        assertThat(registry.get(CapabilityType.TEST).getId()).isEqualTo(1);
+        verify(repository, times(2)).insertIfAbsent("GET", "SPECIFIC"); // at startup and on the first lookup
+        verify(repository, times(1)).findByName("GET");
+    }
+
+    private static Capability capability(int id, String name) {
+        return new Capability().setId(id).setName(name).setDisplayOrder(id);
+    }
+}
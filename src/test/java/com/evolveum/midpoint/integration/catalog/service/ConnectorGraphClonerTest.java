@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+import com.evolveum.midpoint.integration.catalog.object.IntegrationMethod;
+import com.evolveum.midpoint.integration.catalog.object.IntegrationMethodId;
+import com.evolveum.midpoint.integration.catalog.repository.IntegrationMethodRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link ConnectorGraphCloner} against a real database: a connector is copied with its bundle,
+ * bundle versions, versions and their capabilities, a method revision with its connector links and
+ * capabilities, and the new ids are drawn in pooled blocks rather than one block per row.
+ */
+@SpringBootTest
+class ConnectorGraphClonerTest {
+
+    /** More versions than one pooled block (50) holds. */
+    private static final int VERSIONS = 60;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Autowired
+    private ConnectorGraphCloner cloner;
+
+    @Autowired
+    private IntegrationMethodRepository integrationMethodRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer connectorId;
+    private UUID methodId;
+    private List<Integer> capabilityIds;
+
+    @BeforeEach
+    void createGraph() {
+        capabilityIds = jdbcTemplate.queryForList("select id from capability order by id limit 2", Integer.class);
+        Integer bundleId = jdbcTemplate.queryForObject("""
+                insert into connector_bundle (revision, created_at, updated, lifecycle_state, bundle_name,
+                        framework, license, build_framework)
+                values ('1', now(), now(), 'ACTIVE', 'cloner-test', 'JAVA_BASED', 'APACHE_2', 'MAVEN')
+                returning id
+                """, Integer.class);
+        connectorId = jdbcTemplate.queryForObject("""
+                insert into connector (revision, created_at, updated, display_name, connector_bundle_id)
+                values ('1', now(), now(), 'Cloner test', ?)
+                returning id
+                """, Integer.class, bundleId);
+        jdbcTemplate.update("""
+                insert into connector_bundle_version (id, revision, created_at, updated, lifecycle_state,
+                        connector_bundle_id, bundle_version, artifact_url)
+                select a.id, '1', now(), now(), 'ACTIVE', ?, '1.' || a.n, 'https://example.com/cloner-' || a.id || '.jar'
+                from allocate_pooled_ids('connector_bundle_version_id_seq', 2) with ordinality a(id, n)
+                """, bundleId);
+        jdbcTemplate.update("""
+                insert into connector_version (id, revision, created_at, updated, lifecycle_state,
+                        connector_bundle_version_id, connector_bundle_version_revision, connector_id)
+                select a.id, '1', now(), now(), 'ACTIVE',
+                       (select min(id) + (a.n % 2) * (max(id) - min(id)) from connector_bundle_version
+                        where connector_bundle_id = ?), '1', ?
+                from allocate_pooled_ids('connector_version_id_seq', ?) with ordinality a(id, n)
+                """, bundleId, connectorId, VERSIONS);
+        jdbcTemplate.update("""
+                insert into conn_version_capability (id, object_class, conn_version_id, conn_version_revision)
+                select a.id, '__ACCOUNT__', v.id, v.revision
+                from (select id, revision, row_number() over (order by id) as n
+                      from connector_version where connector_id = ?) v
+                join allocate_pooled_ids('conn_version_capability_id_seq', ?) with ordinality a(id, n) on a.n = v.n
+                """, connectorId, VERSIONS);
+        jdbcTemplate.update("""
+                insert into conn_version_capability_item (conn_version_capability_id, capability_id)
+                select c.id, cap.id
+                from conn_version_capability c
+                join connector_version v on v.id = c.conn_version_id and v.revision = c.conn_version_revision
+                join capability cap on cap.id in (?, ?)
+                where v.connector_id = ?
+                """, capabilityIds.get(0), capabilityIds.get(1), connectorId);
+
+        UUID applicationId = jdbcTemplate.queryForObject("""
+                insert into application (name, display_name, lifecycle_state, created_at, updated)
+                values ('cloner-test', 'Cloner test', 'ACTIVE', now(), now())
+                returning id
+                """, UUID.class);
+        methodId = jdbcTemplate.queryForObject("""
+                insert into integration_method (application_id, lifecycle_state, revision, created_at, updated)
+                values (?, 'ACTIVE', '1.0', now(), now())
+                returning id
+                """, UUID.class, applicationId);
+        jdbcTemplate.update("""
+                insert into integration_method (id, application_id, lifecycle_state, revision, created_at, updated)
+                values (?, ?, 'IN_REVIEW', '2.0', now(), now())
+                """, methodId, applicationId);
+        jdbcTemplate.update("""
+                insert into integration_method_connector (integ_method_id, integ_method_revision, connector_id,
+                        connector_minversion, connector_maxversion)
+                values (?, '1.0', ?, '1.1', '1.2')
+                """, methodId, connectorId);
+        jdbcTemplate.update("""
+                insert into integration_method_capability (id, object_class, integ_method_id, integ_method_revision)
+                select a.id, 'class-' || a.n, ?, '1.0'
+                from allocate_pooled_ids('integration_method_capability_id_seq', 2) with ordinality a(id, n)
+                """, methodId);
+        jdbcTemplate.update("""
+                insert into integration_method_capability_item (integration_method_capability_id, capability_id)
+                select c.id, ? from integration_method_capability c
+                where c.integ_method_id = ? and c.integ_method_revision = '1.0'
+                """, capabilityIds.get(0), methodId);
+    }
+
+    @Test
+    void cloneConnectorCopiesTheWholeGraph() {
+        long versionSequence = lastValue("connector_version_id_seq");
+
+        Integer cloneId = new TransactionTemplate(transactionManager).execute(status ->
+                cloner.cloneConnector(connectorId, "2"));
+
+        assertThat(cloneId).isNotEqualTo(connectorId);
+        assertThat(jdbcTemplate.queryForObject("select cloned_from from connector where id = ?", Integer.class, cloneId))
+                .isEqualTo(connectorId);
+        assertThat(jdbcTemplate.queryForObject("""
+                select b.revision || '/' || b.lifecycle_state || '/' || b.bundle_name
+                from connector c join connector_bundle b on b.id = c.connector_bundle_id where c.id = ?
+                """, String.class, cloneId)).isEqualTo("2/IN_REVIEW/cloner-test");
+
+        assertThat(count("connector_version where connector_id = ?", cloneId)).isEqualTo(VERSIONS);
+        assertThat(count("connector_version where connector_id = ? and lifecycle_state = 'IN_REVIEW'", cloneId))
+                .isEqualTo(VERSIONS);
+        assertThat(count("""
+                connector_version v join connector_version s on s.id = v.id where v.connector_id = ?
+                and s.connector_id = ?""", cloneId, connectorId)).isZero();
+        // every copied version points at a copied bundle version of the copied bundle
+        assertThat(count("""
+                connector_version v
+                join connector_bundle_version bv on bv.id = v.connector_bundle_version_id
+                                                and bv.revision = v.connector_bundle_version_revision
+                join connector c on c.id = v.connector_id and c.connector_bundle_id = bv.connector_bundle_id
+                where v.connector_id = ?""", cloneId)).isEqualTo(VERSIONS);
+        assertThat(count("""
+                connector_bundle_version where connector_bundle_id =
+                (select connector_bundle_id from connector where id = ?)""", cloneId)).isEqualTo(2);
+        assertThat(count("""
+                conn_version_capability c
+                join connector_version v on v.id = c.conn_version_id and v.revision = c.conn_version_revision
+                where v.connector_id = ?""", cloneId)).isEqualTo(VERSIONS);
+        assertThat(count("""
+                conn_version_capability_item i
+                join conn_version_capability c on c.id = i.conn_version_capability_id
+                join connector_version v on v.id = c.conn_version_id and v.revision = c.conn_version_revision
+                where v.connector_id = ?""", cloneId)).isEqualTo(VERSIONS * capabilityIds.size());
+
+        // 60 ids are two pooled blocks, not one block per row
+        assertThat(lastValue("connector_version_id_seq") - versionSequence).isEqualTo(100);
+    }
+
+    @Test
+    void copyMethodContentCopiesConnectorsAndCapabilities() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            IntegrationMethod from = integrationMethodRepository.findById(new IntegrationMethodId(methodId, "1.0"))
+                    .orElseThrow();
+            IntegrationMethod to = integrationMethodRepository.findById(new IntegrationMethodId(methodId, "2.0"))
+                    .orElseThrow();
+            cloner.copyMethodContent(from, to);
+        });
+
+        assertThat(jdbcTemplate.queryForObject("""
+                select connector_id || '/' || connector_minversion || '/' || connector_maxversion
+                from integration_method_connector where integ_method_id = ? and integ_method_revision = '2.0'
+                """, String.class, methodId)).isEqualTo(connectorId + "/1.1/1.2");
+        assertThat(jdbcTemplate.queryForList("""
+                select object_class from integration_method_capability
+                where integ_method_id = ? and integ_method_revision = '2.0' order by object_class
+                """, String.class, methodId)).containsExactly("class-1", "class-2");
+        assertThat(count("""
+                integration_method_capability_item i
+                join integration_method_capability c on c.id = i.integration_method_capability_id
+                where c.integ_method_id = ? and c.integ_method_revision = '2.0'""", methodId)).isEqualTo(2);
+        // the source revision keeps its own rows
+        assertThat(count("integration_method_capability where integ_method_id = ? and integ_method_revision = '1.0'",
+                methodId)).isEqualTo(2);
+    }
+
+    private int count(String fromWhere, Object... args) {
+        return jdbcTemplate.queryForObject("select count(*) from " + fromWhere, Integer.class, args);
+    }
+
+    private long lastValue(String sequence) {
+        return jdbcTemplate.queryForObject("select last_value from " + sequence, Long.class);
+    }
+}
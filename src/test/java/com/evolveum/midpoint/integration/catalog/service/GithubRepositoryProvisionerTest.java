@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.integration.GithubClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.HttpException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link GithubRepositoryProvisioner}: a job replayed after a partial success
+ * completes and writes the links, and only retryable errors are retried.
+ */
+class GithubRepositoryProvisionerTest {
+
+    private static final GithubRepositoryProvisioner.Job JOB = new GithubRepositoryProvisioner.Job(
+            7, "1.0", "my-connector", "com.example.MyConnector", "1.0.0", List.of());
+
+    private GithubClient githubClient;
+    private ConnectorBundleVersionRepository bundleVersionRepository;
+    private GithubRepositoryProvisioner provisioner;
+    private GHRepository repo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        githubClient = mock(GithubClient.class);
+        bundleVersionRepository = mock(ConnectorBundleVersionRepository.class);
+        provisioner = new GithubRepositoryProvisioner(githubClient, bundleVersionRepository);
+        repo = mock(GHRepository.class);
+        when(repo.getHttpTransportUrl()).thenReturn("https://github.com/acme/my-connector.git");
+        when(repo.getHtmlUrl()).thenReturn(new URL("https://github.com/acme/my-connector"));
+    }
+
+    @Test
+    void replayAfterLinksFailedCreatesProjectAgainAndWritesLinks() throws Exception {
+        when(githubClient.createProject("my-connector", "com.example.MyConnector", "1.0.0", List.of()))
+                .thenReturn(repo);
+        when(bundleVersionRepository.updateRepositoryLinks(any(), any(), any(), any()))
+                .thenThrow(new QueryTimeoutException("database went away"))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> provisioner.handle(JOB)).isInstanceOf(QueryTimeoutException.class);
+        provisioner.handle(JOB);
+
+        verify(githubClient, times(2)).createProject("my-connector", "com.example.MyConnector", "1.0.0", List.of());
+        verify(bundleVersionRepository, times(2)).updateRepositoryLinks(7, "1.0",
+                "https://github.com/acme/my-connector.git", "https://github.com/acme/my-connector/tree/main");
+    }
+
+    @Test
+    void linksAreNotWrittenWhenProjectCreationFails() throws Exception {
+        when(githubClient.createProject("my-connector", "com.example.MyConnector", "1.0.0", List.of()))
+                .thenThrow(new IOException("connection reset"))
+                .thenReturn(repo);
+
+        assertThatThrownBy(() -> provisioner.handle(JOB)).isInstanceOf(IOException.class);
+        verify(bundleVersionRepository, never()).updateRepositoryLinks(any(), any(), anyString(), anyString());
+
+        provisioner.handle(JOB);
+        verify(bundleVersionRepository, times(1)).updateRepositoryLinks(any(), any(), anyString(), anyString());
+    }
+
+    @Test
+    void clientErrorsExceptRateLimitArePermanent() {
+        assertThat(provisioner.isPermanent(httpError(401))).isTrue();
+        assertThat(provisioner.isPermanent(httpError(403))).isTrue();
+        assertThat(provisioner.isPermanent(httpError(422))).isTrue();
+        assertThat(provisioner.isPermanent(httpError(429))).isFalse();
+        assertThat(provisioner.isPermanent(httpError(502))).isFalse();
+        assertThat(provisioner.isPermanent(new IOException("connection reset"))).isFalse();
+    }
+
+    private static HttpException httpError(int status) {
+        return new HttpException("status " + status, status, "status " + status, "https://api.github.com/user/repos");
+    }
+}
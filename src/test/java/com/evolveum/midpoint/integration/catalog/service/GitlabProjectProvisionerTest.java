@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.integration.GitlabClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link GitlabProjectProvisioner}: the project links are written back, and only
+ * retryable errors are retried.
+ */
+class GitlabProjectProvisionerTest {
+
+    private static final GitlabProjectProvisioner.Job JOB = new GitlabProjectProvisioner.Job(
+            7, "1.0", "my-connector", "1.0.0", List.of());
+
+    private GitlabClient gitlabClient;
+    private ConnectorBundleVersionRepository bundleVersionRepository;
+    private GitlabProjectProvisioner provisioner;
+
+    @BeforeEach
+    void setUp() {
+        gitlabClient = mock(GitlabClient.class);
+        bundleVersionRepository = mock(ConnectorBundleVersionRepository.class);
+        provisioner = new GitlabProjectProvisioner(gitlabClient, bundleVersionRepository);
+    }
+
+    @Test
+    void writesProjectLinksBack() throws Exception {
+        Project project = new Project();
+        project.setHttpUrlToRepo("https://gitlab.example.com/acme/my-connector.git");
+        project.setWebUrl("https://gitlab.example.com/acme/my-connector");
+        when(gitlabClient.createProject("my-connector", "1.0.0", List.of())).thenReturn(project);
+
+        provisioner.handle(JOB);
+
+        verify(bundleVersionRepository).updateRepositoryLinks(7, "1.0",
+                "https://gitlab.example.com/acme/my-connector.git",
+                "https://gitlab.example.com/acme/my-connector/-/tree/main");
+    }
+
+    @Test
+    void clientErrorsExceptRateLimitArePermanent() {
+        assertThat(provisioner.isPermanent(new GitLabApiException("status 401", 401))).isTrue();
+        assertThat(provisioner.isPermanent(new GitLabApiException("status 403", 403))).isTrue();
+        assertThat(provisioner.isPermanent(new GitLabApiException("status 429", 429))).isFalse();
+        assertThat(provisioner.isPermanent(new GitLabApiException("status 502", 502))).isFalse();
+        assertThat(provisioner.isPermanent(new IOException("connection reset"))).isFalse();
+    }
+
+    @Test
+    void badCredentialsAreReportedOnTheBundleVersion() {
+        provisioner.giveUp(JOB, new GitLabApiException("401 Unauthorized", 401));
+
+        verify(bundleVersionRepository).updateErrorMessage(7, "1.0",
+                "Unable to create GitLab project - bad credentials.");
+    }
+}
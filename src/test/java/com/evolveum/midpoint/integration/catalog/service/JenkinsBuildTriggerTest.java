@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.integration.JenkinsClient;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorBundleVersionRepository;
+import com.evolveum.midpoint.integration.catalog.repository.ConnectorVersionRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link JenkinsBuildTrigger}: the repository links are read when the job runs, a
+ * low-code build waits for them, and it is given up when the repository could not be created or
+ * Jenkins refuses the request.
+ */
+class JenkinsBuildTriggerTest {
+
+    private static final JenkinsBuildTrigger.Job LOW_CODE_JOB = new JenkinsBuildTrigger.Job(
+            3, "1.0", 7, "1.0", true, "request-1", Map.of("CONNECTOR_VERSION_ID", "3"));
+
+    private JenkinsClient jenkinsClient;
+    private ConnectorBundleVersionRepository bundleVersionRepository;
+    private JenkinsBuildTrigger trigger;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jenkinsClient = mock(JenkinsClient.class);
+        bundleVersionRepository = mock(ConnectorBundleVersionRepository.class);
+        trigger = new JenkinsBuildTrigger(jenkinsClient, mock(ConnectorVersionRepository.class), bundleVersionRepository);
+        HttpResponse<String> created = mock(HttpResponse.class);
+        when(created.statusCode()).thenReturn(201);
+        when(jenkinsClient.triggerJob(anyMap())).thenReturn(created);
+    }
+
+    @Test
+    void repositoryLinksAreReadWhenTheJobRuns() throws Exception {
+        linksAre("https://github.com/acme/c.git", "https://github.com/acme/c/tree/main", null);
+
+        trigger.handle(LOW_CODE_JOB);
+
+        verify(jenkinsClient).triggerJob(argThat(parameters ->
+                "https://github.com/acme/c.git".equals(parameters.get("REPOSITORY_URL"))
+                        && "https://github.com/acme/c/tree/main".equals(parameters.get("BRANCH_URL"))
+                        && "request-1".equals(parameters.get("BUILD_REQUEST_ID"))
+                        && "3".equals(parameters.get("CONNECTOR_VERSION_ID"))));
+    }
+
+    @Test
+    void lowCodeBuildWaitsForRepository() throws Exception {
+        linksAre(null, null, null);
+
+        assertThatThrownBy(() -> trigger.handle(LOW_CODE_JOB))
+                .isInstanceOf(IllegalStateException.class)
+                .satisfies(e -> assertThat(trigger.isPermanent((Exception) e)).isFalse());
+        verify(jenkinsClient, never()).triggerJob(any());
+    }
+
+    @Test
+    void buildIsGivenUpWhenRepositoryCouldNotBeCreated() throws Exception {
+        linksAre(null, null, "Unable to create GitHub repository - bad credentials.");
+
+        assertThatThrownBy(() -> trigger.handle(LOW_CODE_JOB))
+                .satisfies(e -> assertThat(trigger.isPermanent((Exception) e)).isTrue());
+        verify(jenkinsClient, never()).triggerJob(any());
+    }
+
+    @Test
+    void buildIsGivenUpWhenJenkinsRefusesTheRequest() throws Exception {
+        linksAre("https://github.com/acme/c.git", "https://github.com/acme/c/tree/main", null);
+
+        for (int status : new int[] {401, 403, 404}) {
+            jenkinsAnswers(status);
+            assertThatThrownBy(() -> trigger.handle(LOW_CODE_JOB))
+                    .hasMessageContaining("Jenkins answered " + status)
+                    .satisfies(e -> assertThat(trigger.isPermanent((Exception) e)).isTrue());
+        }
+        for (int status : new int[] {429, 502}) {
+            jenkinsAnswers(status);
+            assertThatThrownBy(() -> trigger.handle(LOW_CODE_JOB))
+                    .hasMessageContaining("Jenkins answered " + status)
+                    .satisfies(e -> assertThat(trigger.isPermanent((Exception) e)).isFalse());
+        }
+    }
+
+    private void linksAre(String gitCloneUrl, String browseLink, String errorMessage) {
+        ConnectorBundleVersionRepository.RepositoryLinks links = mock(ConnectorBundleVersionRepository.RepositoryLinks.class);
+        when(links.getGitCloneUrl()).thenReturn(gitCloneUrl);
+        when(links.getBrowseLink()).thenReturn(browseLink);
+        when(links.getErrorMessage()).thenReturn(errorMessage);
+        when(bundleVersionRepository.findRepositoryLinks(7, "1.0")).thenReturn(Optional.of(links));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void jenkinsAnswers(int status) throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn("status " + status);
+        when(jenkinsClient.triggerJob(anyMap())).thenReturn(response);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.LoginProperties;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LoginThrottle}: the burst is spent then refilled at the per-minute rate,
+ * an attempt needs both its username and its IP token, and idle buckets are evicted.
+ */
+class LoginThrottleTest {
+
+    private static final int PER_MINUTE = 6;
+    private static final int BURST = 3;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private LoginThrottle throttle(int cleanupThreshold) {
+        return new LoginThrottle(new LoginProperties(1, 1, PER_MINUTE, BURST, 4), nanos::get, cleanupThreshold);
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void burstIsSpentThenRefilledAtPerMinuteRate() {
+        LoginThrottle throttle = throttle(10_000);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isTrue();
+        }
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isFalse();
+
+        advanceSeconds(9);
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isFalse();
+
+        advanceSeconds(2);
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isTrue();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        LoginThrottle throttle = throttle(10_000);
+        throttle.tryAcquire("alice", null);
+
+        advanceSeconds(3600);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(throttle.tryAcquire("alice", null)).isTrue();
+        }
+        assertThat(throttle.tryAcquire("alice", null)).isFalse();
+    }
+
+    @Test
+    void exhaustedIpBlocksOtherUsernames() {
+        LoginThrottle throttle = throttle(10_000);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(throttle.tryAcquire("user" + i, "10.0.0.1")).isTrue();
+        }
+
+        assertThat(throttle.tryAcquire("fresh", "10.0.0.1")).isFalse();
+        assertThat(throttle.tryAcquire("fresh", "10.0.0.2")).isTrue();
+    }
+
+    @Test
+    void exhaustedUsernameIsBlockedFromOtherAddresses() {
+        LoginThrottle throttle = throttle(10_000);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(throttle.tryAcquire("alice", "10.0.0." + i)).isTrue();
+        }
+
+        assertThat(throttle.tryAcquire("ALICE", "10.0.1.1")).isFalse();
+        assertThat(throttle.tryAcquire("bob", "10.0.1.1")).isTrue();
+    }
+
+    @Test
+    void idleBucketsAreEvictedOnceFullAgain() {
+        LoginThrottle throttle = throttle(2);
+        throttle.tryAcquire("alice", "10.0.0.1");
+        throttle.tryAcquire("bob", "10.0.0.2");
+        assertThat(throttle.trackedKeys()).isEqualTo(4);
+
+        advanceSeconds(29);
+        throttle.tryAcquire("carol", "10.0.0.3");
+        assertThat(throttle.trackedKeys()).isEqualTo(6);
+
+        advanceSeconds(2);
+        throttle.tryAcquire("dave", "10.0.0.4");
+        assertThat(throttle.trackedKeys()).isEqualTo(4);
+    }
+}
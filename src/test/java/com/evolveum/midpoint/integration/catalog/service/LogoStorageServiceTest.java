@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.LogoStorageProperties;
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+import com.evolveum.midpoint.integration.catalog.object.Application;
+import com.evolveum.midpoint.integration.catalog.repository.ApplicationRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link LogoStorageService}: the replaced logo file is deleted only after the new path
+ * is committed, the newly written file is deleted when the transaction rolls back, and the stored
+ * logo's hash is that of its content.
+ */
+class LogoStorageServiceTest {
+
+    @TempDir
+    Path staging;
+
+    private BlobStore blobStore;
+    private LogoStorageService service;
+    private Application application;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStore = mock(BlobStore.class);
+        when(blobStore.newStagingFile()).thenAnswer(invocation -> Files.createTempFile(staging, "logo", ".tmp"));
+        ApplicationRepository applicationRepository = mock(ApplicationRepository.class);
+        when(applicationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new LogoStorageService(new LogoStorageProperties(staging.toString(), 0),
+                applicationRepository, blobStore);
+        application = new Application();
+        application.setId(UUID.randomUUID());
+        application.setLogoPath("old.png");
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void replacedLogoIsDeletedAfterCommit() throws Exception {
+        service.saveLogo(application, "new.png", "image/png", 3, new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        String stored = application.getLogoPath();
+
+        verify(blobStore).putFile(eq(stored), any(), eq("image/png"));
+        verify(blobStore, never()).delete(anyString());
+        assertThat(application.getLogoHash())
+                .isEqualTo("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(blobStore).delete("old.png");
+        verify(blobStore, never()).delete(stored);
+    }
+
+    @Test
+    void storedLogoIsDeletedAfterRollback() throws Exception {
+        service.saveLogo(application, "new.png", "image/png", 3, new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        String stored = application.getLogoPath();
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(blobStore).delete(stored);
+        verify(blobStore, never()).delete("old.png");
+        assertThat(stored).isNotEqualTo("old.png");
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.configuration.RecentlyUsedProperties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RecentlyUsedTracker}: the in-memory list keeps distinct applications in
+ * order of last use, and a user's list is read from the table with this node's queued uses on top.
+ */
+class RecentlyUsedTrackerTest {
+
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+    private static final UUID D = UUID.fromString("00000000-0000-0000-0000-00000000000d");
+
+    @Test
+    void repeatedUseMovesApplicationToFrontWithoutDuplicates() {
+        RecentlyUsedTracker.Ring ring = new RecentlyUsedTracker.Ring(4);
+
+        ring.push(A, 1);
+        ring.push(B, 2);
+        ring.push(A, 3);
+        ring.push(C, 4);
+        ring.push(B, 5);
+
+        assertThat(ring.recent(10)).containsExactly(B, C, A);
+    }
+
+    @Test
+    void ringFullOfRepeatsStillReturnsRequestedNumberOfDistinctApplications() {
+        RecentlyUsedTracker.Ring ring = new RecentlyUsedTracker.Ring(3);
+
+        for (int i = 0; i < 10; i++) {
+            ring.push(A, i);
+            ring.push(B, i);
+        }
+        ring.push(C, 11);
+
+        assertThat(ring.recent(3)).containsExactly(C, B, A);
+    }
+
+    @Test
+    void oldestApplicationIsEvictedAtCapacity() {
+        RecentlyUsedTracker.Ring ring = new RecentlyUsedTracker.Ring(3);
+
+        ring.push(A, 1);
+        ring.push(B, 2);
+        ring.push(C, 3);
+        ring.push(D, 4);
+
+        assertThat(ring.recent(10)).containsExactly(D, C, B);
+        assertThat(ring.recent(2)).containsExactly(D, C);
+    }
+
+    @Test
+    void loadedRingKeepsQueryOrderAndExpires() {
+        RecentlyUsedTracker.Ring ring = RecentlyUsedTracker.Ring.loaded(3, List.of(A, B, C, D), 100);
+
+        assertThat(ring.recent(10)).containsExactly(A, B, C);
+        assertThat(ring.isStale(150, 100)).isFalse();
+        assertThat(ring.isStale(201, 100)).isTrue();
+        assertThat(new RecentlyUsedTracker.Ring(3).isStale(0, 100)).isTrue();
+    }
+
+    @Test
+    void userListIsReadFromTableWithQueuedUsesOnTop() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), eq("alice"), anyInt()))
+                .thenReturn(List.of(A, B));
+        RecentlyUsedTracker tracker = new RecentlyUsedTracker(
+                new RecentlyUsedProperties(0, 0, 0, null, 0, 0, 0, 0, null), jdbcTemplate, mock(TaskScheduler.class));
+
+        tracker.record(C, "alice");
+        tracker.record(B, "alice");
+
+        assertThat(tracker.recentApplicationIds("alice", 10)).containsExactly(B, C, A);
+    }
+}
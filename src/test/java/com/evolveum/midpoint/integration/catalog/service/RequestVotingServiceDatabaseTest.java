@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link RequestVotingService#submitVote} against a real database: a first vote is stored
+ * and bumps {@code request.vote_count}, while a repeated vote or a vote on a missing request is
+ * rejected without touching any count.
+ */
+@SpringBootTest
+class RequestVotingServiceDatabaseTest {
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Autowired
+    private RequestVotingService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long requestId;
+
+    @BeforeEach
+    void createRequest() {
+        UUID applicationId = jdbcTemplate.queryForObject("""
+                insert into application (name, display_name, lifecycle_state, created_at, updated)
+                values (?, 'Voting test', 'ACTIVE', now(), now())
+                returning id
+                """, UUID.class, "voting-test-" + UUID.randomUUID());
+        requestId = jdbcTemplate.queryForObject("""
+                insert into request (application_id, requester, collab)
+                values (?, 'requester', false)
+                returning id
+                """, Long.class, applicationId);
+    }
+
+    @Test
+    void firstVoteIsStoredAndCounted() {
+        service.submitVote(requestId, "alice");
+        service.submitVote(requestId, "bob");
+
+        assertThat(voteCount(requestId)).isEqualTo(2);
+        assertThat(storedVotes(requestId)).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedVoteIsRejectedAndNotCounted() {
+        service.submitVote(requestId, "alice");
+
+        assertThatThrownBy(() -> service.submitVote(requestId, "alice"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already voted");
+
+        assertThat(voteCount(requestId)).isEqualTo(1);
+        assertThat(storedVotes(requestId)).isEqualTo(1);
+    }
+
+    @Test
+    void voteOnMissingRequestIsRejected() {
+        Long missingId = jdbcTemplate.queryForObject("select max(id) + 1000 from request", Long.class);
+
+        assertThatThrownBy(() -> service.submitVote(missingId, "alice"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Request not found");
+
+        assertThat(storedVotes(missingId)).isZero();
+        assertThat(voteCount(requestId)).isZero();
+    }
+
+    private long voteCount(Long id) {
+        return jdbcTemplate.queryForObject("select vote_count from request where id = ?", Long.class, id);
+    }
+
+    private long storedVotes(Long id) {
+        return jdbcTemplate.queryForObject("select count(*) from vote where request_id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.common.SessionPrincipal;
+import com.evolveum.midpoint.integration.catalog.configuration.SessionTokenProperties;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SessionTokenService}: a token round-trips its principal, and tampered,
+ * foreign-key or expired tokens are rejected.
+ */
+class SessionTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final SessionPrincipal PRINCIPAL =
+            new SessionPrincipal("alice", "OrganizationContributor", 7, "Acme");
+
+    private static SessionTokenService serviceAt(Instant now, String secret) {
+        return new SessionTokenService(new SessionTokenProperties(secret, Duration.ofHours(1), true),
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void issuedTokenVerifiesToSamePrincipal() {
+        SessionTokenService service = serviceAt(NOW, SECRET);
+
+        assertThat(service.verify(service.issue(PRINCIPAL))).contains(PRINCIPAL);
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        SessionTokenService service = serviceAt(NOW, SECRET);
+        String token = service.issue(PRINCIPAL);
+        String forged = service.issue(new SessionPrincipal("alice", "Superuser", null, null));
+
+        String mixed = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThat(service.verify(mixed)).isEmpty();
+    }
+
+    @Test
+    void tokenSignedWithOtherKeyIsRejected() {
+        String otherSecret = Base64.getEncoder().encodeToString(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        String token = serviceAt(NOW, otherSecret).issue(PRINCIPAL);
+
+        assertThat(serviceAt(NOW, SECRET).verify(token)).isEmpty();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = serviceAt(NOW, SECRET).issue(PRINCIPAL);
+
+        assertThat(serviceAt(NOW.plus(Duration.ofHours(2)), SECRET).verify(token)).isEmpty();
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        SessionTokenService service = serviceAt(NOW, SECRET);
+
+        assertThat(service.verify("not-a-token")).isEmpty();
+        assertThat(service.verify("a.b.c")).isEmpty();
+        assertThat(service.verify("%%%.%%%")).isEmpty();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2010-2025 Evolveum and contributors
+ *
+ * Licensed under the EUPL-1.2 or later.
+ */
+
+package com.evolveum.midpoint.integration.catalog.service;
+
+import com.evolveum.midpoint.integration.catalog.TestDatabase;
+import com.evolveum.midpoint.integration.catalog.integration.BlobStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link TutorialStorageService} against a real database: equal contents share one blob,
+ * garbage collection removes a blob nobody references, and a re-upload of the content racing with the
+ * collection keeps the blob.
+ */
+@SpringBootTest
+class TutorialStorageServiceTest {
+
+    private static final String REVISION = "1.0";
+    private static final Path STORAGE = createTempDirectory();
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+        registry.add("tutorial.storage.base-path", STORAGE::toString);
+    }
+
+    @Autowired
+    private TutorialStorageService service;
+
+    @Autowired
+    @Qualifier("tutorialBlobStore")
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID methodId;
+
+    @BeforeEach
+    void createMethod() {
+        UUID applicationId = jdbcTemplate.queryForObject("""
+                insert into application (name, display_name, lifecycle_state, created_at, updated)
+                values ('tutorial-test', 'Tutorial test', 'ACTIVE', now(), now())
+                returning id
+                """, UUID.class);
+        methodId = jdbcTemplate.queryForObject("""
+                insert into integration_method (application_id, lifecycle_state, revision, created_at, updated)
+                values (?, 'ACTIVE', ?, now(), now())
+                returning id
+                """, UUID.class, applicationId, REVISION);
+    }
+
+    @Test
+    void sameContentIsStoredOnce() throws Exception {
+        byte[] content = uniqueContent();
+
+        upload("first.txt", content);
+        upload("second.txt", content);
+
+        String hash = service.findTutorialFile(methodId, REVISION, "first.txt").hash();
+        assertThat(service.findTutorialFile(methodId, REVISION, "second.txt").hash()).isEqualTo(hash);
+        assertThat(refCount(hash)).isEqualTo(2);
+        assertThat(blobStore.stat(blobKey(hash))).isPresent();
+    }
+
+    @Test
+    void garbageCollectionRemovesUnreferencedBlob() throws Exception {
+        upload("guide.txt", uniqueContent());
+        String hash = service.findTutorialFile(methodId, REVISION, "guide.txt").hash();
+
+        service.deleteTutorialFile(methodId, REVISION, "guide.txt");
+
+        assertThat(blobRows(hash)).isZero();
+        assertThat(blobStore.stat(blobKey(hash))).isEmpty();
+    }
+
+    @Test
+    void reUploadDuringGarbageCollectionKeepsTheBlob() throws Exception {
+        byte[] content = uniqueContent();
+        upload("guide.txt", content);
+        String hash = service.findTutorialFile(methodId, REVISION, "guide.txt").hash();
+        // drop the reference without the collection that deleteTutorialFile would run
+        jdbcTemplate.update("delete from tutorial_file where integ_method_id = ?", methodId);
+        assertThat(refCount(hash)).isZero();
+
+        CountDownLatch uploaded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> reUpload = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    upload("again.txt", content);
+                    uploaded.countDown();
+                    await(commit);
+                }));
+        assertThat(uploaded.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // sees the committed count of 0 and then waits for the re-upload's lock on the blob row
+        CompletableFuture<Void> collection = CompletableFuture.runAsync(service::collectGarbage);
+        awaitLockWait();
+        commit.countDown();
+        reUpload.get(30, TimeUnit.SECONDS);
+        collection.get(30, TimeUnit.SECONDS);
+
+        assertThat(refCount(hash)).isEqualTo(1);
+        assertThat(blobStore.stat(blobKey(hash))).isPresent();
+        try (InputStream in = service.openTutorialFile(service.findTutorialFile(methodId, REVISION, "again.txt"))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    private void upload(String fileName, byte[] content) {
+        try {
+            service.saveTutorialForRevision(methodId, REVISION, fileName, content.length,
+                    new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Integer refCount(String hash) {
+        return jdbcTemplate.queryForObject("select ref_count from tutorial_blob where hash = ?", Integer.class, hash);
+    }
+
+    private Integer blobRows(String hash) {
+        return jdbcTemplate.queryForObject("select count(*) from tutorial_blob where hash = ?", Integer.class, hash);
+    }
+
+    /** Waits until a session of this database is blocked on a lock held by another one. */
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject("""
+                    select count(*) from pg_stat_activity
+                    where datname = current_database() and wait_event_type = 'Lock'
+                    """, Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Garbage collection did not wait for the blob row lock");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new AssertionError("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] uniqueContent() {
+        return ("Tutorial " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String blobKey(String hash) {
+        return "blobs/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("tutorial-storage-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -226,8 +226,8 @@ INSERT INTO conn_version_capability_item (conn_version_capability_id, capability
 -- REQUEST for SAP HR (REQUESTED lifecycle)
 -- ============================================================
 
-INSERT INTO request (id, application_id, requester, mail, collab, base_url, system_version) OVERRIDING SYSTEM VALUE VALUES
-    (1, '22222222-2222-2222-2222-222222222222', 'jane', 'jane@example.com', true, 'https://sap-hr.example.com', '2024');
+INSERT INTO request (id, application_id, requester, mail, collab, base_url, system_version, vote_count) OVERRIDING SYSTEM VALUE VALUES
+    (1, '22222222-2222-2222-2222-222222222222', 'jane', 'jane@example.com', true, 'https://sap-hr.example.com', '2024', 2);
 
 SELECT setval('request_id_seq', 1);
 